@@ -0,0 +1,310 @@
+package com.wecca.canoeanalysis.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.wecca.canoeanalysis.models.canoe.AnalysisContext;
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.FloatingSolution;
+import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.canoe.LoadCase;
+import com.wecca.canoeanalysis.models.data.NumericalSettings;
+import com.wecca.canoeanalysis.models.data.SolveType;
+import com.wecca.canoeanalysis.models.load.Load;
+import com.wecca.canoeanalysis.models.load.PointLoad;
+import com.wecca.canoeanalysis.models.load.UniformLoadDistribution;
+import com.wecca.canoeanalysis.services.BeamSolverService;
+import com.wecca.canoeanalysis.services.DiagramService;
+import com.wecca.canoeanalysis.services.FailureEnvelopeService;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import com.wecca.canoeanalysis.utils.HullLibrary;
+import com.wecca.canoeanalysis.utils.LoadUtils;
+import javafx.geometry.Point2D;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accuracy vs. speed harness for the numerical settings (integrator, floating solver, sampling grids), runs headless
+ * Every configuration solves the same corpus of load cases on each HullLibrary hull, the results are compared against
+ * golden references computed once at very high precision and checked in, so tuning a setting can't silently degrade results
+ * ------------------------------------------------------------------------------------------------
+ * Reported per configuration: wall time, and the worst error over the corpus of
+ * volume, mass, max shear and max moment (relative), and of the floating waterline h [mm] and theta [deg] (absolute)
+ * ------------------------------------------------------------------------------------------------
+ * Usage: AccuracyHarness [--golden golden.yaml] [--regenerate] [--config key=value,...]
+ * Keys of a custom configuration, unset keys keep their defaults: rel, abs, minIter, maxIter, grid, selfWeight, tol, maxNewton
+ * Run with: mvn -P benchmark test-compile exec:exec@accuracy [-Daccuracy.args="..."]
+ */
+public class AccuracyHarness {
+
+    public static final Path DEFAULT_GOLDEN_PATH = Paths.get("src/bench/golden/golden-references.yaml");
+
+    // Far tighter than any configuration worth running interactively, only the golden references are computed with it
+    // Bézier inversion rounds x to the micrometre, so integrands are steps below that scale and Simpson can't converge past ~1e-6
+    public static final NumericalSettings GOLDEN_SETTINGS = new NumericalSettings(1e-6, 1e-10, 5, 24, 1000, 1000, 1e-7, 1000);
+
+    /**
+     * The results of one load case on one hull, waterline fields are NaN for cases on stands or that did not converge
+     */
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class CaseResult {
+        private String hullName;
+        private String caseName;
+        private double volume; // [m^3]
+        private double mass; // [kg]
+        private double waterline; // [m]
+        private double theta; // [°]
+        private double maxShear; // [kN]
+        private double maxMoment; // [kN·m]
+    }
+
+    /**
+     * The worst errors of a configuration over the corpus
+     */
+    private static class ErrorSummary {
+        private double volume, mass, waterline, theta, maxShear, maxMoment;
+        private int unsolvedCases;
+
+        private void add(CaseResult golden, CaseResult result) {
+            if (result == null) {
+                unsolvedCases++;
+                return;
+            }
+            volume = Math.max(volume, relativeError(golden.volume, result.volume));
+            mass = Math.max(mass, relativeError(golden.mass, result.mass));
+            maxShear = Math.max(maxShear, relativeError(golden.maxShear, result.maxShear));
+            maxMoment = Math.max(maxMoment, relativeError(golden.maxMoment, result.maxMoment));
+            if (!Double.isNaN(golden.waterline)) {
+                if (Double.isNaN(result.waterline))
+                    unsolvedCases++;
+                else {
+                    waterline = Math.max(waterline, Math.abs(golden.waterline - result.waterline));
+                    theta = Math.max(theta, Math.abs(golden.theta - result.theta));
+                }
+            }
+        }
+
+        private static double relativeError(double expected, double actual) {
+            return Math.abs(actual - expected) / Math.max(Math.abs(expected), 1e-9);
+        }
+    }
+
+    /**
+     * @return the hulls of the HullLibrary by name
+     */
+    public static Map<String, Hull> getHulls() {
+        Map<String, Hull> hulls = new LinkedHashMap<>();
+        hulls.put("SHARK_BAIT", HullLibrary.generateSharkBaitHullScaled(HullLibrary.SHARK_BAIT_LENGTH));
+        hulls.put("GIRRAFT", HullLibrary.generateGirRaftHullScaled(HullLibrary.GIRRAFT_LENGTH));
+        return hulls;
+    }
+
+    /**
+     * The corpus: self-weight, paddler layouts sliding along the hull and a block of cargo, floating and on stands
+     * Positions are rounded to the centimetre like user input so every load lies on the default diagram grid
+     * @param length the length of the hull
+     * @return the load cases
+     */
+    public static List<LoadCase> getLoadCases(double length) {
+        List<LoadCase> loadCases = new ArrayList<>();
+        loadCases.add(new LoadCase("Self-weight, stands", SolveType.STANDS, List.of()));
+        loadCases.add(new LoadCase("Self-weight, floating", SolveType.FLOATING, List.of()));
+        loadCases.addAll(everyOther(FailureEnvelopeService.generatePaddlerLayouts(length, 2,
+                FailureEnvelopeService.DEFAULT_PADDLER_WEIGHT, FailureEnvelopeService.DEFAULT_PADDLER_SPACING, SolveType.FLOATING)));
+        loadCases.addAll(everyOther(FailureEnvelopeService.generatePaddlerLayouts(length, 4,
+                FailureEnvelopeService.DEFAULT_PADDLER_WEIGHT, FailureEnvelopeService.DEFAULT_PADDLER_SPACING, SolveType.FLOATING)));
+        loadCases.addAll(FailureEnvelopeService.generatePaddlerLayouts(length, 4,
+                FailureEnvelopeService.DEFAULT_PADDLER_WEIGHT, FailureEnvelopeService.DEFAULT_PADDLER_SPACING, SolveType.STANDS));
+
+        List<Load> cargo = new ArrayList<>();
+        for (double fraction : new double[] {0.2, 0.4, 0.6, 0.8}) {
+            cargo.add(new PointLoad(-0.75, CalculusUtils.roundXDecimalDigits(fraction * length, 2), false));
+        }
+        cargo.add(new UniformLoadDistribution(-0.2, CalculusUtils.roundXDecimalDigits(0.47 * length, 2),
+                CalculusUtils.roundXDecimalDigits(0.53 * length, 2)));
+        loadCases.add(new LoadCase("4 paddlers and cargo, floating", SolveType.FLOATING, cargo));
+        return loadCases;
+    }
+
+    private static <T> List<T> everyOther(List<T> list) {
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += 2) {
+            result.add(list.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Solve the whole corpus with the given settings, bound to the calling thread so the global settings are untouched
+     * @param settings the numerical settings
+     * @return the results in corpus order, null for cases that could not be solved
+     */
+    public static List<CaseResult> evaluate(NumericalSettings settings) {
+        List<CaseResult> results = new ArrayList<>();
+        for (Map.Entry<String, Hull> entry : getHulls().entrySet()) {
+            AnalysisContext context = new AnalysisContext(entry.getValue(), settings);
+            results.addAll(context.call(() -> {
+                Hull hull = context.getHull();
+                double volume = hull.getTotalVolume();
+                double mass = hull.getMass();
+                List<CaseResult> hullResults = new ArrayList<>();
+                for (LoadCase loadCase : getLoadCases(hull.getLength())) {
+                    hullResults.add(solve(entry.getKey(), hull, volume, mass, loadCase));
+                }
+                return hullResults;
+            }));
+        }
+        return results;
+    }
+
+    private static CaseResult solve(String hullName, Hull hull, double volume, double mass, LoadCase loadCase) {
+        Canoe canoe = new Canoe();
+        canoe.setHull(new Hull(hull));
+        canoe.setSolveType(loadCase.getSolveType());
+        for (Load load : loadCase.getLoads()) {
+            canoe.addLoad(LoadUtils.copyLoad(load));
+        }
+
+        double waterline = Double.NaN;
+        double theta = Double.NaN;
+        if (loadCase.getSolveType() == SolveType.STANDS) {
+            for (PointLoad support : BeamSolverService.solveStandSystem(canoe)) {
+                canoe.addLoad(support);
+            }
+        }
+        else {
+            FloatingSolution solution = BeamSolverService.solveFloatingSystem(canoe);
+            if (solution == null) return null;
+            waterline = solution.getSolvedH();
+            theta = solution.getSolvedTheta();
+            if (solution.getSolvedBuoyancy().getForce() != 0) canoe.addLoad(solution.getSolvedBuoyancy());
+        }
+
+        List<Point2D> sfdPoints = DiagramService.generateSfdPoints(canoe);
+        List<Point2D> bmdPoints = DiagramService.generateBmdPoints(canoe, sfdPoints);
+        return new CaseResult(hullName, loadCase.getName(), volume, mass, waterline, theta, maxAbsY(sfdPoints), maxAbsY(bmdPoints));
+    }
+
+    private static double maxAbsY(List<Point2D> points) {
+        return points.stream().mapToDouble(point -> Math.abs(point.getY())).max().orElse(0);
+    }
+
+    /**
+     * @param spec comma separated key=value overrides of the default settings, see the class comment for keys
+     * @return the settings
+     */
+    public static NumericalSettings parseSettings(String spec) {
+        NumericalSettings settings = NumericalSettings.DEFAULT;
+        for (String override : spec.split(",")) {
+            String[] keyValue = override.split("=");
+            if (keyValue.length != 2)
+                throw new IllegalArgumentException("Expected key=value but got: " + override);
+            String value = keyValue[1].trim();
+            settings = switch (keyValue[0].trim()) {
+                case "rel" -> settings.withIntegratorRelativeAccuracy(Double.parseDouble(value));
+                case "abs" -> settings.withIntegratorAbsoluteAccuracy(Double.parseDouble(value));
+                case "minIter" -> settings.withIntegratorMinIterations(Integer.parseInt(value));
+                case "maxIter" -> settings.withIntegratorMaxIterations(Integer.parseInt(value));
+                case "grid" -> settings.withDiagramGridResolution(Integer.parseInt(value));
+                case "selfWeight" -> settings.withSelfWeightIntervalsPerMetre(Integer.parseInt(value));
+                case "tol" -> settings.withSolverTolerance(Double.parseDouble(value));
+                case "maxNewton" -> settings.withSolverMaxIterations(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown setting: " + keyValue[0]);
+            };
+        }
+        return settings;
+    }
+
+    /**
+     * @return the configurations evaluated by default: the defaults and each knob turned one step either way
+     */
+    public static Map<String, NumericalSettings> getDefaultConfigurations() {
+        NumericalSettings defaults = NumericalSettings.DEFAULT;
+        Map<String, NumericalSettings> configurations = new LinkedHashMap<>();
+        configurations.put("default", defaults);
+        configurations.put("simpson rel 1e-3", defaults.withIntegratorRelativeAccuracy(1e-3));
+        configurations.put("simpson rel 1e-5", defaults.withIntegratorRelativeAccuracy(1e-5).withIntegratorAbsoluteAccuracy(1e-9).withIntegratorMaxIterations(20));
+        configurations.put("simpson min iter 3", defaults.withIntegratorMinIterations(3));
+        configurations.put("grid 0.02 m", defaults.withDiagramGridResolution(50));
+        configurations.put("grid 0.005 m", defaults.withDiagramGridResolution(200));
+        configurations.put("self-weight 0.05 m", defaults.withSelfWeightIntervalsPerMetre(20));
+        configurations.put("newton tol 1e-4", defaults.withSolverTolerance(1e-4));
+        configurations.put("newton tol 1e-8", defaults.withSolverTolerance(1e-8));
+        return configurations;
+    }
+
+    /**
+     * Headless entry point, see the class comment for usage
+     */
+    public static void main(String[] args) throws IOException {
+        Path goldenPath = DEFAULT_GOLDEN_PATH;
+        boolean regenerate = false;
+        Map<String, NumericalSettings> configurations = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--golden" -> goldenPath = Paths.get(args[++i]);
+                case "--regenerate" -> regenerate = true;
+                case "--config" -> {
+                    String spec = args[++i];
+                    configurations.put(spec, parseSettings(spec));
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (configurations.isEmpty())
+            configurations = getDefaultConfigurations();
+
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        List<CaseResult> golden;
+        if (regenerate || !Files.exists(goldenPath)) {
+            System.out.printf("Computing golden references with %s%n", GOLDEN_SETTINGS);
+            long start = System.nanoTime();
+            golden = evaluate(GOLDEN_SETTINGS);
+            if (golden.contains(null))
+                throw new RuntimeException("A golden load case did not converge, the corpus must be solvable");
+            if (goldenPath.getParent() != null) Files.createDirectories(goldenPath.getParent());
+            mapper.writeValue(goldenPath.toFile(), golden);
+            System.out.printf("Golden references written to %s in %.1f s%n%n", goldenPath, (System.nanoTime() - start) / 1e9);
+        }
+        else
+            golden = mapper.readValue(goldenPath.toFile(), new TypeReference<>() {});
+
+        // Warm up the JIT so the first configuration isn't charged for it
+        evaluate(NumericalSettings.DEFAULT);
+
+        System.out.printf("%d load cases on %d hulls against %s%n%n", golden.size(), getHulls().size(), goldenPath);
+        System.out.printf("%-20s %9s %9s %9s %9s %9s %11s %10s %8s%n",
+                "Configuration", "Time", "Volume", "Mass", "Shear", "Moment", "Waterline", "Theta", "Unsolved");
+        for (Map.Entry<String, NumericalSettings> configuration : configurations.entrySet()) {
+            long start = System.nanoTime();
+            List<CaseResult> results;
+            try {
+                results = evaluate(configuration.getValue());
+            } catch (RuntimeException e) {
+                // i.e. the integrator can't reach the requested accuracy within its iterations
+                System.out.printf("%-20s failed: %s%n", configuration.getKey(), e.getMessage());
+                continue;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (results.size() != golden.size())
+                throw new IllegalArgumentException("The golden references do not match the corpus, regenerate them");
+
+            ErrorSummary errors = new ErrorSummary();
+            for (int i = 0; i < results.size(); i++) {
+                errors.add(golden.get(i), results.get(i));
+            }
+            System.out.printf("%-20s %7.2f s %9.1e %9.1e %9.1e %9.1e %8.4f mm %6.4f deg %8d%n", configuration.getKey(), seconds,
+                    errors.volume, errors.mass, errors.maxShear, errors.maxMoment, errors.waterline * 1000, errors.theta, errors.unsolvedCases);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.wecca.canoeanalysis.benchmarks;
+
+import com.wecca.canoeanalysis.models.canoe.FloatingSolution;
+import com.wecca.canoeanalysis.services.BeamSolverService;
+import com.wecca.canoeanalysis.services.DiagramService;
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The floating solve and diagram generation on the loaded canoes, each call takes from milliseconds to seconds
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BeamSolverBenchmark {
+
+    @Benchmark
+    public FloatingSolution solveFloatingSystem(CanoeState state) {
+        return BeamSolverService.solveFloatingSystem(state.canoe);
+    }
+
+    @Benchmark
+    public List<Point2D> generateSfdPoints(CanoeState state) {
+        return DiagramService.generateSfdPoints(state.solvedCanoe);
+    }
+
+    @Benchmark
+    public List<Point2D> generateBmdPoints(CanoeState state) {
+        return DiagramService.generateBmdPoints(state.solvedCanoe);
+    }
+}
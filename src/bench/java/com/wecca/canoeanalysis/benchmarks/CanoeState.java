@@ -0,0 +1,62 @@
+package com.wecca.canoeanalysis.benchmarks;
+
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.FloatingSolution;
+import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.load.PointLoad;
+import com.wecca.canoeanalysis.models.load.UniformLoadDistribution;
+import com.wecca.canoeanalysis.services.BeamSolverService;
+import com.wecca.canoeanalysis.utils.HullLibrary;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark inputs: each HullLibrary hull with a realistic race load set
+ * Four paddlers and a block of cargo amidships, the same proportions on every hull
+ * ------------------------------------------------------------------------------------------------
+ * Run all benchmarks with: mvn -P benchmark verify
+ * Pass JMH options with -Djmh.args="..." (i.e. -Djmh.args="HullBenchmark -prof gc"), results go to target/benchmark/jmh-result.json
+ */
+@State(Scope.Thread)
+public class CanoeState {
+
+    @Param({"SHARK_BAIT", "GIRRAFT"})
+    public String hullName;
+
+    public Hull hull;
+    public Canoe canoe;
+    public Canoe solvedCanoe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hull = switch (hullName) {
+            case "SHARK_BAIT" -> HullLibrary.generateSharkBaitHullScaled(HullLibrary.SHARK_BAIT_LENGTH);
+            case "GIRRAFT" -> HullLibrary.generateGirRaftHullScaled(HullLibrary.GIRRAFT_LENGTH);
+            default -> throw new IllegalArgumentException("Unknown hull: " + hullName);
+        };
+        canoe = buildLoadedCanoe(hull);
+
+        solvedCanoe = buildLoadedCanoe(hull);
+        FloatingSolution solution = BeamSolverService.solveFloatingSystem(solvedCanoe);
+        if (solution == null) throw new RuntimeException("Benchmark canoe did not float");
+        solvedCanoe.addLoad(solution.getSolvedBuoyancy());
+    }
+
+    /**
+     * @param hull the hull
+     * @return a canoe on a copy of the hull with paddlers at 20%, 40%, 60% and 80% of its length and cargo amidships
+     */
+    public static Canoe buildLoadedCanoe(Hull hull) {
+        Canoe canoe = new Canoe();
+        canoe.setHull(new Hull(hull));
+        double length = hull.getLength();
+        for (double fraction : new double[] {0.2, 0.4, 0.6, 0.8}) {
+            canoe.addLoad(new PointLoad(-0.75, fraction * length, false));
+        }
+        canoe.addLoad(new UniformLoadDistribution(-0.2, 0.47 * length, 0.53 * length));
+        return canoe;
+    }
+}
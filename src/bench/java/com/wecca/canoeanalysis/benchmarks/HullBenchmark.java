@@ -0,0 +1,80 @@
+package com.wecca.canoeanalysis.benchmarks;
+
+import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hull geometry hot paths: Bézier evaluation and inversion, integration of the area functions, hull properties
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HullBenchmark {
+
+    private static final int NUM_SAMPLES = 1024;
+
+    private CubicBezierFunction segment;
+    private double[] xs;
+    private int i;
+
+    /**
+     * Sample x over the longest side view segment, cycled through so the JIT can't fold a constant argument
+     */
+    @Setup(Level.Trial)
+    public void setUp(CanoeState state) {
+        segment = state.hull.getSideViewSegments().stream()
+                .max((a, b) -> Double.compare(a.getRx() - a.getX(), b.getRx() - b.getX()))
+                .orElseThrow();
+        xs = new double[NUM_SAMPLES];
+        for (int j = 0; j < NUM_SAMPLES; j++) {
+            xs[j] = segment.getX() + (segment.getRx() - segment.getX()) * (j + 0.5) / NUM_SAMPLES;
+        }
+    }
+
+    private double nextX() {
+        i = (i + 1) & (NUM_SAMPLES - 1);
+        return xs[i];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double bezierValue() {
+        return segment.value(nextX());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double bezierGetT() {
+        return segment.getT(nextX());
+    }
+
+    @Benchmark
+    public double integrateCrossSectionalArea(CanoeState state) {
+        return CalculusUtils.integrate(state.hull.getCrossSectionalAreaFunction(), 0, state.hull.getLength());
+    }
+
+    @Benchmark
+    public double totalVolume(CanoeState state) {
+        return state.hull.getTotalVolume();
+    }
+
+    @Benchmark
+    public double mass(CanoeState state) {
+        return state.hull.getMass();
+    }
+}
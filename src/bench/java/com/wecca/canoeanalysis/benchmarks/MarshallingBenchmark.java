@@ -0,0 +1,50 @@
+package com.wecca.canoeanalysis.benchmarks;
+
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.services.MarshallingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deep copies: structural (deepCopy) and through Smile, against the copy constructors as a baseline
+ * The canoe is unsolved as a solved canoe's buoyancy can't be marshalled
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallingBenchmark {
+
+    @Benchmark
+    public Hull hullDeepCopy(CanoeState state) {
+        return MarshallingService.deepCopy(state.hull);
+    }
+
+    @Benchmark
+    public Hull hullSmileDeepCopy(CanoeState state) {
+        return MarshallingService.smileDeepCopy(state.hull);
+    }
+
+    @Benchmark
+    public Hull hullCopyConstructor(CanoeState state) {
+        return new Hull(state.hull);
+    }
+
+    @Benchmark
+    public Canoe canoeDeepCopy(CanoeState state) {
+        return MarshallingService.deepCopy(state.canoe);
+    }
+
+    @Benchmark
+    public Canoe canoeCopyConstructor(CanoeState state) {
+        return new Canoe(state.canoe);
+    }
+}
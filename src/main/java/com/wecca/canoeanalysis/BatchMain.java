@@ -0,0 +1,105 @@
+package com.wecca.canoeanalysis;
+
+import com.wecca.canoeanalysis.models.data.BatchAnalysis;
+import com.wecca.canoeanalysis.models.data.BatchOptions;
+import com.wecca.canoeanalysis.models.data.BatchOutputFormat;
+import com.wecca.canoeanalysis.models.data.SolveType;
+import com.wecca.canoeanalysis.services.BatchAnalysisService;
+import com.wecca.canoeanalysis.services.ResultCacheService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Headless entry point for batch analysis of a folder of canoe and hull files, never starts the JavaFX toolkit
+ * Exits with 0 if every file was analyzed, 1 if any failed (listed in the output), and 2 on bad arguments
+ * ------------------------------------------------------------------------------------------------
+ * Usage: BatchMain <directory> [--recursive] [--analyses a,b,...|all] [--solve floating|stands] [--threads n]
+ *                  [--format csv|json] [--out file] [--cache directory] [--no-cache]
+ * Analyses: properties, solve, diagrams, stress, deflection, envelope (default: properties,solve,diagrams)
+ * Run with: mvn process-classes exec:exec@batch -Dbatch.args="..."
+ */
+public class BatchMain {
+    public static void main(final String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BatchMain <directory> [--recursive] [--analyses a,b,...|all] [--solve floating|stands] [--threads n] "
+                    + "[--format csv|json] [--out file] [--cache directory] [--no-cache]");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Batch run failed: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * @param args see the class comment
+     * @return the exit code
+     */
+    public static int run(String[] args) throws IOException {
+        Path directory = null;
+        Path outputPath = null;
+        boolean recursive = false;
+        BatchOptions options = BatchOptions.DEFAULT;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--recursive" -> recursive = true;
+                case "--analyses" -> options = options.withAnalyses(parseAnalyses(nextArgument(args, ++i)));
+                case "--solve" -> options = options.withSolveType(switch (nextArgument(args, ++i)) {
+                    case "floating" -> SolveType.FLOATING;
+                    case "stands" -> SolveType.STANDS;
+                    default -> throw new IllegalArgumentException("Unknown solve type: " + args[i]);
+                });
+                case "--threads" -> options = options.withThreads(Integer.parseInt(nextArgument(args, ++i)));
+                case "--format" -> options = options.withFormat(switch (nextArgument(args, ++i)) {
+                    case "csv" -> BatchOutputFormat.CSV;
+                    case "json" -> BatchOutputFormat.JSON;
+                    default -> throw new IllegalArgumentException("Unknown format: " + args[i]);
+                });
+                case "--out" -> outputPath = Paths.get(nextArgument(args, ++i));
+                case "--cache" -> ResultCacheService.setCacheDirectory(Paths.get(nextArgument(args, ++i)));
+                case "--no-cache" -> options = options.withUseResultCache(false);
+                default -> {
+                    if (args[i].startsWith("--") || directory != null)
+                        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                    directory = Paths.get(args[i]);
+                }
+            }
+        }
+        if (directory == null) throw new IllegalArgumentException("No directory given");
+
+        List<Path> files = BatchAnalysisService.findModelFiles(directory, recursive);
+        System.err.printf("Analyzing %d files on %d threads%n", files.size(), options.getThreads());
+        long startNs = System.nanoTime();
+        int numFailed;
+        if (outputPath == null) numFailed = BatchAnalysisService.run(files, options, System.out);
+        else {
+            try (OutputStream output = Files.newOutputStream(outputPath)) {
+                numFailed = BatchAnalysisService.run(files, options, output);
+            }
+        }
+        System.err.printf("%d of %d files analyzed in %.1f s%n", files.size() - numFailed, files.size(), (System.nanoTime() - startNs) / 1e9);
+        return numFailed == 0 ? 0 : 1;
+    }
+
+    private static String nextArgument(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private static Set<BatchAnalysis> parseAnalyses(String spec) {
+        if (spec.equals("all")) return EnumSet.allOf(BatchAnalysis.class);
+        Set<BatchAnalysis> analyses = EnumSet.noneOf(BatchAnalysis.class);
+        for (String analysis : spec.split(",")) {
+            analyses.add(BatchAnalysis.fromArgument(analysis));
+        }
+        return analyses;
+    }
+}
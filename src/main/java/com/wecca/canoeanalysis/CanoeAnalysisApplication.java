@@ -7,6 +7,7 @@ import com.wecca.canoeanalysis.services.LoggerService;
 import com.wecca.canoeanalysis.services.ResourceManagerService;
 import com.wecca.canoeanalysis.services.MarshallingService;
 import com.wecca.canoeanalysis.services.color.ColorManagerService;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
 import javafx.scene.layout.AnchorPane;
 import lombok.Getter;
 import lombok.Setter;
@@ -65,6 +66,14 @@ public class CanoeAnalysisApplication extends Application {
                         .getPrimaryColor());
     }
 
+    /**
+     * Called implicitly when the last window closes
+     */
+    @Override
+    public void stop() {
+        MetricsService.dumpToFile();
+    }
+
     public static void main(String[] args) {
         launch();
     }
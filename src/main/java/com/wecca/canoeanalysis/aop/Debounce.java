@@ -11,7 +11,10 @@ import java.lang.annotation.Target;
  * This occurs with things like moving the mouse: events are fired per few pixels the mouse moves
  * ----------------------------------------------------------------------------------------------
  * Debouncing will ignore all method calls except the last call in each x ms time frame
+ * Calls are debounced per method and target object, so different methods and instances don't cancel each other
+ * Set maxWaitMs so that a continuous stream of calls (i.e. a drag) still runs at least every maxWaitMs instead of starving
  * Use carefully, this could either improve or hurt performance if not used correctly
+ * The method should return void, the advised call always returns null
  */
 @Target({ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
@@ -19,4 +22,7 @@ public @interface Debounce {
 
     // The amount of milliseconds to debounce
     int ms();
+
+    // The longest amount of milliseconds a call can be deferred, 0 for no limit
+    int maxWaitMs() default 0;
 }
@@ -1,36 +1,76 @@
 package com.wecca.canoeanalysis.aop;
 
 import com.wecca.canoeanalysis.services.MarshallingService;
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import java.lang.annotation.Annotation;
 
 @Aspect
 public class DebounceAspect {
 
+    /**
+     * Identifies the calls that are rate limited together: the same method on the same object (by identity)
+     */
+    private static final class CallKey {
+        private final JoinPoint.StaticPart method;
+        private final Object target;
+
+        private CallKey(ProceedingJoinPoint pjp) {
+            this.method = pjp.getStaticPart();
+            this.target = pjp.getTarget();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CallKey other && method == other.method && target == other.target;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + System.identityHashCode(target);
+        }
+    }
+
     /**
      * Intercepts any execution of a method annotated with @Debounce, wrapped the executive with a debouncer
      */
     @Around("execution(@com.wecca.canoeanalysis.aop.Debounce * *(..)) && @annotation(debounceAnnotation)")
     public Object debounceAdvice(ProceedingJoinPoint pjp, Debounce debounceAnnotation) {
         final Object[] args = pjp.getArgs();
-        if (MarshallingService.DEBOUNCING) {
-            int delayMs = debounceAnnotation.ms();
-            Debouncer.debounceConsumer((Object[] latestArgs) -> {
-                try {
-                    pjp.proceed(latestArgs);
-                } catch (Throwable t) {
-                    throw new RuntimeException("Exception in debounced method", t);
-                }
-            }, args, delayMs);
-        }
-        else {
-            try {
-                pjp.proceed(args);
-            } catch (Throwable t) {
-                throw new RuntimeException("Exception in debounced method", t);
-            }
-        }
+        if (MarshallingService.DEBOUNCING)
+            Debouncer.debounceConsumer(new CallKey(pjp), (Object[] latestArgs) -> proceed(pjp, latestArgs, Debounce.class),
+                    args, debounceAnnotation.ms(), debounceAnnotation.maxWaitMs());
+        else
+            proceed(pjp, args, Debounce.class);
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Intercepts any execution of a method annotated with @Throttle, wrapped the executive with a throttle
+     */
+    @Around("execution(@com.wecca.canoeanalysis.aop.Throttle * *(..)) && @annotation(throttleAnnotation)")
+    public Object throttleAdvice(ProceedingJoinPoint pjp, Throttle throttleAnnotation) {
+        final Object[] args = pjp.getArgs();
+        if (MarshallingService.DEBOUNCING)
+            Debouncer.throttleConsumer(new CallKey(pjp), (Object[] latestArgs) -> proceed(pjp, latestArgs, Throttle.class),
+                    args, throttleAnnotation.ms());
+        else
+            proceed(pjp, args, Throttle.class);
+        return null;
+    }
+
+    /**
+     * Runs the rate limited method with the given arguments
+     * @param annotation the rate limiting annotation on the method, named in the exception when it throws
+     */
+    private static void proceed(ProceedingJoinPoint pjp, Object[] args, Class<? extends Annotation> annotation) {
+        try {
+            pjp.proceed(args);
+        } catch (Throwable t) {
+            throw new RuntimeException(String.format("Exception in @%s method %s",
+                    annotation.getSimpleName(), pjp.getSignature()), t);
+        }
+    }
+}
@@ -1,37 +1,139 @@
 package com.wecca.canoeanalysis.aop;
 
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
 import javafx.application.Platform;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+/**
+ * Rate limiting of high frequency calls, keyed so that each key (i.e. a method on a target object) is limited independently
+ * Debouncing runs only the last call once the calls pause, throttling runs the first call and then at most one per interval
+ * Deferred calls run on the JavaFX application thread with the most recent argument for their key
+ */
 public class Debouncer {
-    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-    private static ScheduledFuture<?> scheduledTask;
-    private static Object lastConsumerArg;
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "debouncer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Keys with a pending call or an open throttle window, guarded by the map, removed once idle so targets are not retained
+    private static final Map<Object, KeyState> states = new HashMap<>();
+
+    private static class KeyState {
+        private Consumer<Object> consumer;
+        private Object latestArg;
+        private boolean pending;
+        private long firstPendingNs = -1;
+        private ScheduledFuture<?> scheduledTask;
+    }
 
     /**
-     * Debounces a Consumer task.
-     * If a previous task is pending, it cancels it.
-     * Only the most recent argument is processed.
+     * Debounces a Consumer task per key.
+     * If a previous task for the key is pending, it cancels it.
+     * Only the most recent argument for the key is processed.
+     * @param key identifies the calls that debounce each other (i.e. method and target), must implement equals and hashCode
      * @param consumer The Consumer to execute.
      * @param arg The argument for the Consumer.
      * @param delayMs Delay in milliseconds before executing the task.
+     * @param maxWaitMs The longest a call can be deferred while calls keep coming in, 0 to defer indefinitely
+     * @param <T> The type of the argument.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void debounceConsumer(Object key, Consumer<T> consumer, T arg, int delayMs, int maxWaitMs) {
+        synchronized (states) {
+            KeyState state = states.computeIfAbsent(key, k -> new KeyState());
+            state.consumer = (Consumer<Object>) consumer;
+            state.latestArg = arg;
+            state.pending = true;
+            long now = System.nanoTime();
+            if (state.firstPendingNs == -1)
+                state.firstPendingNs = now;
+
+            // Cancel the scheduled task if it has not yet started running, otherwise let the task finish (i.e. don't interrupt it)
+            if (state.scheduledTask != null && !state.scheduledTask.isDone() && state.scheduledTask.cancel(false))
+                MetricsService.DEBOUNCE_DROPS.increment();
+
+            // Schedule the new task, no later than max wait after the first call it replaced
+            long delayNs = TimeUnit.MILLISECONDS.toNanos(delayMs);
+            if (maxWaitMs > 0)
+                delayNs = Math.min(delayNs, Math.max(state.firstPendingNs + TimeUnit.MILLISECONDS.toNanos(maxWaitMs) - now, 0));
+            state.scheduledTask = scheduler.schedule(() -> Platform.runLater(() -> runDebounced(key, state)), delayNs, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Throttles a Consumer task per key at a fixed rate.
+     * The first call runs immediately on the calling thread and opens a window of intervalMs,
+     * calls during the window are deferred to its end and only the most recent argument is processed.
+     * @param key identifies the calls that throttle each other (i.e. method and target), must implement equals and hashCode
+     * @param consumer The Consumer to execute.
+     * @param arg The argument for the Consumer.
+     * @param intervalMs The minimum time in milliseconds between executions.
      * @param <T> The type of the argument.
      */
     @SuppressWarnings("unchecked")
-    public static <T> void debounceConsumer(Consumer<T> consumer, T arg, int delayMs) {
-        lastConsumerArg = arg;
+    public static <T> void throttleConsumer(Object key, Consumer<T> consumer, T arg, int intervalMs) {
+        synchronized (states) {
+            KeyState state = states.get(key);
+            if (state != null) {
+                if (state.pending)
+                    MetricsService.DEBOUNCE_DROPS.increment();
+                state.consumer = (Consumer<Object>) consumer;
+                state.latestArg = arg;
+                state.pending = true;
+                return;
+            }
+            KeyState newState = new KeyState();
+            states.put(key, newState);
+            scheduleThrottleWindowEnd(key, newState, intervalMs);
+        }
+
+        // Leading edge
+        MetricsService.DEBOUNCE_EXECUTIONS.increment();
+        consumer.accept(arg);
+    }
 
-        // Cancel the scheduled task if it has not yet started running, otherwise let the task finish (i.e. don't interrupt it)
-        if (scheduledTask != null && !scheduledTask.isDone())
-            scheduledTask.cancel(false);
+    private static void runDebounced(Object key, KeyState state) {
+        Consumer<Object> consumer;
+        Object arg;
+        synchronized (states) {
+            // A task that could not be cancelled in time may find its call already run by the task that replaced it
+            if (!state.pending) return;
+            consumer = state.consumer;
+            arg = state.latestArg;
+            state.pending = false;
+            state.latestArg = null;
+            state.firstPendingNs = -1;
+            states.remove(key, state);
+        }
+        MetricsService.DEBOUNCE_EXECUTIONS.increment();
+        consumer.accept(arg);
+    }
 
-        // Schedule the new task
-        scheduledTask = scheduler.schedule(() ->
-                Platform.runLater(() -> consumer.accept((T) lastConsumerArg)),
-                delayMs, TimeUnit.MILLISECONDS);
+    private static void scheduleThrottleWindowEnd(Object key, KeyState state, int intervalMs) {
+        state.scheduledTask = scheduler.schedule(() -> Platform.runLater(() -> {
+            Consumer<Object> consumer;
+            Object arg;
+            synchronized (states) {
+                // Nothing deferred during the window, the next call is a leading edge again
+                if (!state.pending) {
+                    states.remove(key, state);
+                    return;
+                }
+                consumer = state.consumer;
+                arg = state.latestArg;
+                state.pending = false;
+                state.latestArg = null;
+                scheduleThrottleWindowEnd(key, state, intervalMs);
+            }
+            MetricsService.DEBOUNCE_EXECUTIONS.increment();
+            consumer.accept(arg);
+        }), intervalMs, TimeUnit.MILLISECONDS);
     }
 }
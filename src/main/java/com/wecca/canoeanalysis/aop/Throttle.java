@@ -0,0 +1,23 @@
+package com.wecca.canoeanalysis.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Throttle a method to run at most once per set amount of milliseconds
+ * Unlike debouncing, the first call runs immediately and a continuous stream of calls runs at a fixed rate
+ * This suits heavy recomputation during drags, where the result should keep up with the mouse without running per event
+ * ----------------------------------------------------------------------------------------------
+ * Calls during the interval are dropped except the last one, which runs at the end of the interval
+ * Calls are throttled per method and target object, deferred calls run on the JavaFX application thread
+ * The method should return void, the advised call always returns null
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Throttle {
+
+    // The minimum amount of milliseconds between calls
+    int ms();
+}
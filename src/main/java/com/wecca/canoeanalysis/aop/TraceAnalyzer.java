@@ -0,0 +1,232 @@
+package com.wecca.canoeanalysis.aop;
+
+import com.wecca.canoeanalysis.services.ResourceManagerService;
+import lombok.Getter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Offline profiler for binary traces written by the TraceRecorder, runs headless (no JavaFX toolkit)
+ * Rebuilds the call tree of each thread by time containment, so calls whose parent was not recorded
+ * (sampled out, under threshold) attach to their nearest recorded ancestor
+ * ------------------------------------------------------------------------------------------------
+ * Produces folded stacks (thread;Caller::method;Callee::method self-time-μs per line) for flamegraph.pl / speedscope
+ * and per-method aggregates: calls, total and self time, p50 / p99 duration
+ * ------------------------------------------------------------------------------------------------
+ * Usage: TraceAnalyzer [trace.bin] [--top N] [--folded out.folded]
+ * Without a trace path the latest trace in the logs folder is analyzed
+ */
+public class TraceAnalyzer {
+
+    private final TraceFile trace;
+    @Getter
+    private final Map<String, Long> foldedStacks = new HashMap<>();
+    @Getter
+    private final Map<String, MethodStats> methodStats = new HashMap<>();
+
+    /**
+     * Aggregate timings of one method over the whole trace
+     * Total time only counts the outermost call of recursive calls so it is not double counted
+     */
+    @Getter
+    public static class MethodStats {
+        private final String methodName;
+        private long calls;
+        private long totalNs;
+        private long selfNs;
+        private long[] durations = new long[16];
+
+        private MethodStats(String methodName) {
+            this.methodName = methodName;
+        }
+
+        private void add(long durationNs, long selfNs, boolean isRecursive) {
+            if (calls == durations.length)
+                durations = Arrays.copyOf(durations, durations.length * 2);
+            durations[(int) calls++] = durationNs;
+            this.selfNs += selfNs;
+            if (!isRecursive)
+                totalNs += durationNs;
+        }
+
+        /**
+         * @param percentile in [0, 100]
+         * @return the duration at the percentile by nearest rank
+         */
+        public long getDurationAtPercentile(double percentile) {
+            if (calls == 0) return 0;
+            long[] sorted = Arrays.copyOf(durations, (int) calls);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * calls);
+            return sorted[Math.max(rank - 1, 0)];
+        }
+    }
+
+    /**
+     * A call with its place in the rebuilt call tree
+     */
+    private static class Frame {
+        private final TraceEvent event;
+        private final String stack;
+        private final Set<Integer> methodsOnStack;
+        private final boolean isRecursive;
+        private long childrenNs;
+
+        private Frame(TraceEvent event, String stack, Set<Integer> methodsOnStack, boolean isRecursive) {
+            this.event = event;
+            this.stack = stack;
+            this.methodsOnStack = methodsOnStack;
+            this.isRecursive = isRecursive;
+        }
+    }
+
+    /**
+     * @param trace the trace to analyze
+     */
+    public TraceAnalyzer(TraceFile trace) {
+        this.trace = trace;
+        Map<Long, List<TraceEvent>> eventsByThread = new HashMap<>();
+        for (TraceEvent event : trace.getEvents()) {
+            eventsByThread.computeIfAbsent(event.getThreadId(), id -> new ArrayList<>()).add(event);
+        }
+        eventsByThread.values().forEach(this::analyzeThread);
+    }
+
+    /**
+     * Walk the calls of one thread in start order keeping a stack of the calls still open
+     * A parent starts no later than its children and ends no earlier, ties are broken by the recorded depth
+     */
+    private void analyzeThread(List<TraceEvent> events) {
+        events.sort(Comparator.comparingLong(TraceEvent::getStartNs)
+                .thenComparing(Comparator.comparingLong(TraceEvent::getDurationNs).reversed())
+                .thenComparingInt(TraceEvent::getDepth));
+
+        Deque<Frame> openFrames = new ArrayDeque<>();
+        for (TraceEvent event : events) {
+            while (!openFrames.isEmpty() && openFrames.peek().event.getEndNs() < event.getEndNs())
+                closeFrame(openFrames.pop());
+
+            Frame parent = openFrames.peek();
+            String name = trace.getMethodName(event);
+            String stack = (parent == null ? trace.getThreadName(event) : parent.stack) + ";" + name;
+            Set<Integer> methodsOnStack = parent == null ? new HashSet<>() : new HashSet<>(parent.methodsOnStack);
+            boolean isRecursive = !methodsOnStack.add(event.getMethodId());
+            if (parent != null)
+                parent.childrenNs += event.getDurationNs();
+            openFrames.push(new Frame(event, stack, methodsOnStack, isRecursive));
+        }
+        while (!openFrames.isEmpty())
+            closeFrame(openFrames.pop());
+    }
+
+    private void closeFrame(Frame frame) {
+        long selfNs = Math.max(frame.event.getDurationNs() - frame.childrenNs, 0);
+        foldedStacks.merge(frame.stack, selfNs, Long::sum);
+        methodStats.computeIfAbsent(trace.getMethodName(frame.event), MethodStats::new)
+                .add(frame.event.getDurationNs(), selfNs, frame.isRecursive);
+    }
+
+    /**
+     * Write folded stacks with self time in microseconds, the input format of flamegraph.pl and speedscope
+     * @param path the file to write
+     */
+    public void writeFoldedStacks(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        foldedStacks.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    long micros = Math.round(entry.getValue() / 1e3);
+                    if (micros > 0) lines.add(entry.getKey() + " " + micros);
+                });
+        Files.write(path, lines);
+    }
+
+    /**
+     * Print the hottest paths by self time and a table of per-method aggregates
+     * @param out the stream to print to
+     * @param top the number of paths and methods to print
+     */
+    public void printReport(PrintStream out, int top) {
+        long totalSelfNs = foldedStacks.values().stream().mapToLong(Long::longValue).sum();
+        out.printf("%d events on %d threads, %d dropped, %s of self time recorded%n",
+                trace.getEvents().size(), trace.getThreadNames().size(), trace.getDroppedCount(), formatNanos(totalSelfNs));
+
+        out.printf("%nHottest paths by self time%n");
+        foldedStacks.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .forEach(entry -> out.printf("%10s %6.2f%%  %s%n", formatNanos(entry.getValue()),
+                        100.0 * entry.getValue() / Math.max(totalSelfNs, 1), entry.getKey().replace(";", " > ")));
+
+        out.printf("%nMethods by self time%n");
+        out.printf("%-60s %8s %10s %10s %10s %10s%n", "Method", "Calls", "Total", "Self", "p50", "p99");
+        methodStats.values().stream()
+                .sorted(Comparator.comparingLong(MethodStats::getSelfNs).reversed())
+                .limit(top)
+                .forEach(stats -> out.printf("%-60s %8d %10s %10s %10s %10s%n", stats.getMethodName(), stats.getCalls(),
+                        formatNanos(stats.getTotalNs()), formatNanos(stats.getSelfNs()),
+                        formatNanos(stats.getDurationAtPercentile(50)), formatNanos(stats.getDurationAtPercentile(99))));
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds
+     * @return the duration in the most readable unit
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000_000)
+            return String.format("%.2f s", nanos / 1e9);
+        else if (nanos >= 1_000_000)
+            return String.format("%.1f ms", nanos / 1e6);
+        else if (nanos >= 1_000)
+            return String.format("%.1f μs", nanos / 1e3);
+        else
+            return String.format("%d ns", nanos);
+    }
+
+    /**
+     * Headless entry point, see the class comment for usage
+     */
+    public static void main(String[] args) throws IOException {
+        Path tracePath = null;
+        Path foldedPath = null;
+        int top = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--top" -> top = Integer.parseInt(args[++i]);
+                case "--folded" -> foldedPath = Paths.get(args[++i]);
+                default -> tracePath = Paths.get(args[i]);
+            }
+        }
+
+        if (tracePath == null) {
+            Path logDir = ResourceManagerService.getResourcePathResolved("logs");
+            try (Stream<Path> files = Files.exists(logDir) ? Files.list(logDir) : Stream.empty()) {
+                tracePath = files.filter(file -> file.getFileName().toString().matches("trace-.*\\.bin"))
+                        .max(Comparator.naturalOrder())
+                        .orElseThrow(() -> new IllegalArgumentException("No trace given and no trace files found in " + logDir));
+            }
+        }
+
+        TraceAnalyzer analyzer = new TraceAnalyzer(TraceFile.read(tracePath));
+        System.out.printf("Trace %s%n", tracePath);
+        analyzer.printReport(System.out, top);
+        if (foldedPath != null) {
+            analyzer.writeFoldedStacks(foldedPath);
+            System.out.printf("%nFolded stacks written to %s%n", foldedPath);
+        }
+    }
+}
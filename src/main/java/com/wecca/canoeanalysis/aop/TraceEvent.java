@@ -0,0 +1,24 @@
+package com.wecca.canoeanalysis.aop;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A completed traced call read back from a binary trace file
+ * Times are System.nanoTime() values of the recording session, see TraceFile for converting to wall clock time
+ */
+@Getter @AllArgsConstructor
+public class TraceEvent {
+    private final int methodId;
+    private final long threadId;
+    private final long startNs;
+    private final long durationNs;
+    private final int depth;
+    private final boolean threw;
+    private final String arguments;
+    private final String result;
+
+    public long getEndNs() {
+        return startNs + durationNs;
+    }
+}
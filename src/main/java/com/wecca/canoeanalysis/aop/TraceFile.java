@@ -0,0 +1,84 @@
+package com.wecca.canoeanalysis.aop;
+
+import lombok.Getter;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binary trace file written by the TraceRecorder, read back into memory
+ * Events are in the order they completed, so a callee comes before its caller
+ */
+@Getter
+public class TraceFile {
+    private final long startEpochMillis;
+    private final long startNanoTime;
+    private final Map<Integer, String> methodNames = new HashMap<>();
+    private final Map<Long, String> threadNames = new HashMap<>();
+    private final List<TraceEvent> events = new ArrayList<>();
+    private long droppedCount;
+
+    private TraceFile(long startEpochMillis, long startNanoTime) {
+        this.startEpochMillis = startEpochMillis;
+        this.startNanoTime = startNanoTime;
+    }
+
+    /**
+     * Read a trace file, a file cut off while being written is read up to the last complete record
+     * @param path the path of the trace file
+     * @return the trace
+     */
+    public static TraceFile read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != TraceRecorder.MAGIC)
+                throw new IOException("Not a trace file: " + path);
+            short version = in.readShort();
+            if (version != TraceRecorder.VERSION)
+                throw new IOException(String.format("Unsupported trace file version %d", version));
+            TraceFile trace = new TraceFile(in.readLong(), in.readLong());
+
+            try {
+                while (true) {
+                    byte recordType = in.readByte();
+                    switch (recordType) {
+                        case TraceRecorder.METHOD_RECORD -> trace.methodNames.put(in.readInt(), in.readUTF());
+                        case TraceRecorder.THREAD_RECORD -> trace.threadNames.put(in.readLong(), in.readUTF());
+                        case TraceRecorder.EVENT_RECORD -> trace.events.add(new TraceEvent(in.readInt(), in.readLong(),
+                                in.readLong(), in.readLong(), in.readInt(), (in.readByte() & TraceRecorder.FLAG_THREW) != 0, null, null));
+                        case TraceRecorder.ARGUMENTS_RECORD -> {
+                            TraceEvent event = trace.events.removeLast();
+                            trace.events.add(new TraceEvent(event.getMethodId(), event.getThreadId(), event.getStartNs(),
+                                    event.getDurationNs(), event.getDepth(), event.isThrew(), in.readUTF(), in.readUTF()));
+                        }
+                        case TraceRecorder.DROPPED_RECORD -> trace.droppedCount += in.readLong();
+                        default -> throw new IOException(String.format("Corrupt trace file, unknown record type %d", recordType));
+                    }
+                }
+            } catch (EOFException ignored) {}
+            return trace;
+        }
+    }
+
+    /**
+     * @param event an event in this trace
+     * @return the name of the traced method as Class::method
+     */
+    public String getMethodName(TraceEvent event) {
+        return methodNames.getOrDefault(event.getMethodId(), "UnknownClass::unknownMethod");
+    }
+
+    /**
+     * @param event an event in this trace
+     * @return the name of the thread the event was recorded on
+     */
+    public String getThreadName(TraceEvent event) {
+        return threadNames.getOrDefault(event.getThreadId(), String.valueOf(event.getThreadId()));
+    }
+}
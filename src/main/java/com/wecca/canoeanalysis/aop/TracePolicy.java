@@ -0,0 +1,89 @@
+package com.wecca.canoeanalysis.aop;
+
+import com.wecca.canoeanalysis.models.data.TraceSampling;
+import com.wecca.canoeanalysis.services.MarshallingService;
+import lombok.Getter;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which calls of one traced method are recorded, so tracing can stay on in real sessions to catch outliers
+ * Every check is a few arithmetic operations done before anything about the call (i.e. its arguments) is captured
+ * 1. sampling: 1 in sampleRate calls, chosen at random so threads do not contend on a shared counter
+ * 2. threshold: calls faster than the threshold are not recorded
+ * 3. budget: at most budgetPerSecond calls recorded in each one second window
+ */
+@Getter
+public class TracePolicy {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int sampleRate;
+    private final long thresholdNs;
+    private final int budgetPerSecond;
+
+    // Budget window, a race on rollover can admit a few extra calls which is fine for a trace
+    private final AtomicLong budgetWindow = new AtomicLong(-1);
+    private final AtomicLong budgetUsed = new AtomicLong();
+
+    public TracePolicy(int sampleRate, long thresholdNs, int budgetPerSecond) {
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.thresholdNs = Math.max(thresholdNs, 0);
+        this.budgetPerSecond = Math.max(budgetPerSecond, 0);
+    }
+
+    /**
+     * Resolve each property from the first level of config that sets it:
+     * dev-config.yaml traceMethodSampling entry > @Traceable on the method > @Traceable on the class > dev-config.yaml traceSampling
+     * @param staticPart the static part of the advised join point
+     * @return the policy for the method
+     */
+    public static TracePolicy of(JoinPoint.StaticPart staticPart) {
+        Method method = ((MethodSignature) staticPart.getSignature()).getMethod();
+        TraceSampling methodConfig = MarshallingService.TRACE_METHOD_SAMPLING.get(TraceRecorder.getMethodName(staticPart));
+        Traceable methodAnnotation = method.getAnnotation(Traceable.class);
+        Traceable classAnnotation = method.getDeclaringClass().getAnnotation(Traceable.class);
+        TraceSampling defaults = MarshallingService.TRACE_SAMPLING;
+
+        int sampleRate = defaults.getSampleRate() == null ? 1 : defaults.getSampleRate();
+        long thresholdMicros = defaults.getThresholdMicros() == null ? 0 : defaults.getThresholdMicros();
+        int budgetPerSecond = defaults.getBudgetPerSecond() == null ? 0 : defaults.getBudgetPerSecond();
+        for (Traceable annotation : new Traceable[] {classAnnotation, methodAnnotation}) {
+            if (annotation == null) continue;
+            if (annotation.sampleRate() > 0) sampleRate = annotation.sampleRate();
+            if (annotation.thresholdMicros() >= 0) thresholdMicros = annotation.thresholdMicros();
+            if (annotation.budgetPerSecond() >= 0) budgetPerSecond = annotation.budgetPerSecond();
+        }
+        if (methodConfig != null) {
+            if (methodConfig.getSampleRate() != null) sampleRate = methodConfig.getSampleRate();
+            if (methodConfig.getThresholdMicros() != null) thresholdMicros = methodConfig.getThresholdMicros();
+            if (methodConfig.getBudgetPerSecond() != null) budgetPerSecond = methodConfig.getBudgetPerSecond();
+        }
+        return new TracePolicy(sampleRate, thresholdMicros * 1000, budgetPerSecond);
+    }
+
+    /**
+     * @return whether to time this call, checked before the call
+     */
+    public boolean isSampled() {
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    /**
+     * @param durationNs the duration of a sampled call
+     * @return whether to record the call, checked after the call and before capturing its arguments
+     */
+    public boolean shouldRecord(long durationNs) {
+        if (durationNs < thresholdNs) return false;
+        if (budgetPerSecond == 0) return true;
+
+        long window = System.nanoTime() / NANOS_PER_SECOND;
+        long currentWindow = budgetWindow.get();
+        if (window != currentWindow && budgetWindow.compareAndSet(currentWindow, window))
+            budgetUsed.set(0);
+        return budgetUsed.incrementAndGet() <= budgetPerSecond;
+    }
+}
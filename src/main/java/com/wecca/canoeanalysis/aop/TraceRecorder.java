@@ -0,0 +1,296 @@
+package com.wecca.canoeanalysis.aop;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wecca.canoeanalysis.services.ResourceManagerService;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Binary trace recorder backing the TracingAspect
+ * Traced calls are written into a preallocated ring buffer of primitive slots (method id, thread, start, duration, depth)
+ * so recording a call allocates nothing and does no formatting or I/O on the calling thread
+ * A background drainer thread writes the buffer to a binary trace file in the logs folder, read it back with TraceFile
+ * ----------------------------------------------------------------------------------------------------------------
+ * Argument capture is opt-in (traceArguments in dev-config.yaml), only references are kept in the buffer
+ * and they are serialized lazily by the drainer, so the JSON reflects the objects when drained, not when called
+ * If the drainer falls a full buffer behind, the overwritten events are counted as dropped instead of blocking callers
+ */
+@Slf4j
+public class TraceRecorder {
+
+    // Binary trace file format
+    public static final int MAGIC = 0x50445452; // "PDTR"
+    public static final short VERSION = 1;
+    public static final byte METHOD_RECORD = 1;
+    public static final byte THREAD_RECORD = 2;
+    public static final byte EVENT_RECORD = 3;
+    public static final byte ARGUMENTS_RECORD = 4;
+    public static final byte DROPPED_RECORD = 5;
+    public static final byte FLAG_THREW = 1;
+
+    private static final int CAPACITY = 1 << 16;
+    private static final int MASK = CAPACITY - 1;
+    private static final long DRAIN_INTERVAL_MS = 20;
+
+    // Ring buffer slots, published[slot] holds the sequence number written to the slot or -1 while it is being written
+    private static final int[] methodIds = new int[CAPACITY];
+    private static final int[] depths = new int[CAPACITY];
+    private static final byte[] flags = new byte[CAPACITY];
+    private static final long[] threadIds = new long[CAPACITY];
+    private static final long[] startTimes = new long[CAPACITY];
+    private static final long[] durations = new long[CAPACITY];
+    private static final Object[] arguments = new Object[CAPACITY];
+    private static final Object[] results = new Object[CAPACITY];
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong cursor = new AtomicLong();
+
+    // Method and thread names are written to the trace once, events refer to them by id
+    private static final Map<JoinPoint.StaticPart, Integer> methodIdMap = new ConcurrentHashMap<>();
+    private static final List<String> methodNames = new ArrayList<>();
+    private static final Queue<Thread> newThreads = new ConcurrentLinkedQueue<>();
+
+    // Drainer state, only touched by the drainer thread (or the shutdown hook once the drainer has stopped)
+    private static long drainCursor;
+    private static int methodNamesWritten;
+    private static long droppedCount;
+    private static DataOutputStream out;
+    private static ObjectMapper mapper;
+    private static Thread drainer;
+    private static volatile boolean running;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) published.set(i, -1);
+    }
+
+    /**
+     * Start the background drainer writing to a new trace file, does nothing if already started
+     */
+    public static synchronized void start() {
+        if (drainer != null) return;
+        try {
+            Path logDir = ResourceManagerService.getResourcePathResolved("logs");
+            Files.createDirectories(logDir);
+            Path tracePath = logDir.resolve(String.format("trace-%s.bin",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tracePath), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(System.nanoTime());
+            log.info("Recording trace to {}", tracePath);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create trace file", e);
+        }
+
+        mapper = new ObjectMapper();
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        running = true;
+        drainer = new Thread(TraceRecorder::drainLoop, "trace-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(TraceRecorder::stop, "trace-shutdown"));
+    }
+
+    /**
+     * Stop the drainer, write what is left in the buffer and close the trace file
+     */
+    public static synchronized void stop() {
+        if (drainer == null || !running) return;
+        running = false;
+        try {
+            drainer.join(1000);
+            drain();
+            out.close();
+        } catch (InterruptedException | IOException e) {
+            log.error("Could not finish writing trace file", e);
+        }
+    }
+
+    /**
+     * @param staticPart the static part of a join point, one instance per advised method
+     * @return the id of the method in the trace
+     */
+    public static int getMethodId(JoinPoint.StaticPart staticPart) {
+        Integer id = methodIdMap.get(staticPart);
+        if (id != null) return id;
+        synchronized (methodNames) {
+            return methodIdMap.computeIfAbsent(staticPart, key -> {
+                methodNames.add(getMethodName(key));
+                return methodNames.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * @param staticPart the static part of a join point
+     * @return the name of the method as Class::method, as written to the trace
+     */
+    public static String getMethodName(JoinPoint.StaticPart staticPart) {
+        return String.format("%s::%s", staticPart.getSignature().getDeclaringType().getSimpleName(), staticPart.getSignature().getName());
+    }
+
+    /**
+     * Register a thread so its name is written to the trace, call once per thread before recording from it
+     * @param thread the thread
+     */
+    public static void registerThread(Thread thread) {
+        newThreads.add(thread);
+    }
+
+    /**
+     * Record a completed call into the ring buffer
+     * @param methodId the id from getMethodId
+     * @param depth the nesting depth of the call on its thread, 0 for outermost
+     * @param startNs the System.nanoTime() at the start of the call
+     * @param durationNs the duration of the call
+     * @param threw whether the call exited by throwing
+     * @param args the arguments, or null when argument capture is off
+     * @param result the returned value, or null when argument capture is off
+     */
+    public static void record(int methodId, int depth, long startNs, long durationNs, boolean threw, Object[] args, Object result) {
+        // Calls made while serializing arguments on the drainer are not part of the session being traced
+        if (Thread.currentThread() == drainer) return;
+
+        long sequence = cursor.getAndIncrement();
+        int slot = (int) (sequence & MASK);
+        published.set(slot, -1);
+        VarHandle.storeStoreFence();
+        methodIds[slot] = methodId;
+        depths[slot] = depth;
+        flags[slot] = threw ? FLAG_THREW : 0;
+        threadIds[slot] = Thread.currentThread().threadId();
+        startTimes[slot] = startNs;
+        durations[slot] = durationNs;
+        arguments[slot] = args;
+        results[slot] = result;
+        published.set(slot, sequence);
+    }
+
+    private static void drainLoop() {
+        while (running) {
+            try {
+                drain();
+                Thread.sleep(DRAIN_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                log.error("Could not write to trace file, tracing stopped", e);
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * Write all published events since the last drain to the trace file
+     * An event is read optimistically and re-checked after, if its slot was reused while reading it is counted as dropped
+     */
+    private static void drain() throws IOException {
+        // Read the cursor first, names registered before any event up to it are then visible to writeNewNames
+        long end = cursor.get();
+        writeNewNames();
+        while (drainCursor < end) {
+            int slot = (int) (drainCursor & MASK);
+            long sequence = published.get(slot);
+            if (sequence < drainCursor) {
+                // Not written yet, wait for the next drain unless the writers have lapped this slot already
+                if (end - drainCursor <= CAPACITY) break;
+                droppedCount++;
+                drainCursor++;
+                continue;
+            }
+            if (sequence > drainCursor) {
+                droppedCount++;
+                drainCursor++;
+                continue;
+            }
+
+            int methodId = methodIds[slot];
+            int depth = depths[slot];
+            byte flag = flags[slot];
+            long threadId = threadIds[slot];
+            long startNs = startTimes[slot];
+            long durationNs = durations[slot];
+            Object args = arguments[slot];
+            Object result = results[slot];
+            VarHandle.loadLoadFence();
+            if (published.get(slot) != sequence) {
+                droppedCount++;
+                drainCursor++;
+                continue;
+            }
+            arguments[slot] = null;
+            results[slot] = null;
+
+            out.writeByte(EVENT_RECORD);
+            out.writeInt(methodId);
+            out.writeLong(threadId);
+            out.writeLong(startNs);
+            out.writeLong(durationNs);
+            out.writeInt(depth);
+            out.writeByte(flag);
+            if (args != null) {
+                out.writeByte(ARGUMENTS_RECORD);
+                out.writeUTF(serialize(args));
+                out.writeUTF(serialize(result));
+            }
+            drainCursor++;
+        }
+
+        if (droppedCount > 0) {
+            out.writeByte(DROPPED_RECORD);
+            out.writeLong(droppedCount);
+            droppedCount = 0;
+        }
+        out.flush();
+    }
+
+    /**
+     * Write names of methods and threads seen since the last drain, before any events referring to them
+     */
+    private static void writeNewNames() throws IOException {
+        synchronized (methodNames) {
+            for (; methodNamesWritten < methodNames.size(); methodNamesWritten++) {
+                out.writeByte(METHOD_RECORD);
+                out.writeInt(methodNamesWritten);
+                out.writeUTF(methodNames.get(methodNamesWritten));
+            }
+        }
+        Thread thread;
+        while ((thread = newThreads.poll()) != null) {
+            out.writeByte(THREAD_RECORD);
+            out.writeLong(thread.threadId());
+            out.writeUTF(thread.getName());
+        }
+    }
+
+    /**
+     * @param o the object to serialize
+     * @return the JSON string, truncated to fit a modified UTF-8 string
+     */
+    private static String serialize(Object o) {
+        String json;
+        try {
+            json = mapper.writeValueAsString(o);
+        } catch (Exception e) {
+            json = String.format("\"<%s>\"", o.getClass().getSimpleName());
+        }
+        return json.length() > 16_000 ? json.substring(0, 16_000) + "..." : json;
+    }
+}
@@ -1,5 +1,6 @@
 package com.wecca.canoeanalysis.aop;
 
+import com.wecca.canoeanalysis.aop.jfr.TracedMethodEvent;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -9,8 +10,22 @@ import java.lang.annotation.Target;
  * Enable tracing inputs and outputs of methods for debugging
  * Apply to a class to enable all methods in the class
  * Apply to select methods to enable just those select methods
+ * Traced methods also emit a JFR event while a flight recording is running, see event()
+ * The sampling attributes narrow which calls are traced, the defaults defer to dev-config.yaml (see TraceSampling)
  */
 @Target({ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Traceable {
+
+    // The JFR event type to emit for calls, a method annotation takes precedence over its class annotation
+    Class<? extends TracedMethodEvent> event() default TracedMethodEvent.class;
+
+    // Trace 1 in N calls, 0 to defer to config
+    int sampleRate() default 0;
+
+    // Trace only calls taking at least this many microseconds, -1 to defer to config
+    long thresholdMicros() default -1;
+
+    // Trace at most this many calls per second, 0 for no limit, -1 to defer to config
+    int budgetPerSecond() default -1;
 }
@@ -1,16 +1,38 @@
 package com.wecca.canoeanalysis.aop;
 
+import com.wecca.canoeanalysis.aop.jfr.TracedMethodEvent;
 import com.wecca.canoeanalysis.services.MarshallingService;
+import jdk.jfr.EventType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Aspect
 public class TracingAspect {
 
-    private static final TraceBuilder logBuilder = new TraceBuilder();
+    // The JFR event type of each advised method, resolved from its @Traceable once
+    private static final Map<JoinPoint.StaticPart, TracedEventType> eventTypeMap = new ConcurrentHashMap<>();
+
+    /**
+     * Created on the first traced call, after MarshallingService has loaded the dev config
+     * (MarshallingService is itself traced, so the aspect cannot read the config while it is being initialized)
+     */
+    private static class TraceBuilderHolder {
+        private static final TraceBuilder traceBuilder = new TraceBuilder(MarshallingService.TRACE_ARGUMENTS);
+
+        static {
+            TraceRecorder.start();
+        }
+    }
 
     /**
      * Pointcuts defined for all methods satisfying:
@@ -28,22 +50,56 @@ public class TracingAspect {
     }
 
     /**
-     * Apply the LogBuilder advice before the method is invoked
-     * Weaves in a join point as the first line of the method
+     * Record the advised method to the binary trace and as a JFR event
+     * Wraps the method so its duration is recorded even when it exits by throwing
+     * Without a running flight recording the JFR part is a single enabled check
      */
-    @Before("pointcut()")
-    public void beforeAdvice(JoinPoint joinPoint) {
-        if (MarshallingService.TRACING)
-            logBuilder.beforeAdvice(joinPoint);
+    @Around("pointcut()")
+    public Object traceAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
+        TracedMethodEvent event = null;
+        TracedEventType eventType = eventTypeMap.computeIfAbsent(joinPoint.getStaticPart(), TracingAspect::resolveEventType);
+        if (eventType.getType().isEnabled()) {
+            event = eventType.getConstructor().newInstance();
+            event.begin();
+        }
+
+        try {
+            if (MarshallingService.TRACING)
+                return TraceBuilderHolder.traceBuilder.trace(joinPoint);
+            else
+                return joinPoint.proceed();
+        } finally {
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.setClassName(joinPoint.getSignature().getDeclaringType().getSimpleName());
+                    event.setMethodName(joinPoint.getSignature().getName());
+                    event.commit();
+                }
+            }
+        }
     }
 
     /**
-     * Apply the LogBuilder advice after the method returns
-     * Weaves in a join point as the last line of the method before the return
+     * @param staticPart the static part of an advised join point
+     * @return the event type from the @Traceable on the method, or else on its class
      */
-    @AfterReturning(pointcut = "pointcut()", returning = "response")
-    public void afterAdvice(JoinPoint joinPoint, Object response) {
-        if (MarshallingService.TRACING)
-            logBuilder.afterAdvice(joinPoint, response);
+    private static TracedEventType resolveEventType(JoinPoint.StaticPart staticPart) {
+        Method method = ((MethodSignature) staticPart.getSignature()).getMethod();
+        Traceable traceable = method.getAnnotation(Traceable.class);
+        if (traceable == null)
+            traceable = method.getDeclaringClass().getAnnotation(Traceable.class);
+        Class<? extends TracedMethodEvent> eventClass = traceable == null ? TracedMethodEvent.class : traceable.event();
+        try {
+            return new TracedEventType(EventType.getEventType(eventClass), eventClass.getConstructor());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(String.format("JFR event %s needs a public no-arg constructor", eventClass.getSimpleName()), e);
+        }
+    }
+
+    @Getter @AllArgsConstructor
+    private static class TracedEventType {
+        private final EventType type;
+        private final Constructor<? extends TracedMethodEvent> constructor;
     }
 }
@@ -0,0 +1,18 @@
+package com.wecca.canoeanalysis.aop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for generating SFD / BMD / deflection points in the DiagramService
+ */
+@Name("com.wecca.canoeanalysis.DiagramGeneration")
+@Label("Diagram Generation")
+@Category({"PADDL", "Traceable"})
+@Description("A call generating diagram points")
+@Threshold("0 ns")
+public class DiagramGenerationEvent extends TracedMethodEvent {
+}
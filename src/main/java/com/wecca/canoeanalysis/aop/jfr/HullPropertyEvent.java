@@ -0,0 +1,19 @@
+package com.wecca.canoeanalysis.aop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for Hull property recomputes (volume, mass, weight distribution...)
+ * Thresholded as the cheap getters are called far too often to record every call
+ */
+@Name("com.wecca.canoeanalysis.HullProperty")
+@Label("Hull Property")
+@Category({"PADDL", "Traceable"})
+@Description("A call computing a hull property, most integrate over the hull geometry")
+@Threshold("1 ms")
+public class HullPropertyEvent extends TracedMethodEvent {
+}
@@ -0,0 +1,49 @@
+package com.wecca.canoeanalysis.aop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a numerical integration
+ * Disabled by default since a single solve integrates thousands of times, enable it in the recording settings
+ * Stack traces are off as they cost more than most integrations, the enclosing TracedMethod events give the context
+ */
+@Name("com.wecca.canoeanalysis.Integration")
+@Label("Integration")
+@Category({"PADDL", "Calculus"})
+@Description("A numerical integration over an interval")
+@Enabled(false)
+@StackTrace(false)
+public class IntegrationEvent extends Event {
+    @Label("Lower Bound")
+    private double lowerBound;
+    @Label("Upper Bound")
+    private double upperBound;
+    @Label("Evaluations")
+    private int evaluations;
+    @Label("Iterations")
+    private int iterations;
+    @Label("Result")
+    private double result;
+    @Label("Absolute Accuracy")
+    @Description("The error bound the integrator refines to, commons-math does not expose the achieved error")
+    private double absoluteAccuracy;
+
+    /**
+     * Set the fields and commit, call after end() once shouldCommit() is true
+     */
+    public void commit(double lowerBound, double upperBound, int evaluations, int iterations, double result, double absoluteAccuracy) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.evaluations = evaluations;
+        this.iterations = iterations;
+        this.result = result;
+        this.absoluteAccuracy = absoluteAccuracy;
+        commit();
+    }
+}
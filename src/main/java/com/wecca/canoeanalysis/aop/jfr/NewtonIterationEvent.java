@@ -0,0 +1,41 @@
+package com.wecca.canoeanalysis.aop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one iteration of the 2D Newton-Raphson floating equilibrium solve
+ */
+@Name("com.wecca.canoeanalysis.NewtonIteration")
+@Label("Newton Iteration")
+@Category({"PADDL", "Solver"})
+@Description("One iteration solving the floating equilibrium waterline")
+public class NewtonIterationEvent extends Event {
+    @Label("Iteration")
+    private int iteration;
+    @Label("Waterline Height [m]")
+    private double h;
+    @Label("Tilt Angle [deg]")
+    private double theta;
+    @Label("Force Residual [kN]")
+    private double forceResidual;
+    @Label("Moment Residual [kN·m]")
+    private double momentResidual;
+
+    /**
+     * Commit an iteration if a recording has this event enabled, allocation is elided when it does not escape
+     */
+    public static void emit(int iteration, double h, double theta, double forceResidual, double momentResidual) {
+        NewtonIterationEvent event = new NewtonIterationEvent();
+        if (!event.isEnabled()) return;
+        event.iteration = iteration;
+        event.h = h;
+        event.theta = theta;
+        event.forceResidual = forceResidual;
+        event.momentResidual = momentResidual;
+        event.commit();
+    }
+}
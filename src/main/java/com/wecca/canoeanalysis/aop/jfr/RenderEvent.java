@@ -0,0 +1,18 @@
+package com.wecca.canoeanalysis.aop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for drawing graphics, i.e. CurvedGraphic.draw and rendering the hull builder graphic
+ */
+@Name("com.wecca.canoeanalysis.Render")
+@Label("Render")
+@Category({"PADDL", "Traceable"})
+@Description("A call drawing a graphic")
+@Threshold("0 ns")
+public class RenderEvent extends TracedMethodEvent {
+}
@@ -0,0 +1,18 @@
+package com.wecca.canoeanalysis.aop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for the BeamSolverService, see NewtonIterationEvent for the iterations within a floating solve
+ */
+@Name("com.wecca.canoeanalysis.Solver")
+@Label("Beam Solver")
+@Category({"PADDL", "Traceable"})
+@Description("A call to a beam solver method")
+@Threshold("0 ns")
+public class SolverEvent extends TracedMethodEvent {
+}
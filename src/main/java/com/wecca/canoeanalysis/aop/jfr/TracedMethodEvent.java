@@ -0,0 +1,28 @@
+package com.wecca.canoeanalysis.aop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+/**
+ * JFR event for a call to a @Traceable method, emitted by the TracingAspect while a recording is running
+ * Subclasses are separate event types so each can be switched on and off in the recording settings,
+ * choose one for a class or method with @Traceable(event = ...)
+ */
+@Name("com.wecca.canoeanalysis.TracedMethod")
+@Label("Traced Method")
+@Category({"PADDL", "Traceable"})
+@Description("A call to a @Traceable method")
+@Threshold("1 ms")
+@Setter
+public class TracedMethodEvent extends Event {
+    // Protected as JFR only records inherited fields that are visible to the subclass
+    @Label("Class")
+    protected String className;
+    @Label("Method")
+    protected String methodName;
+}
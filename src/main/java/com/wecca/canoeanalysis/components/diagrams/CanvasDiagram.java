@@ -0,0 +1,333 @@
+package com.wecca.canoeanalysis.components.diagrams;
+
+import com.wecca.canoeanalysis.services.color.ColorPaletteService;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+import lombok.Getter;
+import java.util.Arrays;
+
+/**
+ * Diagram drawn straight onto a canvas from primitive arrays
+ * An alternative to an AreaChart for diagrams with many points, there is no scene graph node per point
+ * Each redraw reduces the visible points to at most a min / max pair per pixel column
+ * Scroll to zoom, drag to pan and double-click to reset, the x-axis keeps the critical point ticks throughout
+ */
+public class CanvasDiagram extends Region
+{
+    private static final double PADDING = 15;
+    private static final double EMPHASIS_RADIUS = 5;
+    private static final double ZOOM_FACTOR_PER_NOTCH = 1.1;
+    private static final double MIN_VISIBLE_FRACTION = 1e-3;
+
+    private final double[] x;
+    private final double[] y;
+    private final String yUnits;
+    private final String yValName;
+
+    @Getter
+    private final FixedTicksNumberAxis xAxis;
+    @Getter
+    private final NumberAxis yAxis;
+    private final Canvas canvas;
+    private final Tooltip tooltip;
+
+    // Full x range, and the indices of the max and min points which are emphasized
+    private final double xMin, xMax;
+    private final int maxIndex, minIndex;
+
+    // Interaction state
+    private double dragStartX;
+    private double dragStartLowerBound;
+    private double hoverX = Double.NaN;
+
+    /**
+     * @param x the x values, sorted ascending (repeated for jump discontinuities)
+     * @param y the y values
+     * @param xAxis the x-axis with fixed ticks at the critical points
+     * @param yAxis the y-axis, its range is set here from the data
+     * @param yUnits the unit of the y value (i.e. N or kN·m)
+     * @param yValName the name representing the y val (i.e. Force or Moment)
+     */
+    public CanvasDiagram(double[] x, double[] y, FixedTicksNumberAxis xAxis, NumberAxis yAxis, String yUnits, String yValName) {
+        if (x.length != y.length || x.length < 2)
+            throw new IllegalArgumentException("Diagram needs at least two points with matching x and y values");
+
+        this.x = x;
+        this.y = y;
+        this.xAxis = xAxis;
+        this.yAxis = yAxis;
+        this.yUnits = yUnits;
+        this.yValName = yValName;
+        this.xMin = xAxis.getLowerBound();
+        this.xMax = xAxis.getUpperBound();
+        this.canvas = new Canvas();
+
+        int maxI = 0;
+        int minI = 0;
+        for (int i = 1; i < y.length; i++) {
+            if (y[i] > y[maxI]) maxI = i;
+            if (y[i] < y[minI]) minI = i;
+        }
+        this.maxIndex = maxI;
+        this.minIndex = minI;
+
+        // Fit the y-axis to the data including zero, with some headroom
+        double yLow = Math.min(0, y[minIndex]);
+        double yHigh = Math.max(0, y[maxIndex]);
+        double yPadding = yHigh == yLow ? 1 : (yHigh - yLow) * 0.1;
+        yAxis.setAutoRanging(false);
+        yAxis.setLowerBound(yLow - (yLow < 0 ? yPadding : 0));
+        yAxis.setUpperBound(yHigh + (yHigh > 0 ? yPadding : 0));
+        yAxis.setTickUnit(getNiceTickUnit(yAxis.getUpperBound() - yAxis.getLowerBound()));
+
+        tooltip = new Tooltip();
+        tooltip.setShowDelay(Duration.ZERO);
+        tooltip.setHideDelay(Duration.ZERO);
+
+        getChildren().addAll(yAxis, xAxis, canvas);
+        canvas.setOnMouseMoved(this::onMouseMoved);
+        canvas.setOnMouseExited(e -> {
+            hoverX = Double.NaN;
+            tooltip.hide();
+            draw();
+        });
+        canvas.setOnMousePressed(e -> {
+            dragStartX = e.getX();
+            dragStartLowerBound = xAxis.getLowerBound();
+        });
+        canvas.setOnMouseDragged(this::onMouseDragged);
+        canvas.setOnScroll(this::onScroll);
+        canvas.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) setVisibleRange(xMin, xMax);
+        });
+        xAxis.lowerBoundProperty().addListener((observable, oldValue, newValue) -> draw());
+        xAxis.upperBoundProperty().addListener((observable, oldValue, newValue) -> draw());
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double yAxisWidth = yAxis.prefWidth(-1);
+        double xAxisHeight = xAxis.prefHeight(-1);
+        double plotWidth = Math.max(getWidth() - yAxisWidth - 2 * PADDING, 0);
+        double plotHeight = Math.max(getHeight() - xAxisHeight - 2 * PADDING, 0);
+
+        yAxis.resizeRelocate(PADDING, PADDING, yAxisWidth, plotHeight);
+        xAxis.resizeRelocate(PADDING + yAxisWidth, PADDING + plotHeight, plotWidth, xAxisHeight);
+        canvas.relocate(PADDING + yAxisWidth, PADDING);
+        if (canvas.getWidth() != plotWidth || canvas.getHeight() != plotHeight) {
+            canvas.setWidth(plotWidth);
+            canvas.setHeight(plotHeight);
+        }
+        draw();
+    }
+
+    /**
+     * Redraw the visible part of the diagram
+     */
+    public void draw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        if (width <= 0 || height <= 0) return;
+
+        // Critical point grid lines and the zero line
+        gc.setStroke(Color.gray(0.85));
+        gc.setLineWidth(1);
+        for (Number tick : xAxis.getTicks()) {
+            double px = toPixelX(tick.doubleValue());
+            gc.strokeLine(px, 0, px, height);
+        }
+        double zeroY = Math.max(0, Math.min(height, toPixelY(0)));
+        gc.setStroke(Color.gray(0.6));
+        gc.strokeLine(0, zeroY, width, zeroY);
+
+        // Reduce the visible points to the ones that will actually be drawn
+        int first = Math.max(lowerIndex(xAxis.getLowerBound()) - 1, 0);
+        int last = Math.min(lowerIndex(xAxis.getUpperBound()) + 1, x.length - 1);
+        double[] path = getPixelPath(first, last);
+        int numPathPoints = path.length / 2;
+        Color primary = ColorPaletteService.getColor("primary");
+
+        // Fill to the zero line, then stroke the curve over it
+        gc.setFill(primary.deriveColor(0, 1, 1, 0.3));
+        gc.beginPath();
+        gc.moveTo(path[0], zeroY);
+        for (int i = 0; i < numPathPoints; i++) gc.lineTo(path[2 * i], path[2 * i + 1]);
+        gc.lineTo(path[2 * (numPathPoints - 1)], zeroY);
+        gc.closePath();
+        gc.fill();
+
+        gc.setStroke(primary);
+        gc.setLineWidth(2);
+        gc.beginPath();
+        gc.moveTo(path[0], path[1]);
+        for (int i = 1; i < numPathPoints; i++) gc.lineTo(path[2 * i], path[2 * i + 1]);
+        gc.stroke();
+
+        // Emphasize the max and min points
+        gc.setFill(primary);
+        for (int i : getEmphasizedIndices()) {
+            gc.fillOval(toPixelX(x[i]) - EMPHASIS_RADIUS, toPixelY(y[i]) - EMPHASIS_RADIUS, 2 * EMPHASIS_RADIUS, 2 * EMPHASIS_RADIUS);
+        }
+
+        // Hover marker
+        if (!Double.isNaN(hoverX)) {
+            gc.setFill(ColorPaletteService.getColor("primary-light"));
+            double px = toPixelX(hoverX);
+            double py = toPixelY(CalculusUtils.interpolate(x, y, hoverX));
+            gc.fillOval(px - 3, py - 3, 6, 6);
+        }
+    }
+
+    /**
+     * Convert the points in [first, last] to pixel coordinates
+     * When there are more points than pixel columns, each column is reduced to its first, min, max and last points
+     * which keeps jump discontinuities and peaks while bounding the path to a few points per pixel
+     * @return the path as [px0, py0, px1, py1, ...]
+     */
+    private double[] getPixelPath(int first, int last) {
+        int count = last - first + 1;
+        double width = canvas.getWidth();
+        if (count <= 2 * width) {
+            double[] path = new double[2 * count];
+            for (int i = first; i <= last; i++) {
+                path[2 * (i - first)] = toPixelX(x[i]);
+                path[2 * (i - first) + 1] = toPixelY(y[i]);
+            }
+            return path;
+        }
+
+        double[] path = new double[8 * ((int) width + 3)];
+        int size = 0;
+        int i = first;
+        while (i <= last) {
+            int column = (int) Math.floor(toPixelX(x[i]));
+            int firstInColumn = i, minInColumn = i, maxInColumn = i;
+            while (i + 1 <= last && (int) Math.floor(toPixelX(x[i + 1])) == column) {
+                i++;
+                if (y[i] < y[minInColumn]) minInColumn = i;
+                if (y[i] > y[maxInColumn]) maxInColumn = i;
+            }
+            int lastInColumn = i;
+            int lower = Math.min(minInColumn, maxInColumn);
+            int upper = Math.max(minInColumn, maxInColumn);
+            for (int index : new int[] {firstInColumn, lower, upper, lastInColumn}) {
+                if (size + 2 > path.length) path = Arrays.copyOf(path, path.length * 2);
+                path[size++] = toPixelX(x[index]);
+                path[size++] = toPixelY(y[index]);
+            }
+            i++;
+        }
+        return Arrays.copyOf(path, size);
+    }
+
+    /**
+     * Show the value under the mouse, found by binary search instead of listeners on each point
+     */
+    private void onMouseMoved(MouseEvent event) {
+        hoverX = toValueX(event.getX());
+        String tooltipText = String.format("Distance: %.4f m, %s: %.4f %s", hoverX, yValName, CalculusUtils.interpolate(x, y, hoverX), yUnits);
+        tooltip.setStyle("-fx-font-weight: normal;");
+        for (int i : getEmphasizedIndices()) {
+            if (Math.hypot(event.getX() - toPixelX(x[i]), event.getY() - toPixelY(y[i])) <= EMPHASIS_RADIUS + 2) {
+                tooltipText = String.format("Critical Distance: %.4f m, Critical %s: %.4f %s", x[i], yValName, y[i], yUnits);
+                tooltip.setStyle("-fx-font-weight: bold;");
+                break;
+            }
+        }
+        tooltip.setText(tooltipText);
+        tooltip.show(canvas, event.getScreenX() + 10, event.getScreenY() + 10);
+        draw();
+    }
+
+    /**
+     * Pan the visible range with the drag
+     */
+    private void onMouseDragged(MouseEvent event) {
+        double span = xAxis.getUpperBound() - xAxis.getLowerBound();
+        double shift = (dragStartX - event.getX()) / canvas.getWidth() * span;
+        double lower = Math.max(xMin, Math.min(xMax - span, dragStartLowerBound + shift));
+        setVisibleRange(lower, lower + span);
+    }
+
+    /**
+     * Zoom the visible range about the mouse position
+     */
+    private void onScroll(ScrollEvent event) {
+        double lower = xAxis.getLowerBound();
+        double upper = xAxis.getUpperBound();
+        double anchor = toValueX(event.getX());
+        double factor = Math.pow(ZOOM_FACTOR_PER_NOTCH, -event.getDeltaY() / 40);
+        double span = Math.max((upper - lower) * factor, (xMax - xMin) * MIN_VISIBLE_FRACTION);
+        span = Math.min(span, xMax - xMin);
+        double newLower = anchor - (anchor - lower) / (upper - lower) * span;
+        newLower = Math.max(xMin, Math.min(xMax - span, newLower));
+        setVisibleRange(newLower, newLower + span);
+        event.consume();
+    }
+
+    /**
+     * @param lower the lower bound of the visible x range
+     * @param upper the upper bound of the visible x range
+     */
+    public void setVisibleRange(double lower, double upper) {
+        xAxis.setLowerBound(lower);
+        xAxis.setUpperBound(upper);
+    }
+
+    /**
+     * @return the indices of the points to emphasize, the max if positive and the min if negative
+     */
+    private int[] getEmphasizedIndices() {
+        double tolerance = 1e-3;
+        boolean hasPositive = y[maxIndex] > tolerance;
+        boolean hasNegative = y[minIndex] < -tolerance;
+        if (hasPositive && hasNegative) return new int[] {maxIndex, minIndex};
+        else if (hasPositive) return new int[] {maxIndex};
+        else if (hasNegative) return new int[] {minIndex};
+        else return new int[0];
+    }
+
+    /**
+     * @return the index of the last point with x value at or below the query (0 if none)
+     */
+    private int lowerIndex(double xQuery) {
+        int index = Arrays.binarySearch(x, xQuery);
+        return index >= 0 ? index : Math.max(-index - 2, 0);
+    }
+
+    private double toPixelX(double value) {
+        return (value - xAxis.getLowerBound()) / (xAxis.getUpperBound() - xAxis.getLowerBound()) * canvas.getWidth();
+    }
+
+    private double toValueX(double px) {
+        return xAxis.getLowerBound() + px / canvas.getWidth() * (xAxis.getUpperBound() - xAxis.getLowerBound());
+    }
+
+    private double toPixelY(double value) {
+        return (yAxis.getUpperBound() - value) / (yAxis.getUpperBound() - yAxis.getLowerBound()) * canvas.getHeight();
+    }
+
+    /**
+     * @param range the span of the axis
+     * @return a 1, 2 or 5 times a power of ten tick unit giving about 8 ticks over the span
+     */
+    private static double getNiceTickUnit(double range) {
+        double rough = range / 8;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+        double normalized = rough / magnitude;
+        if (normalized < 1.5) return magnitude;
+        else if (normalized < 3.5) return 2 * magnitude;
+        else if (normalized < 7.5) return 5 * magnitude;
+        else return 10 * magnitude;
+    }
+}
@@ -0,0 +1,20 @@
+package com.wecca.canoeanalysis.components.diagrams;
+
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import javafx.geometry.Point2D;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * The full resolution data behind a series added to a diagram chart
+ * Kept so the displayed series can be decimated again for a new chart width
+ */
+@Data @AllArgsConstructor
+public class DiagramSeries
+{
+    private Canoe canoe;
+    private List<Point2D> points;
+    private String yUnits;
+    private String yValName;
+}
@@ -3,6 +3,7 @@ package com.wecca.canoeanalysis.components.diagrams;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.ValueAxis;
 import javafx.util.StringConverter;
+import lombok.Getter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,6 +15,7 @@ public class FixedTicksNumberAxis extends ValueAxis<Number>
 {
 
     // List of ticks
+    @Getter
     private final List<Number> ticks;
 
     // Formatter
@@ -54,7 +56,9 @@ public class FixedTicksNumberAxis extends ValueAxis<Number>
 
     @Override
     protected List<Number> calculateTickValues(double length, Object range) {
-        return ticks;
+        // Only the ticks in range so a zoomed in axis does not draw labels past its ends
+        final double[] rangeProps = (double[]) range;
+        return ticks.stream().filter(tick -> tick.doubleValue() >= rangeProps[0] && tick.doubleValue() <= rangeProps[1]).toList();
     }
 
     @Override
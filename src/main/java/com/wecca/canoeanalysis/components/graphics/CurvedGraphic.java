@@ -1,6 +1,8 @@
 package com.wecca.canoeanalysis.components.graphics;
 
 import com.jfoenix.effects.JFXDepthManager;
+import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.aop.jfr.RenderEvent;
 import com.wecca.canoeanalysis.models.function.BoundedUnivariateFunction;
 import com.wecca.canoeanalysis.models.function.Section;
 import com.wecca.canoeanalysis.services.color.ColorManagerService;
@@ -62,6 +64,7 @@ public class CurvedGraphic extends Group implements FunctionGraphic {
         ColorManagerService.registerInColorPalette(this);
     }
 
+    @Traceable(event = RenderEvent.class)
     public void draw() {
         // Partition the section
         int numSamples = 200;
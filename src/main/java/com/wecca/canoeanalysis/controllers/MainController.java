@@ -14,6 +14,7 @@ import com.wecca.canoeanalysis.services.MarshallingService;
 import com.wecca.canoeanalysis.services.WindowManagerService;
 import com.wecca.canoeanalysis.services.color.ColorManagerService;
 import com.wecca.canoeanalysis.services.color.ColorPaletteService;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import javafx.animation.*;
 import javafx.fxml.FXML;
@@ -21,6 +22,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
@@ -66,6 +68,11 @@ public class MainController implements Initializable {
     @Getter @Setter
     private ModuleController currentModuleController;
 
+    // Developer metrics overlay, only created when metrics are enabled in dev-config.yaml
+    private Label metricsOverlay;
+    private Timeline metricsOverlayTimeline;
+    private Map<String, Long> previousMetricCounts = new HashMap<>();
+
     /**
      * Mouse clicked event to set the current location of the window
      */
@@ -328,12 +335,38 @@ public class MainController implements Initializable {
     }
 
 
+    /**
+     * Show live metrics in the bottom right corner of the window, refreshed twice a second
+     * Does nothing unless metrics are enabled in dev-config.yaml
+     */
+    public void initializeMetricsOverlay() {
+        if (!MetricsService.ENABLED) return;
+        metricsOverlay = new Label();
+        metricsOverlay.setMouseTransparent(true);
+        metricsOverlay.setViewOrder(-200);
+        metricsOverlay.setStyle("-fx-background-color: rgba(0, 0, 0, 0.65); -fx-text-fill: white; " +
+                "-fx-font-family: monospace; -fx-font-size: 10px; -fx-padding: 6px;");
+        AnchorPane.setRightAnchor(metricsOverlay, 15.0);
+        AnchorPane.setBottomAnchor(metricsOverlay, 15.0);
+        root.getChildren().add(metricsOverlay);
+
+        double intervalSeconds = 0.5;
+        metricsOverlayTimeline = new Timeline(new KeyFrame(Duration.seconds(intervalSeconds), e -> {
+            metricsOverlay.setText(MetricsService.getOverlayText(previousMetricCounts, intervalSeconds));
+            previousMetricCounts = MetricsService.getCounts();
+        }));
+        metricsOverlayTimeline.setCycleCount(Animation.INDEFINITE);
+        metricsOverlayTimeline.play();
+        MetricsService.startFrameTimer();
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         // Initialize components
         initializeHamburger();
         initializeDrawer();
         initializeSnackbar();
+        initializeMetricsOverlay();
 
         // State init
         stageXOffset = 0;
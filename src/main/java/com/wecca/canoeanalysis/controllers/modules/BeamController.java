@@ -14,7 +14,9 @@ import com.wecca.canoeanalysis.components.graphics.load.ArrowGraphic;
 import com.wecca.canoeanalysis.components.graphics.load.TriangleStandGraphic;
 import com.wecca.canoeanalysis.controllers.popups.*;
 import com.wecca.canoeanalysis.controllers.MainController;
+import com.wecca.canoeanalysis.models.canoe.CachedSolution;
 import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.DeflectionSolution;
 import com.wecca.canoeanalysis.models.canoe.FloatingSolution;
 import com.wecca.canoeanalysis.models.canoe.Hull;
 import com.wecca.canoeanalysis.models.data.SolveType;
@@ -77,6 +79,11 @@ public class BeamController implements Initializable, ModuleController {
     @Getter @Setter
     private FunctionGraphic hullGraphic; // TODO: change to CubicBezierSplineHullGraphic
 
+    // Channels of the computations run in the background with the ComputeScheduler
+    private static final String FLOATING_SOLVE_CHANNEL = "floating-solve";
+    private static final String MAX_SHEAR_CHANNEL = "max-shear";
+    private static final String DIAGRAMS_CHANNEL = "diagrams";
+
     /**
      * Toggles settings for empty tree view if it's considered empty (placeholder doesn't count)
      */
@@ -472,15 +479,16 @@ public class BeamController implements Initializable, ModuleController {
             solveStandSystem();
             generateGraphsButton.setDisable(false);
             solveSystemButton.setOnAction(e -> undoStandsSolve());
+            updateSolvedUI();
         }
-        else if (floatingRadioButton.isSelected()) {
-            if (solveFloatingSystem()) // Solve can fail
-                solveSystemButton.setOnAction(e -> undoFloatingSolve());
-            else
-                return;
-        }
+        else if (floatingRadioButton.isSelected())
+            solveFloatingSystem(); // Solves in the background, the UI is updated once the solution arrives
+    }
 
-        // Update UI state
+    /**
+     * Update the UI state once the system is solved
+     */
+    private void updateSolvedUI() {
         disableLoadingControls(true);
         loadsTreeView.setDisable(false);
         solveSystemButton.setText("Undo Solve");
@@ -492,14 +500,27 @@ public class BeamController implements Initializable, ModuleController {
         mainController.disableModuleToolBarButton(true, 1);
         mainController.disableModuleToolBarButton(true, 2);
         updateViewOrder();
+        updateSessionMaxShear();
+    }
 
-        // TODO whole process for this needs to be optimized cause its slowing down the floating solve button
-        // Add the max shear in the solved system to the canoe
-        List<Point2D> sfdPoints = DiagramService.generateSfdPoints(canoe);
-        canoe.setSessionMaxShear(sfdPoints.stream()
-                .mapToDouble(point -> Math.abs(point.getY()))
-                .max()
-                .orElseThrow(() -> new IllegalArgumentException("List of points is empty")));
+    /**
+     * Add the max shear in the solved system to the canoe
+     * Computed in the background on a copy of the canoe as it needs the whole SFD, which is kept in the result cache
+     */
+    private void updateSessionMaxShear() {
+        Canoe solvedCanoe = canoe;
+        Canoe snapshot = new Canoe(canoe);
+        ComputeScheduler.submit(MAX_SHEAR_CHANNEL, () -> ResultCacheService.getDiagrams(snapshot).getMaxAbsShear(),
+                solvedCanoe::setSessionMaxShear);
+    }
+
+    /**
+     * Make sure the canoe has the max shear of its solve before it is saved
+     * If the background job has not delivered it yet, the job is cancelled and the max shear is computed here instead
+     */
+    private void awaitSessionMaxShear() {
+        if (ComputeScheduler.cancel(MAX_SHEAR_CHANNEL))
+            canoe.setSessionMaxShear(ResultCacheService.getDiagrams(new Canoe(canoe)).getMaxAbsShear());
     }
 
     /**
@@ -528,16 +549,16 @@ public class BeamController implements Initializable, ModuleController {
     /**
      * Solve and display the result of the "floating" system load case.
      * This entails a buoyancy distribution that keeps the canoe afloat
-     * @return true if the solution was successful, false if the canoe sinks
+     * The solve runs in the background on a copy of the canoe, loading controls are disabled until the solution arrives
      * Note: if the canoe tips, it will still solve, just prevents SFD/BMD graphs
      * It will still display to the user the "nonsense" solution (since the canoe fills with water)
      */
-    private boolean solveFloatingSystem() {
+    private void solveFloatingSystem() {
         // Check if the hull has been set from the default beam
         if (canoe.getHull().getWeight() == 0) {
             mainController.showSnackbar("Cannot solve for buoyancy without a hull. Please build a hull first");
             mainController.flashModuleToolBarButton(2, 8000); // as a hint for the user
-            return false;
+            return;
         }
 
         // Check if there's too much force and the canoe will sink - we know this before solving
@@ -545,18 +566,33 @@ public class BeamController implements Initializable, ModuleController {
         double maximumPossibleBuoyancyForce = BeamSolverService.getBuoyancyForceOnHull(0, 0, rotationX, canoe.getHull());
         if (-canoe.getNetForce() > maximumPossibleBuoyancyForce) {
             mainController.showSnackbar("Cannot solve for buoyancy as there is too much load. The canoe will sink!");
-            return false;
+            return;
         }
 
         // Solve the system
-        FloatingSolution solution = BeamSolverService.solveFloatingSystem(canoe);
-
-        // Solver algorithm doesn't converge
-        if (solution == null) {
+        Canoe snapshot = new Canoe(canoe);
+        disableLoadingControls(true);
+        ComputeScheduler.submit(FLOATING_SOLVE_CHANNEL, () -> ResultCacheService.solveFloatingSystem(snapshot), solution -> {
+            // Solver algorithm doesn't converge
+            if (solution == null) {
+                disableLoadingControls(false);
+                mainController.showSnackbar("Error, buoyancy solver could not converge to a solution");
+                return;
+            }
+            displayFloatingSolution(solution);
+            solveSystemButton.setOnAction(e -> undoFloatingSolve());
+            updateSolvedUI();
+        }, e -> {
+            disableLoadingControls(false);
             mainController.showSnackbar("Error, buoyancy solver could not converge to a solution");
-            return false;
-        }
+        });
+    }
 
+    /**
+     * Add the solved buoyancy to the canoe and show the waterline and tilt
+     * @param solution the solution of the floating system
+     */
+    private void displayFloatingSolution(FloatingSolution solution) {
         // Proceed with floating system solve if no tipping or sinking is detected
         PiecewiseContinuousLoadDistribution buoyancy = solution.getSolvedBuoyancy();
         if (buoyancy.getForce() != 0) addPiecewiseLoadDistribution(buoyancy);
@@ -580,7 +616,6 @@ public class BeamController implements Initializable, ModuleController {
         generateGraphsButton.setDisable(solution.isTippedOver());
 
         canoe.setSolveType(SolveType.FLOATING);
-        return true;
     }
 
     /**
@@ -628,6 +663,8 @@ public class BeamController implements Initializable, ModuleController {
      * Change the solve system button back into to a button to solve system instead of undo solve
      */
     private void undoSolveUpdateUI() {
+        // A max shear still being computed belongs to the solve being undone
+        ComputeScheduler.cancel(MAX_SHEAR_CHANNEL);
         solveSystemButton.setText("Solve System");
         axisLabelR.setText(String.format("%.2f m", canoe.getHull().getLength()));
         solveSystemButton.setOnAction(e -> solveSystem());
@@ -674,13 +711,23 @@ public class BeamController implements Initializable, ModuleController {
     }
 
     /**
-     * Generates an SFD and BMD based on the canoe's load state.
+     * Generates an SFD, BMD, rotation and deflection diagram based on the canoe's load state.
      */
     public void generateDiagram() {
-        List<Point2D> sfdPoints = DiagramService.generateSfdPoints(canoe);
-        List<Point2D> bmdPoints = DiagramService.generateBmdPoints(canoe);
-        WindowManagerService.openDiagramWindow("Shear Force Diagram", canoe, sfdPoints, "kN", "Force");
-        WindowManagerService.openDiagramWindow("Bending Moment Diagram", canoe, bmdPoints, "kN·m", "Moment");
+        // Generated in the background on a copy of the canoe, the windows open once all diagrams are ready
+        Canoe snapshot = new Canoe(canoe);
+        ComputeScheduler.submit(DIAGRAMS_CHANNEL, () -> {
+            CachedSolution solution = ResultCacheService.getDiagrams(snapshot);
+            List<Point2D> sfdPoints = solution.getSfdPoints();
+            List<Point2D> bmdPoints = solution.getBmdPoints();
+            DeflectionSolution deflectionSolution = DiagramService.generateDeflectionSolution(snapshot, bmdPoints);
+            return List.of(sfdPoints, bmdPoints, deflectionSolution.getRotationPoints(), deflectionSolution.getDeflectionPoints());
+        }, diagrams -> {
+            WindowManagerService.openDiagramWindow("Shear Force Diagram", snapshot, diagrams.get(0), "kN", "Force");
+            WindowManagerService.openDiagramWindow("Bending Moment Diagram", snapshot, diagrams.get(1), "kN·m", "Moment");
+            WindowManagerService.openDiagramWindow("Rotation Diagram", snapshot, diagrams.get(2), "mrad", "Rotation");
+            WindowManagerService.openDiagramWindow("Deflection Diagram", snapshot, diagrams.get(3), "mm", "Deflection");
+        }, e -> mainController.showSnackbar("Error, could not generate the diagrams"));
     }
 
     /**
@@ -757,6 +804,7 @@ public class BeamController implements Initializable, ModuleController {
      * 3. The tree view model: empty the list and set empty css settings
      */
     public void clearAllCanoeModels() {
+        cancelBackgroundComputations();
         loadContainer.getChildren().clear();
         canoe.getLoads().clear();
         Hull hull = HullLibrary.generateDefaultHull(canoe.getHull().getLength());
@@ -766,6 +814,16 @@ public class BeamController implements Initializable, ModuleController {
         resetHullGraphic();
     }
 
+    /**
+     * Cancel the computations running for the current canoe, their results no longer apply once it is replaced or cleared
+     */
+    private void cancelBackgroundComputations() {
+        if (ComputeScheduler.cancel(FLOATING_SOLVE_CHANNEL))
+            disableLoadingControls(false);
+        ComputeScheduler.cancel(MAX_SHEAR_CHANNEL);
+        ComputeScheduler.cancel(DIAGRAMS_CHANNEL);
+    }
+
     /**
      * Reset and rerender the canoe graphic back to the beam (default graphic on load)
      */
@@ -826,7 +884,7 @@ public class BeamController implements Initializable, ModuleController {
         // Alert the user they will be overriding the current loads on the canoe by uploading a new one
         if (!canoe.getAllLoads().isEmpty())
             WindowManagerService.openUtilityWindow("Alert", "view/upload-alert-view.fxml", 350, 230);
-        else MarshallingService.beamImportCanoeFromYAML(mainController.getPrimaryStage());
+        else MarshallingService.beamImportCanoe(mainController.getPrimaryStage());
     }
 
     /**
@@ -834,6 +892,8 @@ public class BeamController implements Initializable, ModuleController {
      * @param canoe the canoe to set
      */
     public void setCanoe(@NonNull Canoe canoe) {
+        cancelBackgroundComputations();
+
         // Update the canoe model
         this.canoe = canoe;
 
@@ -871,7 +931,8 @@ public class BeamController implements Initializable, ModuleController {
      * This can be uploaded later with uploadCanoe() or manually modified
      */
     public void downloadCanoe() {
-        File downloadedFile = MarshallingService.exportCanoeToYAML(canoe, mainController.getPrimaryStage());
+        awaitSessionMaxShear();
+        File downloadedFile = MarshallingService.exportCanoe(canoe, mainController.getPrimaryStage());
         String message = downloadedFile != null ? "Successfully downloaded canoe as \"" + downloadedFile.getName()
                 + "\" to " + downloadedFile.getParentFile().getName() : "Download cancelled";
         mainController.showSnackbar(message);
@@ -1,22 +1,125 @@
 package com.wecca.canoeanalysis.controllers.modules;
 
 import com.wecca.canoeanalysis.CanoeAnalysisApplication;
+import com.wecca.canoeanalysis.components.graphics.IconGlyphType;
 import com.wecca.canoeanalysis.controllers.MainController;
+import com.wecca.canoeanalysis.models.canoe.BendingStressSolution;
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.CriticalSection;
+import com.wecca.canoeanalysis.models.canoe.FloatingSolution;
+import com.wecca.canoeanalysis.models.data.SolveType;
+import com.wecca.canoeanalysis.models.load.PiecewiseContinuousLoadDistribution;
+import com.wecca.canoeanalysis.services.*;
+import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.control.ListView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.AnchorPane;
 import lombok.Setter;
 import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
+/**
+ * Controller class for the Critical Sections module
+ * Displays the bending stress along an uploaded canoe and ranks the sections where it peaks
+ */
 public class CriticalSectionsController implements Initializable, ModuleController {
 
+    @FXML
+    private AnchorPane chartContainer;
+    @FXML
+    private ListView<String> criticalSectionsListView;
+
     @Setter
     private static MainController mainController;
 
+    /**
+     * Clears the toolbar of buttons from other modules and adds ones from this module
+     */
+    public void initModuleToolBarButtons() {
+        LinkedHashMap<IconGlyphType, Consumer<MouseEvent>> iconGlyphToFunctionMap = new LinkedHashMap<>();
+        iconGlyphToFunctionMap.put(IconGlyphType.UPLOAD, e -> uploadCanoe());
+        iconGlyphToFunctionMap.put(IconGlyphType.RESET, e -> reset());
+        mainController.resetToolBarButtons();
+        mainController.setIconToolBarButtons(iconGlyphToFunctionMap);
+    }
+
+    /**
+     * Upload a YAML file representing the Canoe object model to analyze
+     */
+    public void uploadCanoe() {
+        MarshallingService.setCriticalSectionsController(this);
+        MarshallingService.criticalSectionsImportCanoe(mainController.getPrimaryStage());
+    }
+
+    /**
+     * Solve the bending stress for the canoe and display the results
+     * @param canoe the uploaded canoe, buoyancy is solved for here if it's floating
+     */
+    public void setCanoe(Canoe canoe) {
+        // Account for floating
+        if (canoe.getSolveType().equals(SolveType.FLOATING)) {
+            FloatingSolution solution = BeamSolverService.solveFloatingSystem(canoe);
+            if (solution == null) {
+                mainController.showSnackbar("Error, buoyancy solver could not converge to a solution");
+                return;
+            }
+            PiecewiseContinuousLoadDistribution buoyancy = solution.getSolvedBuoyancy();
+            if (buoyancy == null) throw new RuntimeException("Solution has no solved buoyancy to set");
+            if (buoyancy.getForce() != 0) canoe.addLoad(buoyancy);
+        }
+
+        BendingStressSolution solution = CriticalSectionService.solveBendingStress(canoe);
+        reset();
+        displayChart(canoe, solution);
+        displayCriticalSections(solution.getCriticalSections());
+    }
+
+    /**
+     * Display the bending stress diagram in the module
+     * @param canoe the canoe the solution is for
+     * @param solution the bending stress solution to plot
+     */
+    private void displayChart(Canoe canoe, BendingStressSolution solution) {
+        AreaChart<Number, Number> chart = DiagramService.setupChart(canoe, solution.getStressPoints(), "MPa", "Stress");
+
+        // Set size of chart to match anchor pane
+        AnchorPane.setTopAnchor(chart, 0.0);
+        AnchorPane.setRightAnchor(chart, 0.0);
+        AnchorPane.setBottomAnchor(chart, 0.0);
+        AnchorPane.setLeftAnchor(chart, 0.0);
+
+        chart.getStylesheets().add(ResourceManagerService.getResourceFilePathString("css/chart.css", false));
+        chartContainer.getChildren().add(chart);
+    }
+
+    /**
+     * Populate the list view with the ranked critical sections
+     * @param criticalSections the critical sections sorted by descending absolute stress
+     */
+    private void displayCriticalSections(List<CriticalSection> criticalSections) {
+        for (int i = 0; i < criticalSections.size(); i++) {
+            CriticalSection section = criticalSections.get(i);
+            criticalSectionsListView.getItems().add(String.format("%d.  x = %.2f m,  σ = %.3f MPa  (M = %.3f kN·m, S = %.3e m³)",
+                    i + 1, section.getX(), section.getStress() / 1000, section.getMoment(), section.getSectionModulus()));
+        }
+    }
+
+    /**
+     * Clear the chart and list of critical sections
+     */
+    public void reset() {
+        chartContainer.getChildren().clear();
+        criticalSectionsListView.getItems().clear();
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        // Set the local instance of the main controller
         setMainController(CanoeAnalysisApplication.getMainController());
-
-        mainController.resetToolBarButtons();
+        initModuleToolBarButtons();
     }
 }
@@ -1,22 +1,209 @@
 package com.wecca.canoeanalysis.controllers.modules;
 
+import com.jfoenix.controls.JFXButton;
+import com.jfoenix.controls.JFXComboBox;
 import com.wecca.canoeanalysis.CanoeAnalysisApplication;
+import com.wecca.canoeanalysis.components.graphics.IconGlyphType;
 import com.wecca.canoeanalysis.controllers.MainController;
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.FailureEnvelope;
+import com.wecca.canoeanalysis.models.canoe.LoadCase;
+import com.wecca.canoeanalysis.services.DiagramService;
+import com.wecca.canoeanalysis.services.FailureEnvelopeService;
+import com.wecca.canoeanalysis.services.MarshallingService;
+import com.wecca.canoeanalysis.services.ResourceManagerService;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.AnchorPane;
 import lombok.Setter;
 import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
+/**
+ * Controller class for the Failure Envelope module
+ * Solves a set of load cases for an uploaded canoe in the background and displays the max / min envelopes
+ * of shear, moment and bending stress with the load cases that govern them
+ */
 public class FailureEnvelopeController implements Initializable, ModuleController {
 
+    @FXML
+    private AnchorPane chartContainer;
+    @FXML
+    private JFXComboBox<String> diagramComboBox;
+    @FXML
+    private ListView<String> governingCasesListView;
+    @FXML
+    private ProgressBar progressBar;
+    @FXML
+    private JFXButton cancelButton;
+
     @Setter
     private static MainController mainController;
 
+    private Canoe canoe;
+    private FailureEnvelope envelope;
+    private Task<FailureEnvelope> envelopeTask;
+
+    /**
+     * Clears the toolbar of buttons from other modules and adds ones from this module
+     */
+    public void initModuleToolBarButtons() {
+        LinkedHashMap<IconGlyphType, Consumer<MouseEvent>> iconGlyphToFunctionMap = new LinkedHashMap<>();
+        iconGlyphToFunctionMap.put(IconGlyphType.UPLOAD, e -> uploadCanoe());
+        iconGlyphToFunctionMap.put(IconGlyphType.RESET, e -> reset());
+        mainController.resetToolBarButtons();
+        mainController.setIconToolBarButtons(iconGlyphToFunctionMap);
+    }
+
+    /**
+     * Upload a YAML file representing the Canoe object model to generate load cases for
+     */
+    public void uploadCanoe() {
+        MarshallingService.setFailureEnvelopeController(this);
+        MarshallingService.failureEnvelopeImportCanoe(mainController.getPrimaryStage());
+    }
+
+    /**
+     * Start solving the failure envelope for the canoe in the background, replacing any run in progress
+     * @param canoe the uploaded canoe
+     */
+    public void setCanoe(Canoe canoe) {
+        reset();
+        this.canoe = canoe;
+        List<LoadCase> loadCases = FailureEnvelopeService.generateLoadCases(canoe);
+
+        envelopeTask = new Task<>() {
+            @Override
+            protected FailureEnvelope call() {
+                return FailureEnvelopeService.solveFailureEnvelope(canoe, loadCases,
+                        progress -> updateProgress(progress, 1), this::isCancelled);
+            }
+        };
+        Task<FailureEnvelope> task = envelopeTask;
+        progressBar.progressProperty().bind(task.progressProperty());
+        task.setOnSucceeded(e -> {
+            if (task != envelopeTask || task.getValue() == null) return;
+            envelope = task.getValue();
+            setRunning(false);
+            displayEnvelope();
+            if (!envelope.getUnsolvedLoadCases().isEmpty())
+                mainController.showSnackbar(String.format("%d floating load case(s) could not converge and were skipped", envelope.getUnsolvedLoadCases().size()));
+        });
+        task.setOnFailed(e -> {
+            if (task != envelopeTask) return;
+            setRunning(false);
+            mainController.showSnackbar("Error, could not solve the failure envelope");
+        });
+
+        setRunning(true);
+        Thread thread = new Thread(task, "failure-envelope");
+        thread.setDaemon(true);
+        thread.start();
+        mainController.showSnackbar(String.format("Solving %d load cases...", loadCases.size()));
+    }
+
+    /**
+     * Cancel the run in progress, cases already being solved finish but the rest are skipped
+     */
+    public void cancel() {
+        if (envelopeTask != null && envelopeTask.isRunning()) {
+            envelopeTask.cancel();
+            setRunning(false);
+        }
+    }
+
+    /**
+     * Display the envelopes for the selected diagram type along with the governing load cases
+     */
+    public void displayEnvelope() {
+        chartContainer.getChildren().clear();
+        governingCasesListView.getItems().clear();
+        if (envelope == null) return;
+
+        String diagram = diagramComboBox.getValue();
+        AreaChart<Number, Number> chart;
+        switch (diagram) {
+            case "Moment" -> chart = setupEnvelopeChart(envelope.getMaxMoment(), envelope.getMinMoment(), 1, "kN·m", "Moment");
+            case "Stress" -> chart = setupEnvelopeChart(envelope.getMaxStress(), envelope.getMinStress(), 1e-3, "MPa", "Stress");
+            default -> chart = setupEnvelopeChart(envelope.getMaxShear(), envelope.getMinShear(), 1, "kN", "Force");
+        }
+        chartContainer.getChildren().add(chart);
+
+        addGoverningCase("Max shear", envelope.getMaxShear(), envelope.getMaxShearCase(), 1, "kN");
+        addGoverningCase("Min shear", envelope.getMinShear(), envelope.getMinShearCase(), 1, "kN");
+        addGoverningCase("Max moment", envelope.getMaxMoment(), envelope.getMaxMomentCase(), 1, "kN·m");
+        addGoverningCase("Min moment", envelope.getMinMoment(), envelope.getMinMomentCase(), 1, "kN·m");
+        addGoverningCase("Max stress", envelope.getMaxStress(), envelope.getMaxStressCase(), 1e-3, "MPa");
+        addGoverningCase("Min stress", envelope.getMinStress(), envelope.getMinStressCase(), 1e-3, "MPa");
+    }
+
+    /**
+     * @return a chart with the max envelope and min envelope as two series
+     */
+    private AreaChart<Number, Number> setupEnvelopeChart(double[] max, double[] min, double scale, String yUnits, String yValName) {
+        AreaChart<Number, Number> chart = DiagramService.setupChart(canoe, envelope.getPoints(max, scale), yUnits, yValName);
+        DiagramService.addSeriesToChart(canoe, envelope.getPoints(min, scale), yUnits, yValName, chart);
+
+        // Set size of chart to match anchor pane
+        AnchorPane.setTopAnchor(chart, 0.0);
+        AnchorPane.setRightAnchor(chart, 0.0);
+        AnchorPane.setBottomAnchor(chart, 0.0);
+        AnchorPane.setLeftAnchor(chart, 0.0);
+
+        chart.getStylesheets().add(ResourceManagerService.getResourceFilePathString("css/chart.css", false));
+        return chart;
+    }
+
+    /**
+     * Add the extreme value of an envelope and the load case governing it to the list view
+     */
+    private void addGoverningCase(String label, double[] values, int[] governingCases, double scale, String units) {
+        int i = envelope.getAbsoluteMaxIndex(values);
+        LoadCase loadCase = envelope.getGoverningLoadCase(governingCases, i);
+        governingCasesListView.getItems().add(String.format("%s: %.3f %s at x = %.2f m  (%s)",
+                label, values[i] * scale, units, envelope.getX()[i], loadCase == null ? "no solved cases" : loadCase.getName()));
+    }
+
+    /**
+     * Toggle the progress bar and cancel button
+     * @param isRunning whether a run is in progress
+     */
+    private void setRunning(boolean isRunning) {
+        progressBar.setVisible(isRunning);
+        cancelButton.setDisable(!isRunning);
+        if (!isRunning) {
+            progressBar.progressProperty().unbind();
+            progressBar.setProgress(0);
+        }
+    }
+
+    /**
+     * Cancel any run in progress and clear the results
+     */
+    public void reset() {
+        cancel();
+        envelopeTask = null;
+        envelope = null;
+        chartContainer.getChildren().clear();
+        governingCasesListView.getItems().clear();
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        // Set the local instance of the main controller
         setMainController(CanoeAnalysisApplication.getMainController());
+        initModuleToolBarButtons();
 
-        mainController.resetToolBarButtons();
+        diagramComboBox.getItems().setAll("Shear", "Moment", "Stress");
+        diagramComboBox.setValue("Shear");
+        diagramComboBox.valueProperty().addListener((observable, oldValue, newValue) -> displayEnvelope());
+        setRunning(false);
     }
 }
@@ -2,7 +2,9 @@ package com.wecca.canoeanalysis.controllers.modules;
 
 import com.wecca.canoeanalysis.CanoeAnalysisApplication;
 import com.wecca.canoeanalysis.aop.Debounce;
+import com.wecca.canoeanalysis.aop.Throttle;
 import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.aop.jfr.RenderEvent;
 import com.wecca.canoeanalysis.components.controls.IconButton;
 import com.wecca.canoeanalysis.components.controls.Knob;
 import com.wecca.canoeanalysis.components.graphics.CurvedGraphic;
@@ -13,10 +15,13 @@ import com.wecca.canoeanalysis.models.canoe.Hull;
 import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
 import com.wecca.canoeanalysis.models.function.Zone;
 import com.wecca.canoeanalysis.models.function.Section;
+import com.wecca.canoeanalysis.services.ComputeScheduler;
+import com.wecca.canoeanalysis.services.HullEditHistory;
 import com.wecca.canoeanalysis.services.HullGeometryService;
 import com.wecca.canoeanalysis.services.MarshallingService;
 import com.wecca.canoeanalysis.services.WindowManagerService;
 import com.wecca.canoeanalysis.services.color.ColorPaletteService;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
 import com.wecca.canoeanalysis.utils.CalculusUtils;
 import com.wecca.canoeanalysis.utils.GraphicsUtils;
 import com.wecca.canoeanalysis.utils.HullLibrary;
@@ -53,8 +58,9 @@ import java.util.stream.IntStream;
  * Be smart with good DS&A knowledge, and DO NOT WRITE SLOW CODE
  * ----------------------------------------------------------------------------
  * UI Controls for modifying the hull's geometry, primarily relying on HullGeometryService on the backend.
+ * Only calls of at least 1 ms are traced, dragging fires the handlers far too often to trace every call
  */
-@Traceable
+@Traceable(thresholdMicros = 1000)
 public class HullBuilderController implements Initializable, ModuleController {
 
     // FXML UI Components
@@ -97,6 +103,7 @@ public class HullBuilderController implements Initializable, ModuleController {
     private Point2D newKnotDragKnotPos;
     private Point2D initialKnotDragMousePos;
     private Hull knotDraggingPreviewHull;
+    private final HullEditHistory history = new HullEditHistory();
     private boolean previousPressedBefore;
     private boolean nextPressedBefore;
     private boolean sectionPropertiesSelected;
@@ -112,6 +119,7 @@ public class HullBuilderController implements Initializable, ModuleController {
     private double knotEditingCurrentMouseY;
 
     // Constants
+    private static final String HULL_PROPERTIES_CHANNEL = "hull-properties";
     private final double TOP_ALLOWED_HULL_HEIGHT = 0.2;
     private final double BOTTOM_ALLOWED_MAX_HULL_HEIGHT = 0.5;
 
@@ -126,6 +134,7 @@ public class HullBuilderController implements Initializable, ModuleController {
      * @param hull the hull to set
      */
     public void setHull(@NonNull Hull hull) {
+        history.record(this.hull, hull, "Upload hull", null);
         this.hull = hull;
         renderHullGraphic(hull);
         setHullProperties(hull);
@@ -366,7 +375,7 @@ public class HullBuilderController implements Initializable, ModuleController {
 
             // If we rule out all other cases, we must be in an edge zone (an edge HullSection in terms of the old model)
             boolean isMouseInHullZone = isMouseInHullZone(knotEditingCurrentMouseX);
-            boolean isMouseInDeletingZone = (HullGeometryService.getEditableKnotPoint(functionSpacePoint.getX()) != null);
+            boolean isMouseInDeletingZone = (HullGeometryService.getEditableKnotPoint(hull, overlayZones, functionSpacePoint.getX()) != null);
             boolean isMouseInAddingZone = isMouseInAddingKnotPointZone(mouseX);
             return (isMouseInHullZone && !isMouseInDeletingZone && !isMouseInAddingZone);
         }
@@ -402,7 +411,10 @@ public class HullBuilderController implements Initializable, ModuleController {
      * Render the graphic for the hull
      * @param hull to set from
      */
+    @Traceable(event = RenderEvent.class)
     public void renderHullGraphic(Hull hull) {
+        long renderStartNs = System.nanoTime();
+
         // Set and layout parent pane
         double sideViewPanelWidth = 700;
         double sideViewPanelHeight = ON_LOAD_SIDE_VIEW_PANE_HEIGHT * (hull.getMaxHeight() / ON_LOAD_HULL.getMaxHeight());
@@ -433,6 +445,7 @@ public class HullBuilderController implements Initializable, ModuleController {
         // Keep the selected hull section colored
         if (selectedBezierSegment != null && selectedBezierSegmentIndex != -1)
             hullGraphic.colorBezierPointGroup(selectedBezierSegmentIndex, true);
+        MetricsService.FX_HULL_RENDER_TIME.recordSince(renderStartNs);
     }
 
     /**
@@ -524,17 +537,32 @@ public class HullBuilderController implements Initializable, ModuleController {
 
     /**
      * Shortcut to update the properties panel with the overall Canoe properties.
-     * Uses the Canoe’s hull overall values.
+     * Uses the Canoe’s hull overall values, the same ones the solvers use.
      * @param hull the hull object from which to set properties in the bottom right pane
      */
-    @Debounce(ms = 12)
     public void setHullProperties(Hull hull) {
-        setHullPropertiesPaneValues(
-                hull.getMaxHeight(),
-                hull.getTotalVolume(),
-                hull.getMass(),
-                0,
-                hull.getLength());
+        updateHullProperties(hull, false);
+    }
+
+    /**
+     * Update the properties panel with the overall Canoe properties
+     * Throttled rather than debounced as it is called on every knot drag event, so the values keep up with the drag
+     * A drag preview shows the per-section sums (see Hull.getSectionedProperties()), which only integrate the sections
+     * next to the dragged knot but can differ from the solver's values in the last displayed digit
+     * Any other hull shows the solver's values, and as both go through this throttle the values after a drag is released win
+     * Both are computed on the hull itself rather than a copy so its cached section properties are kept for the next drag
+     * @param hull the hull object from which to set properties in the bottom right pane
+     * @param isDragPreview whether the hull is the preview of a knot drag in progress
+     */
+    @Throttle(ms = 50)
+    private void updateHullProperties(Hull hull, boolean isDragPreview) {
+        ComputeScheduler.submit(HULL_PROPERTIES_CHANNEL,
+                () -> {
+                    double[] properties = hull.getSectionedProperties();
+                    if (isDragPreview) return new double[] {properties[0], properties[1], properties[3], hull.getLength()};
+                    return new double[] {hull.getMaxHeight(), hull.getTotalVolume(), hull.getMass(), hull.getLength()};
+                },
+                values -> setHullPropertiesPaneValues(values[0], values[1], values[2], 0, values[3]));
     }
 
     /**
@@ -543,15 +571,12 @@ public class HullBuilderController implements Initializable, ModuleController {
      * @param hull the hull object from which to set properties in the bottom right pane
      * @param section the Section representing the selected hull segment
      */
-    @Debounce(ms = 12)
+    @Debounce(ms = 12, maxWaitMs = 100)
     public void setHullSectionProperties(Hull hull, Section section) {
-        setHullPropertiesPaneValues(
-                hull.getSectionSideViewCurveHeight(section),
-                hull.getSectionVolume(section),
-                hull.getSectionMass(section),
-                section.getX(),
-                section.getRx()
-        );
+        Hull snapshot = new Hull(hull);
+        ComputeScheduler.submit(HULL_PROPERTIES_CHANNEL,
+                () -> new double[] {snapshot.getSectionSideViewCurveHeight(section), snapshot.getSectionVolume(section), snapshot.getSectionMass(section)},
+                values -> setHullPropertiesPaneValues(values[0], values[1], values[2], section.getX(), section.getRx()));
     }
 
     /**
@@ -586,11 +611,11 @@ public class HullBuilderController implements Initializable, ModuleController {
 
         // Delegate logic to HullGeometryService
         if (knobIndex % 2 == 0) { // Updating r, adjust θ bounds
-            double[] thetaBounds = HullGeometryService.calculateSiblingThetaBounds(knobIndex, siblingTheta, r);
+            double[] thetaBounds = HullGeometryService.calculateSiblingThetaBounds(hull, selectedBezierSegmentIndex, knobIndex, siblingTheta, r);
             siblingKnob.setKnobMin(thetaBounds[0]);
             siblingKnob.setKnobMax(thetaBounds[1]);
         } else { // Updating θ, adjust r bounds
-            double rMax = HullGeometryService.calculateSiblingRMax(knobIndex, theta);
+            double rMax = HullGeometryService.calculateSiblingRMax(hull, selectedBezierSegmentIndex, knobIndex, theta);
             siblingKnob.setKnobMax(rMax);
         }
     }
@@ -602,7 +627,7 @@ public class HullBuilderController implements Initializable, ModuleController {
      * MUST BE DONE AFTER SETTING KNOB VALUES WHEN SWITCHING SECTIONS
      */
     private void setKnobBounds() {
-        double[] bounds = HullGeometryService.calculateParameterBounds();
+        double[] bounds = HullGeometryService.calculateParameterBounds(hull, selectedBezierSegmentIndex);
         knobs.get(0).setKnobMin(bounds[0]); // rL min
         knobs.get(0).setKnobMax(bounds[1]); // rL max
         knobs.get(1).setKnobMin(bounds[2]); // thetaL min
@@ -617,6 +642,7 @@ public class HullBuilderController implements Initializable, ModuleController {
      * Display N/A for all section properties
      */
     public void setBlankSectionProperties() {
+        ComputeScheduler.cancel(HULL_PROPERTIES_CHANNEL);
         String na = "N/A";
         this.heightLabel.setText(na);
         this.intervalLabel.setText(na);
@@ -701,7 +727,9 @@ public class HullBuilderController implements Initializable, ModuleController {
 
         // Update the model
         double[] knobValues = knobs.stream().mapToDouble(Knob::getValue).toArray();
-        hull = HullGeometryService.updatePolarHullParameter(knobIndex, newROrThetaVal, knobValues);
+        Hull previousHull = hull;
+        hull = HullGeometryService.updatePolarHullParameter(hull, selectedBezierSegmentIndex, knobIndex, newROrThetaVal, knobValues);
+        history.record(previousHull, hull, "Adjust section", "knob-" + selectedBezierSegmentIndex + "-" + knobIndex);
 
         // Update UI with new hull
         hullGraphicPane.getChildren().clear();
@@ -864,7 +892,7 @@ public class HullBuilderController implements Initializable, ModuleController {
             // Cancel the drag transaction & restore state from before dragging
             if (!isDraggingKnotPreview) {
                 renderHullGraphic(hull);
-                knotDraggingPreviewHull = MarshallingService.deepCopy(hull);
+                knotDraggingPreviewHull = hull;
             }
         }
 
@@ -932,7 +960,7 @@ public class HullBuilderController implements Initializable, ModuleController {
                 poiModeLabel.setText("Deleting Knot Point");
                 double poiX = knotEditingCurrentMouseX - hullGraphicPane.getLayoutX();
                 double functionSpaceX = (poiX / hullGraphicPane.getWidth()) * hull.getLength();
-                Point2D editableKnotPoint = HullGeometryService.getEditableKnotPoint(functionSpaceX);
+                Point2D editableKnotPoint = HullGeometryService.getEditableKnotPoint(hull, overlayZones, functionSpaceX);
 
                 if (editableKnotPoint != null) {
                     if (Math.abs(Math.abs(editableKnotPoint.getY()) - Math.abs(hull.getMaxHeight())) < 1e-6)
@@ -1020,7 +1048,7 @@ public class HullBuilderController implements Initializable, ModuleController {
         if (functionSpacePoint != null && knotEditorEnabled) {
             double screenX = (functionSpacePoint.getX() / hull.getLength()) * hullGraphicPane.getWidth() + hullGraphicPane.getLayoutX();
             if (!isMouseInAddingKnotPointZone(screenX)) {
-                Point2D displayKnotPoint = HullGeometryService.getEditableKnotPoint(functionSpacePoint.getX());
+                Point2D displayKnotPoint = HullGeometryService.getEditableKnotPoint(hull, overlayZones, functionSpacePoint.getX());
 
                 // Edge knot points are not editable so displayKnotPoint is null, but we want to display the point anyway
                 if (displayKnotPoint == null && isMouseInHullZone(knotEditingCurrentMouseX)) {
@@ -1091,7 +1119,7 @@ public class HullBuilderController implements Initializable, ModuleController {
         // Get the knot point we are editing
         double poiX = mouseX - hullGraphicPane.getLayoutX();
         double functionSpaceX = (poiX / hullGraphicPane.getWidth()) * hull.getLength();
-        Point2D editableKnot = HullGeometryService.getEditableKnotPoint(functionSpaceX);
+        Point2D editableKnot = HullGeometryService.getEditableKnotPoint(hull, overlayZones, functionSpaceX);
 
         // Dragging Behaviour
         if (isDraggingKnot) {
@@ -1119,11 +1147,11 @@ public class HullBuilderController implements Initializable, ModuleController {
         Hull updatedHull = null;
         boolean isAddOperation = false;
         if (editableKnot == null && isMouseInAddingKnotPointZone(mouseX)) {
-            updatedHull = HullGeometryService.addKnotPoint(new Point2D(functionSpaceX, functionSpaceY));
+            updatedHull = HullGeometryService.addKnotPoint(hull, new Point2D(functionSpaceX, functionSpaceY));
             isAddOperation = true;
         }
         // Otherwise, if a candidate deletable knot exists and there are enough sections, delete it.
-        else if (hull.getSideViewSegments().size() > 2) updatedHull = HullGeometryService.deleteKnotPoint(editableKnot);
+        else if (hull.getSideViewSegments().size() > 2) updatedHull = HullGeometryService.deleteKnotPoint(hull, editableKnot);
 
         // Hull State/graphics updates if the knot edit changed the hull
         if (updatedHull != null) {
@@ -1133,6 +1161,7 @@ public class HullBuilderController implements Initializable, ModuleController {
             previousPressedBefore = false;
             recalculateAndDisplayHullProperties();
             renderHullGraphic(updatedHull);
+            history.record(hull, updatedHull, isAddOperation ? "Add knot point" : "Delete knot point", null);
             hull = updatedHull;
             toggleOrUpdateKnotEditingHullCurveOverlay(false);
         }
@@ -1228,12 +1257,12 @@ public class HullBuilderController implements Initializable, ModuleController {
             }
 
             // Call HullGeometryService to calculate the new hull after dragging, then render it and update the UI
-            knotDraggingPreviewHull = HullGeometryService.dragKnotPoint(initialKnotDragKnotPos, newKnotDragKnotPos, isDraggingMinKnot ? minKnot : null);
+            knotDraggingPreviewHull = HullGeometryService.dragKnotPoint(hull, initialKnotDragKnotPos, newKnotDragKnotPos, isDraggingMinKnot ? minKnot : null);
             if (knotDraggingPreviewHull != null) {
                 renderHullGraphic(knotDraggingPreviewHull);
                 updateHullIntersectionPointDisplay(initialKnotDragKnotPos, newKnotDragKnotPos);
                 if (sectionPropertiesSelected) setBlankSectionProperties();
-                else setHullProperties(knotDraggingPreviewHull);
+                else updateHullProperties(knotDraggingPreviewHull, true);
             }
         }
         else if (dragIndicatorLine != null) dragIndicatorLine.setVisible(false);
@@ -1286,6 +1315,7 @@ public class HullBuilderController implements Initializable, ModuleController {
                 else throw new RuntimeException("Could not find knot to set up new drag operation");
 
                 // Updating state and UI
+                history.record(hull, knotDraggingPreviewHull, "Drag knot point", null);
                 hull = knotDraggingPreviewHull;
                 updateHullIntersectionPointDisplay(newKnotDragKnotPos, null);
                 poiDataLabel.setLayoutX(ON_LOAD_DATA_LABEL_POS);
@@ -1310,7 +1340,7 @@ public class HullBuilderController implements Initializable, ModuleController {
      * Downloads the current Hull object as a YAML file using the generic exporter.
      */
     public void downloadHull() {
-        File downloadedFile = MarshallingService.exportObjectToYAML(hull, mainController.getPrimaryStage(), "hull");
+        File downloadedFile = MarshallingService.exportObject(hull, mainController.getPrimaryStage(), "hull");
         if (downloadedFile != null) mainController.showSnackbar("Successfully downloaded hull as \"" + downloadedFile.getName() + "\"");
         else mainController.showSnackbar("Download cancelled");
     }
@@ -1323,6 +1353,56 @@ public class HullBuilderController implements Initializable, ModuleController {
         WindowManagerService.openUtilityWindow("Alert", "view/upload-alert-view.fxml", 350, 230);
     }
 
+    /**
+     * Revert the last edit to the hull (Ctrl+Z)
+     */
+    public void undo() {
+        String label = history.peekUndoLabel();
+        Hull previousHull = history.undo(hull);
+        if (previousHull == null) mainController.showSnackbar("Nothing to undo");
+        else {
+            setHullFromHistory(previousHull);
+            mainController.showSnackbar("Undo: " + label);
+        }
+    }
+
+    /**
+     * Reapply the last undone edit to the hull (Ctrl+Y or Ctrl+Shift+Z)
+     */
+    public void redo() {
+        String label = history.peekRedoLabel();
+        Hull nextHull = history.redo(hull);
+        if (nextHull == null) mainController.showSnackbar("Nothing to redo");
+        else {
+            setHullFromHistory(nextHull);
+            mainController.showSnackbar("Redo: " + label);
+        }
+    }
+
+    /**
+     * Set a hull from the edit history, keeping the selected section if the hull still has it
+     * @param restoredHull the hull before or after an edit
+     */
+    private void setHullFromHistory(Hull restoredHull) {
+        boolean keepSelection = selectedBezierSegment != null && restoredHull.getSideViewSegments().size() == hull.getSideViewSegments().size();
+        hull = restoredHull;
+        if (keepSelection) {
+            selectedBezierSegment = hull.getSideViewSegments().get(selectedBezierSegmentIndex);
+            unboundKnobs();
+            setKnobValues();
+            setKnobBounds();
+        }
+        else {
+            selectedBezierSegment = null;
+            selectedBezierSegmentIndex = -1;
+            nextPressedBefore = false;
+            previousPressedBefore = false;
+        }
+        renderHullGraphic(hull);
+        recalculateAndDisplayHullProperties();
+        toggleOrUpdateKnotEditingHullCurveOverlay(false);
+    }
+
     /**
      * Detects the release of any key on the keyboard (only shift key functionality implemented at the moment)
      * @param event contains information about the event where some key was released
@@ -1359,7 +1439,7 @@ public class HullBuilderController implements Initializable, ModuleController {
 
                     double poiX = knotEditingCurrentMouseX - hullGraphicPane.getLayoutX();
                     double functionSpaceX = (poiX / hullGraphicPane.getWidth()) * hull.getLength();
-                    Point2D editableKnotPoint = HullGeometryService.getEditableKnotPoint(functionSpaceX);
+                    Point2D editableKnotPoint = HullGeometryService.getEditableKnotPoint(hull, overlayZones, functionSpaceX);
                     if (editableKnotPoint != null && Math.abs(Math.abs(editableKnotPoint.getY()) - Math.abs(hull.getMaxHeight())) < 1e-6)
                         poiModeLabel.setText("Minimum Knot Point");
 
@@ -1381,23 +1461,27 @@ public class HullBuilderController implements Initializable, ModuleController {
     }
 
     /**
-     * Detects the pressing of any key on the keyboard (only shift key functionality implemented at the moment)
+     * Detects the pressing of any key on the keyboard (shift key functionality and the undo/redo shortcuts)
      * @param event contains information about the event where some key was pressed
      */
     private void handleKeyPressed(KeyEvent event) {
+        if (event.isShortcutDown() && !isDraggingKnot) {
+            if (event.getCode() == KeyCode.Z && !event.isShiftDown()) undo();
+            else if (event.getCode() == KeyCode.Y || event.getCode() == KeyCode.Z) redo();
+        }
         if (event.getCode() == KeyCode.SHIFT) {
             if (isMouseInHullZone(knotEditingCurrentMouseX)) poiModeLabel.setOpacity(1);
             isShiftKeyPressed = true;
             // Calculate the candidate knot point (in function space) to drag based on the current mouse X.
             double poiX = knotEditingCurrentMouseX - hullGraphicPane.getLayoutX();
             double functionSpaceX = (poiX / hullGraphicPane.getWidth()) * hull.getLength();
-            Point2D draggableKnot = HullGeometryService.getEditableKnotPoint(functionSpaceX);
+            Point2D draggableKnot = HullGeometryService.getEditableKnotPoint(hull, overlayZones, functionSpaceX);
             if (!knotEditingMouseButtonDown && isMouseOverHullViewAnchorPane(new Point2D(knotEditingCurrentMouseX, knotEditingCurrentMouseY))) {
                 // Initiate "dragging preview mode" if there is a draggable knot
                 if (draggableKnot != null) {
                     // Update state
                     isDraggingKnotPreview = true;
-                    initialKnotDragKnotPos = HullGeometryService.getEditableKnotPoint(functionSpaceX);
+                    initialKnotDragKnotPos = HullGeometryService.getEditableKnotPoint(hull, overlayZones, functionSpaceX);
 
                     // Update the drag indicator line
                     double knotScreenX = GraphicsUtils.getScaledFromModelToGraphic(draggableKnot.getX(), hullGraphicPane.getPrefWidth(), hull.getLength()) + hullGraphicPane.getLayoutX();
@@ -1439,7 +1523,6 @@ public class HullBuilderController implements Initializable, ModuleController {
     public void initialize(URL url, ResourceBundle resourceBundle) {
         // Set controller instances
         setMainController(CanoeAnalysisApplication.getMainController());
-        HullGeometryService.setHullBuilderController(this);
         MarshallingService.setHullBuilderController(this);
         HullGeometryService.setTopMostAllowedHullHeight(0.2);
         HullGeometryService.setBottomMostAllowedHullHeight(0.5);
@@ -1510,7 +1593,7 @@ public class HullBuilderController implements Initializable, ModuleController {
         knotEditingMouseButtonDown = false;
         isShiftKeyPressed = false;
         shiftKeyPressHadMouseInDraggableKnotPointZone = false;
-        knotDraggingPreviewHull = MarshallingService.deepCopy(hull);
+        knotDraggingPreviewHull = hull;
         newKnotDragKnotPos = null;
         dragStartTime = -1;
 
@@ -224,7 +224,7 @@ public class PunchingShearController implements Initializable, ModuleController
      */
     public void uploadCanoe() {
         MarshallingService.setPunchingShearController(this);
-        MarshallingService.punchingShearImportCanoeFromYAML(mainController.getPrimaryStage());
+        MarshallingService.punchingShearImportCanoe(mainController.getPrimaryStage());
     }
 
     /**
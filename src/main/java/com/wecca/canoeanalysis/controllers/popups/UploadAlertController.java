@@ -40,8 +40,8 @@ public class UploadAlertController implements Initializable {
     public void continueToUpload(ActionEvent e) {
         Module selectedModule = ModuleSelectorController.selectedModule;
         Stage stage = mainController.getPrimaryStage();
-        if (selectedModule == Module.HULL_BUILDER) MarshallingService.hullBuilderImportHullFromYAML(stage);
-        else if (selectedModule == Module.BEAM) MarshallingService.beamImportCanoeFromYAML(stage);
+        if (selectedModule == Module.HULL_BUILDER) MarshallingService.hullBuilderImportHull(stage);
+        else if (selectedModule == Module.BEAM) MarshallingService.beamImportCanoe(stage);
         else throw new IllegalStateException("Upload not supported for module: " + selectedModule);
         closeWindow(e);
     }
@@ -0,0 +1,45 @@
+package com.wecca.canoeanalysis.models.canoe;
+
+import com.wecca.canoeanalysis.models.data.NumericalSettings;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import java.util.function.Supplier;
+
+/**
+ * Everything an analysis reads besides its loads: the hull (which carries its own scaling factor) and the numerical settings
+ * Passing one of these to each analysis, rather than reading shared state, lets analyses of different hulls or settings
+ * run at the same time without affecting each other
+ * The hull must be treated as a value while analyses run on it (see Hull.derive())
+ */
+@Getter @With @AllArgsConstructor
+public class AnalysisContext {
+
+    private final Hull hull;
+    private final NumericalSettings settings;
+
+    /**
+     * @param hull the hull to analyze
+     * @return a context for the hull with the settings currently in use by the calling thread
+     */
+    public static AnalysisContext of(Hull hull) {
+        return new AnalysisContext(hull, CalculusUtils.getNumericalSettings());
+    }
+
+    /**
+     * @return the scaling factor of the hull relative to the library hull it was generated from
+     */
+    public double getScalingFactor() {
+        return hull.getScalingFactor();
+    }
+
+    /**
+     * Run an analysis on the calling thread with this context's settings
+     * @param analysis the analysis
+     * @return the result of the analysis
+     */
+    public <T> T call(Supplier<T> analysis) {
+        return CalculusUtils.callWithNumericalSettings(settings, analysis);
+    }
+}
@@ -0,0 +1,30 @@
+package com.wecca.canoeanalysis.models.canoe;
+
+import javafx.geometry.Point2D;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bending stress profile of the hull at each station, and the critical sections ranked by absolute stress
+ */
+@Data @AllArgsConstructor
+public class BendingStressSolution {
+    double[] x; // [m]
+    double[] moment; // [kN·m]
+    double[] sectionModulus; // [m^3]
+    double[] stress; // [kPa]
+    List<CriticalSection> criticalSections; // sorted by descending absolute stress
+
+    /**
+     * @return the bending stress diagram points in MPa for display
+     */
+    public List<Point2D> getStressPoints() {
+        List<Point2D> points = new ArrayList<>(x.length);
+        for (int i = 0; i < x.length; i++) {
+            points.add(new Point2D(x[i], stress[i] / 1000));
+        }
+        return points;
+    }
+}
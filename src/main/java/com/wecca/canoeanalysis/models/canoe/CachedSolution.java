@@ -0,0 +1,65 @@
+package com.wecca.canoeanalysis.models.canoe;
+
+import javafx.geometry.Point2D;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The solved results of a canoe kept in the result cache, each part is filled in once it has been computed
+ * Kept as primitive arrays since these are written and read in bulk, see ResultCacheService
+ */
+@Data @NoArgsConstructor
+public class CachedSolution {
+    // Floating solve, the buoyancy itself is rebuilt from the waterline and only sampled here
+    boolean floatingSolved;
+    double solvedH;
+    double solvedTheta;
+    boolean isTippedOver;
+    double[] buoyancyX = new double[0]; // [m]
+    double[] buoyancy = new double[0]; // [kN/m]
+
+    // Diagrams
+    double[] sfdX = new double[0]; // [m]
+    double[] shear = new double[0]; // [kN]
+    double[] bmdX = new double[0]; // [m]
+    double[] moment = new double[0]; // [kN·m]
+    double maxAbsShear;
+    double maxAbsMoment;
+
+    /**
+     * @return whether the SFD and BMD have been stored
+     */
+    public boolean hasDiagrams() {
+        return sfdX.length > 0;
+    }
+
+    /**
+     * Store the SFD and BMD along with their extrema
+     */
+    public void setDiagrams(List<Point2D> sfdPoints, List<Point2D> bmdPoints) {
+        sfdX = sfdPoints.stream().mapToDouble(Point2D::getX).toArray();
+        shear = sfdPoints.stream().mapToDouble(Point2D::getY).toArray();
+        bmdX = bmdPoints.stream().mapToDouble(Point2D::getX).toArray();
+        moment = bmdPoints.stream().mapToDouble(Point2D::getY).toArray();
+        maxAbsShear = sfdPoints.stream().mapToDouble(point -> Math.abs(point.getY())).max().orElse(0);
+        maxAbsMoment = bmdPoints.stream().mapToDouble(point -> Math.abs(point.getY())).max().orElse(0);
+    }
+
+    public List<Point2D> getSfdPoints() {
+        return toPoints(sfdX, shear);
+    }
+
+    public List<Point2D> getBmdPoints() {
+        return toPoints(bmdX, moment);
+    }
+
+    private static List<Point2D> toPoints(double[] x, double[] y) {
+        List<Point2D> points = new ArrayList<>(x.length);
+        for (int i = 0; i < x.length; i++) {
+            points.add(new Point2D(x[i], y[i]));
+        }
+        return points;
+    }
+}
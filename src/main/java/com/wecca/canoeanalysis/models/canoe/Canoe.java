@@ -44,6 +44,21 @@ public class Canoe
         this.solveType = SolveType.UNSOLVED;
     }
 
+    /**
+     * Copy constructor, so that a background computation can work on its own canoe
+     * The hull and loads are copied, except piecewise distributions which are shared (see LoadUtils.copyLoad)
+     * @param src the source Canoe to copy
+     */
+    public Canoe(Canoe src) {
+        this.hull = src.hull == null ? null : new Hull(src.hull);
+        this.loads = new ArrayList<>();
+        for (Load load : src.loads) {
+            loads.add(LoadUtils.copyLoad(load));
+        }
+        this.sessionMaxShear = src.sessionMaxShear;
+        this.solveType = src.solveType;
+    }
+
     public void setHull(Hull hull) {
         if (hull.getLength() < 2)
             throw new IllegalArgumentException("Hull must be at least 2m in length");
@@ -68,7 +83,7 @@ public class Canoe
                 else
                     pLoad.setForce(0.00); // In case mag is -0 so that the negative doesn't display to the user
 
-            for (PointLoad existingPLoad : getAllLoadsOfType(PointLoad.class)) {
+            for (PointLoad existingPLoad : getExternalLoadsOfType(PointLoad.class)) {
                 if (existingPLoad.getX() == pLoad.getX() && !pLoad.isSupport()) {
                     double newForce = existingPLoad.getForce() + pLoad.getForce();
                     if (newForce == 0) {
@@ -82,7 +97,7 @@ public class Canoe
         }
         // Combine dLoads at the on the same interval [x, rx]
         if (load instanceof UniformLoadDistribution dLoad) {
-            for (UniformLoadDistribution existingDLoad : getAllLoadsOfType(UniformLoadDistribution.class)) {
+            for (UniformLoadDistribution existingDLoad : getExternalLoadsOfType(UniformLoadDistribution.class)) {
                 if (existingDLoad.getX() == dLoad.getX() && existingDLoad.getRx() == dLoad.getRx()) {
                     double newMag = existingDLoad.getMagnitude() + dLoad.getMagnitude();
                     if (newMag == 0) {
@@ -183,6 +198,20 @@ public class Canoe
                 .toList();
     }
 
+    /**
+     * Unlike getAllLoadsOfType, this does not need to build the hull's self-weight distribution
+     * @param <T> the type of load
+     * @param clazz the class literal for type T
+     * @return a list of external loads of specified subtype (i.e. PointLoad, UniformLoadDistribution, etc.)
+     */
+    @JsonIgnore
+    public <T extends Load> List<T> getExternalLoadsOfType(Class<T> clazz) {
+        return loads.stream()
+                .filter(clazz::isInstance)
+                .map(clazz::cast)
+                .toList();
+    }
+
     /**
      * @return all loads with piecewise continuous loads discretized
      * Note: discretization also separates out LoadTypes
@@ -0,0 +1,15 @@
+package com.wecca.canoeanalysis.models.canoe;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A station along the hull where the bending stress peaks
+ */
+@Data @AllArgsConstructor
+public class CriticalSection {
+    double x; // [m]
+    double moment; // [kN·m]
+    double sectionModulus; // [m^3]
+    double stress; // [kPa], signed with the moment
+}
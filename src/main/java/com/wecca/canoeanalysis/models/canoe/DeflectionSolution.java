@@ -0,0 +1,45 @@
+package com.wecca.canoeanalysis.models.canoe;
+
+import javafx.geometry.Point2D;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rotation and deflection of the hull along its length, sampled on the BMD grid
+ * Kept as primitive arrays since these are built and consumed in bulk
+ */
+@Data @AllArgsConstructor
+public class DeflectionSolution {
+    double[] x; // [m]
+    double[] rotation; // [rad], positive is CCW
+    double[] deflection; // [m], positive is upward
+
+    /**
+     * @return the rotation diagram points in mrad for display
+     */
+    public List<Point2D> getRotationPoints() {
+        return toPoints(rotation, 1000);
+    }
+
+    /**
+     * @return the deflection diagram points in mm for display
+     */
+    public List<Point2D> getDeflectionPoints() {
+        return toPoints(deflection, 1000);
+    }
+
+    /**
+     * @param y the values to pair with x
+     * @param scale factor to convert y into display units
+     * @return the list of points (x, y * scale)
+     */
+    private List<Point2D> toPoints(double[] y, double scale) {
+        List<Point2D> points = new ArrayList<>(x.length);
+        for (int i = 0; i < x.length; i++) {
+            points.add(new Point2D(x[i], y[i] * scale));
+        }
+        return points;
+    }
+}
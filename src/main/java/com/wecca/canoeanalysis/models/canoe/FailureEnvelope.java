@@ -0,0 +1,58 @@
+package com.wecca.canoeanalysis.models.canoe;
+
+import javafx.geometry.Point2D;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The pointwise max and min of shear, moment and bending stress over a set of load cases
+ * Each extreme is paired with the index of the load case which governs it at that station (-1 if no case was solved)
+ */
+@Data @AllArgsConstructor
+public class FailureEnvelope {
+    List<LoadCase> loadCases;
+    List<LoadCase> unsolvedLoadCases; // floating cases where buoyancy could not converge
+    double[] x; // [m]
+    double[] maxShear, minShear; // [kN]
+    double[] maxMoment, minMoment; // [kN·m]
+    double[] maxStress, minStress; // [kPa]
+    int[] maxShearCase, minShearCase;
+    int[] maxMomentCase, minMomentCase;
+    int[] maxStressCase, minStressCase;
+
+    /**
+     * @param values one of the envelopes
+     * @param scale factor to convert the values into display units
+     * @return the envelope points (x, value * scale) for display
+     */
+    public List<Point2D> getPoints(double[] values, double scale) {
+        List<Point2D> points = new ArrayList<>(x.length);
+        for (int i = 0; i < x.length; i++) {
+            points.add(new Point2D(x[i], values[i] * scale));
+        }
+        return points;
+    }
+
+    /**
+     * @param values one of the envelopes
+     * @return the station index of the largest absolute value
+     */
+    public int getAbsoluteMaxIndex(double[] values) {
+        int index = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (Math.abs(values[i]) > Math.abs(values[index])) index = i;
+        }
+        return index;
+    }
+
+    /**
+     * @param governingCases one of the governing case arrays
+     * @param i the station index
+     * @return the load case governing the station, or null if none was solved
+     */
+    public LoadCase getGoverningLoadCase(int[] governingCases, int i) {
+        return governingCases[i] < 0 ? null : loadCases.get(governingCases[i]);
+    }
+}
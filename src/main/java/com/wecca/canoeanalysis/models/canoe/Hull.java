@@ -5,27 +5,33 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.wecca.canoeanalysis.aop.TraceIgnore;
 import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.aop.jfr.HullPropertyEvent;
 import com.wecca.canoeanalysis.models.function.BoundedUnivariateFunction;
 import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
 import com.wecca.canoeanalysis.models.function.Section;
 import com.wecca.canoeanalysis.models.load.DiscreteLoadDistribution;
 import com.wecca.canoeanalysis.models.load.LoadType;
 import com.wecca.canoeanalysis.models.load.PiecewiseContinuousLoadDistribution;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
 import com.wecca.canoeanalysis.utils.CalculusUtils;
 import com.wecca.canoeanalysis.utils.PhysicalConstants;
 import com.wecca.canoeanalysis.utils.SectionPropertyMapEntry;
 import com.wecca.canoeanalysis.utils.HullLibrary;
 import javafx.geometry.Point2D;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.math3.analysis.polynomials.PolynomialFunction;
+import org.apache.commons.math3.analysis.integration.gauss.GaussIntegrator;
+import org.apache.commons.math3.analysis.integration.gauss.GaussIntegratorFactory;
 import org.apache.commons.math3.optim.MaxEval;
 import org.apache.commons.math3.optim.univariate.*;
 import java.util.*;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
@@ -62,7 +68,7 @@ import java.util.stream.Collectors;
  * Utility methods are provided to compute physical properties such as volume, mass, and self‐weight
  * by integrating across the hull’s sections.
  */
-@Getter @Setter @EqualsAndHashCode @Traceable
+@Getter @Setter @EqualsAndHashCode @Traceable(event = HullPropertyEvent.class)
 public class Hull {
 
     @JsonProperty("concreteDensity")
@@ -75,6 +81,31 @@ public class Hull {
     private List<CubicBezierFunction> sideViewSegments;
     @JsonProperty("topViewSegments")
     private List<CubicBezierFunction> topViewSegments;
+    // The length of the hull relative to the library hull it was generated from, scales the front profile approximation
+    // Optional in files, hulls saved before it was added are unscaled
+    // Left out of equality so those hulls still match the default beam they were generated as (see BeamController.setCanoe),
+    // it is a property of the library hull the geometry came from rather than of the geometry itself
+    @JsonProperty("scalingFactor") @EqualsAndHashCode.Exclude
+    private double scalingFactor = 1.0;
+    // Young's modulus of the hull concrete [kN/m^2], only used for deflection
+    // Optional in files, hulls saved before it was added get the default
+    @JsonProperty("elasticModulus") @Setter(AccessLevel.NONE)
+    private double elasticModulus = DEFAULT_ELASTIC_MODULUS;
+
+    public static final double DEFAULT_ELASTIC_MODULUS = 5.0e6; // [kN/m^2], typical for lightweight canoe concrete mixes
+
+    // The segments and map entries this hull may mutate, null if it owns all of them
+    // A derived hull shares its parts with the hull it was derived from until it edits them, see derive()
+    @JsonIgnore @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude
+    private Set<Object> ownedParts;
+
+    // Integrates each section for getSectionedProperties(), see computeSectionProperties()
+    private static final GaussIntegrator SECTION_QUADRATURE = new GaussIntegratorFactory().legendre(24, -1, 1);
+
+    // The properties of each section, keyed by a snapshot of everything they depend on, see getSectionedProperties()
+    // Carried over by derive() and copies so an edited hull only integrates the sections the edit touched
+    @JsonIgnore @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude
+    private Map<List<Object>, double[]> sectionPropertiesCache = new ConcurrentHashMap<>();
 
     /**
      * Note: Was "lifted" up in the inheritance tree from HullSection in the old model
@@ -89,20 +120,33 @@ public class Hull {
      * Instead I have built a polynomial regression fit for it which is faster to evaluate
      * The 7th degree polynomial has R^2 = 0.9967 for the fully accurate function and was solved on Desmos
      */
-    @JsonIgnore @EqualsAndHashCode.Exclude
-    private final BoundedUnivariateFunction crossSectionalAreaAdjustmentFactorFunction = h -> {
-        double[] coefficients = new double[] {0, 17.771, -210.367, 1409.91, -5420.6, 11769.4, -13242.7, 5880.62};
-        for (int i = 0; i < coefficients.length; i++) {
-            coefficients[i] = coefficients[i] / Math.pow(HullLibrary.scalingFactor, i);
+    private static final double[] CROSS_SECTIONAL_AREA_ADJUSTMENT_COEFFICIENTS = {0, 17.771, -210.367, 1409.91, -5420.6, 11769.4, -13242.7, 5880.62};
+
+    /**
+     * The cross-sectional area adjustment factor described above, for a hull of the given scaling factor
+     * @param h the height in metres
+     * @param scalingFactor the scaling factor of the hull relative to Shark Bait (see HullLibrary)
+     * @return the adjustment factor
+     */
+    @TraceIgnore
+    public static double getCrossSectionalAreaAdjustmentFactor(double h, double scalingFactor) {
+        if (!(h >= 0)) throw new IllegalArgumentException("Function undefined for negative values");
+        double x = Math.min(h, 0.4 * scalingFactor);
+        double value = 0;
+        for (int i = CROSS_SECTIONAL_AREA_ADJUSTMENT_COEFFICIENTS.length - 1; i >= 0; i--) {
+            value = value * x + CROSS_SECTIONAL_AREA_ADJUSTMENT_COEFFICIENTS[i] / Math.pow(scalingFactor, i);
         }
-        PolynomialFunction regressionFit = new PolynomialFunction(coefficients);
-        if (0 <= h && h <= 0.4 * HullLibrary.scalingFactor)
-            return regressionFit.value(h);
-        else if (h > 0.4 * HullLibrary.scalingFactor)
-            return regressionFit.value(0.4 * HullLibrary.scalingFactor);
-        else
-            throw new IllegalArgumentException("Function undefined for negative values");
-    };
+        return value;
+    }
+
+    /**
+     * @return the cross-sectional area adjustment factor as a function of height, for this hull's scaling factor
+     */
+    @JsonIgnore @TraceIgnore
+    public BoundedUnivariateFunction getCrossSectionalAreaAdjustmentFactorFunction() {
+        double scalingFactor = this.scalingFactor;
+        return h -> getCrossSectionalAreaAdjustmentFactor(h, scalingFactor);
+    }
 
     /**
      * The new model's constructor for serialization and storage
@@ -209,6 +253,9 @@ public class Hull {
     public Hull(Hull src) {
         this.concreteDensity  = src.concreteDensity;
         this.bulkheadDensity  = src.bulkheadDensity;
+        this.scalingFactor    = src.scalingFactor;
+        this.elasticModulus   = src.elasticModulus;
+        this.sectionPropertiesCache = new ConcurrentHashMap<>(src.sectionPropertiesCache);
         this.hullProperties   = new HullProperties(src.getHullProperties());
         this.sideViewSegments = src.sideViewSegments
                 .stream()
@@ -220,6 +267,90 @@ public class Hull {
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
+    /**
+     * Constructor for derive(), takes new lists of the source's parts without copying the parts themselves
+     * @param src the source Hull to derive from
+     * @param ownedParts the parts the new hull may mutate
+     */
+    private Hull(Hull src, Set<Object> ownedParts) {
+        this.concreteDensity = src.concreteDensity;
+        this.bulkheadDensity = src.bulkheadDensity;
+        this.scalingFactor = src.scalingFactor;
+        this.elasticModulus = src.elasticModulus;
+        this.sectionPropertiesCache = new ConcurrentHashMap<>(src.sectionPropertiesCache);
+        this.hullProperties = new HullProperties(new ArrayList<>(src.hullProperties.getThicknessMap()), new ArrayList<>(src.hullProperties.getBulkheadMap()));
+        this.sideViewSegments = new ArrayList<>(src.sideViewSegments);
+        this.topViewSegments = new ArrayList<>(src.topViewSegments);
+        this.ownedParts = ownedParts;
+    }
+
+    /**
+     * @param elasticModulus Young's modulus of the hull concrete [kN/m^2]
+     */
+    public void setElasticModulus(double elasticModulus) {
+        if (!(elasticModulus > 0))
+            throw new IllegalArgumentException("Elastic modulus must be positive");
+        this.elasticModulus = elasticModulus;
+    }
+
+    /**
+     * Derive a hull to edit from this one, like a persistent data structure:
+     * the derived hull gets its own lists but shares the segments and property map entries with this hull,
+     * a shared part is only copied the first time it is edited through one of the getEditable methods
+     * So an edit allocates just the parts it touches, and every earlier hull remains a valid snapshot (i.e. for undo)
+     * Note: this relies on hulls being treated as values once built, only ever mutate a derived hull and only through its editable parts
+     * @return the derived hull
+     */
+    @TraceIgnore
+    public Hull derive() {
+        return new Hull(this, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * @param index the index of the segment
+     * @return the side view segment, copied first if it is shared with another hull
+     */
+    @TraceIgnore
+    public CubicBezierFunction getEditableSideViewSegment(int index) {
+        return getEditablePart(sideViewSegments, index, CubicBezierFunction::new);
+    }
+
+    /**
+     * @param index the index of the segment
+     * @return the top view segment, copied first if it is shared with another hull
+     */
+    @TraceIgnore
+    public CubicBezierFunction getEditableTopViewSegment(int index) {
+        return getEditablePart(topViewSegments, index, CubicBezierFunction::new);
+    }
+
+    /**
+     * @param index the index of the entry
+     * @return the thickness map entry, copied first if it is shared with another hull
+     */
+    @TraceIgnore
+    public SectionPropertyMapEntry getEditableThicknessMapEntry(int index) {
+        return getEditablePart(hullProperties.getThicknessMap(), index, e -> new SectionPropertyMapEntry(e.getX(), e.getRx(), e.getValue()));
+    }
+
+    /**
+     * @param index the index of the entry
+     * @return the bulkhead map entry, copied first if it is shared with another hull
+     */
+    @TraceIgnore
+    public SectionPropertyMapEntry getEditableBulkheadMapEntry(int index) {
+        return getEditablePart(hullProperties.getBulkheadMap(), index, e -> new SectionPropertyMapEntry(e.getX(), e.getRx(), e.getValue()));
+    }
+
+    private <T> T getEditablePart(List<T> parts, int index, UnaryOperator<T> copier) {
+        T part = parts.get(index);
+        if (ownedParts == null || ownedParts.contains(part)) return part;
+        T copy = copier.apply(part);
+        parts.set(index, copy);
+        ownedParts.add(copy);
+        return copy;
+    }
+
     /**
      * Validates basic non-null and size conditions for hull properties and curve segments.
      */
@@ -367,6 +498,102 @@ public class Hull {
         return CalculusUtils.roundXDecimalDigits(-globalMinY, 10);
     }
 
+    /**
+     * The overall properties shown while editing, computed section by section (one section per side view segment)
+     * Each section's values are cached by its geometry and properties and carried over by derive(),
+     * so after an edit such as a knot drag only the one or two sections it changed are integrated again
+     * The totals are sums of per section integrals, so they can differ slightly from getTotalVolume() and getMass(),
+     * which integrate adaptively across the section joints
+     * @return {max height (m), total volume (m^3), concrete volume (m^3), mass (kg), first moment of mass about x = 0 (kg·m)}
+     */
+    @JsonIgnore
+    public double[] getSectionedProperties() {
+        double globalMinY = 0;
+        double[] totals = new double[5];
+        Set<List<Object>> keys = new HashSet<>();
+        for (CubicBezierFunction side : sideViewSegments) {
+            List<Object> key = getSectionPropertiesKey(side);
+            keys.add(key);
+            double[] properties = sectionPropertiesCache.get(key);
+            if (properties != null) MetricsService.HULL_SECTION_CACHE_HITS.increment();
+            else {
+                MetricsService.HULL_SECTION_CACHE_MISSES.increment();
+                properties = computeSectionProperties(side);
+                sectionPropertiesCache.put(key, properties);
+            }
+            globalMinY = Math.min(globalMinY, properties[0]);
+            for (int i = 1; i < totals.length; i++) {
+                totals[i] += properties[i];
+            }
+        }
+        // Drop the sections this hull no longer has, so the cache stays the size of the hull
+        sectionPropertiesCache.keySet().retainAll(keys);
+        totals[0] = CalculusUtils.roundXDecimalDigits(-globalMinY, 10);
+        return totals;
+    }
+
+    /**
+     * A section's side and top view are each a single smooth Bézier curve, so a fixed Gauss-Legendre rule integrates it
+     * closely, and all of its integrands are evaluated from the same points rather than integrating each one adaptively
+     * @param side the side view segment of the section
+     * @return {min y of the side view (m), volume (m^3), concrete volume (m^3), mass (kg), first moment of mass (kg·m)} of the section
+     */
+    private double[] computeSectionProperties(CubicBezierFunction side) {
+        UnivariateObjectiveFunction objective = new UnivariateObjectiveFunction(x -> -side.value(x));
+        SearchInterval interval = new SearchInterval(side.getX1(), side.getX2());
+        double minY = -new BrentOptimizer(1e-10, 1e-14).optimize(MaxEval.unlimited(), objective, interval).getValue();
+
+        BoundedUnivariateFunction outerArea = getCrossSectionalAreaFunction();
+        BoundedUnivariateFunction innerArea = getInnerCrossSectionalAreaFunction();
+        double halfLength = (side.getX2() - side.getX1()) / 2;
+        double midpoint = (side.getX1() + side.getX2()) / 2;
+        double volume = 0, concreteVolume = 0, mass = 0, massMoment = 0;
+        for (int i = 0; i < SECTION_QUADRATURE.getNumberOfPoints(); i++) {
+            double x = midpoint + halfLength * SECTION_QUADRATURE.getPoint(i);
+            double weight = halfLength * SECTION_QUADRATURE.getWeight(i);
+            double outer = outerArea.value(x);
+            double inner = innerArea.value(x);
+            boolean fillBulkhead = hullProperties.getBulkheadMap().stream()
+                    .filter(entry -> entry.getX() <= x && x <= entry.getRx())
+                    .findFirst()
+                    .map(entry -> Boolean.parseBoolean(entry.getValue()))
+                    .orElse(false);
+            // Same as getMassDistributionFunction()
+            double massPerLength = (outer - inner) * concreteDensity + (fillBulkhead ? inner * bulkheadDensity : 0);
+            volume += weight * outer;
+            concreteVolume += weight * (outer - inner);
+            mass += weight * massPerLength;
+            massMoment += weight * x * massPerLength;
+        }
+        return new double[] {minY, volume, concreteVolume, mass, massMoment};
+    }
+
+    /**
+     * Values only, since parts owned by a hull may still be edited in place
+     * The top view segments and map entries are those overlapping the section as the area functions look them up by x,
+     * ones only touching its ends are left out since the quadrature points are all inside the section
+     * @param side the side view segment of the section
+     * @return the key of the section's cached properties
+     */
+    private List<Object> getSectionPropertiesKey(CubicBezierFunction side) {
+        double x = side.getX1();
+        double rx = side.getX2();
+        List<Object> key = new ArrayList<>(side.getKnotAndControlPoints());
+        key.add(concreteDensity);
+        key.add(bulkheadDensity);
+        key.add(scalingFactor);
+        for (CubicBezierFunction top : topViewSegments) {
+            if (top.getX() < rx && x < top.getRx()) key.addAll(top.getKnotAndControlPoints());
+        }
+        for (List<SectionPropertyMapEntry> map : List.of(hullProperties.getThicknessMap(), hullProperties.getBulkheadMap())) {
+            for (SectionPropertyMapEntry entry : map) {
+                if (entry.getX() < rx && x < entry.getRx()) key.addAll(List.of(entry.getX(), entry.getRx(), entry.getValue()));
+            }
+            key.add(map.size()); // separates the thickness entries from the bulkhead entries
+        }
+        return key;
+    }
+
     /**
      * @return the length (in meters) of the canoe hull.
      */
@@ -432,7 +659,7 @@ public class Hull {
         return x -> {
             double sideVal = Math.abs(CalculusUtils.getSplineY(sideViewSegments, x));
             double topVal  = 2 * Math.abs(CalculusUtils.getSplineY(topViewSegments, x));
-            return sideVal * topVal * crossSectionalAreaAdjustmentFactorFunction.value(sideVal);
+            return sideVal * topVal * getCrossSectionalAreaAdjustmentFactor(sideVal, scalingFactor);
         };
     }
 
@@ -442,8 +669,7 @@ public class Hull {
     @JsonIgnore
     public double getTotalVolume() {
         Section full = getSection();
-        return CalculusUtils.integrator.integrate(
-                MaxEval.unlimited().getMaxEval(),
+        return CalculusUtils.integrate(
                 getCrossSectionalAreaFunction(),
                 full.getX(), full.getRx());
     }
@@ -473,10 +699,81 @@ public class Hull {
             int numWalls = fillBulkhead ? 2 : 1;
             double innerSide = Math.max(sideVal - numWalls * t, 0);
             double innerTop  = Math.max(topVal - 2 * t, 0);
-            return innerSide * innerTop * crossSectionalAreaAdjustmentFactorFunction.value(sideVal);
+            return innerSide * innerTop * getCrossSectionalAreaAdjustmentFactor(sideVal, scalingFactor);
+        };
+    }
+
+    /**
+     * Defines a function I(x) which models the second moment of area of the hull's cross-section about its
+     * horizontal centroidal axis as a function of x (m^4). Used to get the flexural rigidity EI(x) for deflections.
+     * The section is idealized as a thin-walled open U in the encasing rectangle of the side and top views:
+     * a floor of width 2 * top(x) and two walls of height side(x), all with the wall thickness at x.
+     * Bulkheaded sections are capped with a top wall (consistent with getInnerCrossSectionalAreaFunction), the foam itself is not structural.
+     * @return the function I(x)
+     */
+    @JsonIgnore @TraceIgnore
+    public BoundedUnivariateFunction getSecondMomentOfAreaFunction() {
+        return x -> getThinWalledSectionProperties(x)[1];
+    }
+
+    /**
+     * Defines a function S(x) which models the elastic section modulus of the hull's cross-section (m^3).
+     * S = I / c where c is the distance from the neutral axis to the extreme fibre (either the gunwale or the floor).
+     * See getSecondMomentOfAreaFunction() for the idealization of the section.
+     * @return the function S(x)
+     */
+    @JsonIgnore @TraceIgnore
+    public BoundedUnivariateFunction getSectionModulusFunction() {
+        return x -> {
+            double[] properties = getThinWalledSectionProperties(x);
+            double c = Math.max(properties[0], properties[2] - properties[0]);
+            return c == 0 ? 0 : properties[1] / c;
         };
     }
 
+    /**
+     * Thin-walled open U section properties at x, see getSecondMomentOfAreaFunction() for the idealization
+     * Depths are measured downward from the gunwale (top of the walls)
+     * @param x the position along the hull
+     * @return {neutral axis depth (m), second moment of area about the neutral axis (m^4), section height (m)}
+     */
+    private double[] getThinWalledSectionProperties(double x) {
+        double h = Math.abs(CalculusUtils.getSplineY(sideViewSegments, x));
+        double b = 2 * Math.abs(CalculusUtils.getSplineY(topViewSegments, x));
+        double thickness = hullProperties.getThicknessMap().stream()
+                .filter(entry -> entry.getX() <= x && x <= entry.getRx())
+                .findFirst()
+                .map(entry -> Double.parseDouble(entry.getValue()))
+                .orElseThrow(() -> new RuntimeException("No thickness entry for x = " + x));
+        boolean isBulkheaded = hullProperties.getBulkheadMap().stream()
+                .filter(entry -> entry.getX() <= x && x <= entry.getRx())
+                .findFirst()
+                .map(entry -> Boolean.parseBoolean(entry.getValue()))
+                .orElse(false);
+
+        // Near the bow and stern the section collapses into solid concrete
+        if (h == 0 || b == 0) return new double[] {0, 0, 0};
+        int numFlanges = isBulkheaded ? 2 : 1;
+        double t = Math.min(thickness, Math.min(h / numFlanges, b / 2));
+
+        // Floor, optional top, and walls as rectangles, combined with the parallel axis theorem
+        double floorArea = b * t;
+        double floorDepth = h - t / 2;
+        double topArea = isBulkheaded ? b * t : 0;
+        double topDepth = t / 2;
+        double flangeI = b * Math.pow(t, 3) / 12;
+        double wallHeight = h - numFlanges * t;
+        double wallsArea = 2 * t * wallHeight;
+        double wallsDepth = (isBulkheaded ? t : 0) + wallHeight / 2;
+        double wallsI = 2 * t * Math.pow(wallHeight, 3) / 12;
+
+        double neutralAxisDepth = (floorArea * floorDepth + topArea * topDepth + wallsArea * wallsDepth) / (floorArea + topArea + wallsArea);
+        double i = flangeI + floorArea * Math.pow(floorDepth - neutralAxisDepth, 2)
+                + (isBulkheaded ? flangeI + topArea * Math.pow(topDepth - neutralAxisDepth, 2) : 0)
+                + wallsI + wallsArea * Math.pow(wallsDepth - neutralAxisDepth, 2);
+        return new double[] {neutralAxisDepth, i, h};
+    }
+
     /**
      * @return the bulkhead volume of the canoe by integrating the inner cross-sectional area A_inner(x) over each interval specified in the bulkhead map that is flagged true.
      */
@@ -487,8 +784,7 @@ public class Hull {
             if (Boolean.parseBoolean(entry.getValue())) {
                 double xStart = entry.getX();
                 double xEnd   = entry.getRx();
-                bulkVol += CalculusUtils.integrator.integrate(
-                        MaxEval.unlimited().getMaxEval(),
+                bulkVol += CalculusUtils.integrate(
                         getInnerCrossSectionalAreaFunction(),
                         xStart, xEnd);
             }
@@ -514,8 +810,7 @@ public class Hull {
     @JsonIgnore
     public double getConcreteVolume() {
         Section full = getSection();
-        return CalculusUtils.integrator.integrate(
-                MaxEval.unlimited().getMaxEval(),
+        return CalculusUtils.integrate(
                 getConcreteCrossSectionalAreaFunction(),
                 full.getX(), full.getRx());
     }
@@ -550,8 +845,7 @@ public class Hull {
     @JsonIgnore
     public double getMass() {
         Section full = getSection();
-        return CalculusUtils.integrator.integrate(
-                MaxEval.unlimited().getMaxEval(),
+        return CalculusUtils.integrate(
                 getMassDistributionFunction(),
                 full.getX(), full.getRx());
     }
@@ -582,7 +876,8 @@ public class Hull {
      */
     @JsonIgnore
     public DiscreteLoadDistribution getSelfWeightDistributionDiscretized() {
-        return DiscreteLoadDistribution.fromPiecewise(LoadType.HULL, getSelfWeightDistribution(), (int) (getSection().getLength() * 100));
+        return DiscreteLoadDistribution.fromPiecewise(LoadType.HULL, getSelfWeightDistribution(),
+                (int) (getSection().getLength() * CalculusUtils.getNumericalSettings().getSelfWeightIntervalsPerMetre()));
     }
 
     /**
@@ -597,8 +892,7 @@ public class Hull {
             throw new IllegalArgumentException("Section start x (" + section.getX() + ") must be > 0.");
         if (section.getRx() > getLength())
             throw new IllegalArgumentException("Section end x (" + section.getRx() + ") must be < hull length (" + getLength() + ").");
-        return CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(),
-                getCrossSectionalAreaFunction(), section.getX(), section.getRx());
+        return CalculusUtils.integrate(getCrossSectionalAreaFunction(), section.getX(), section.getRx());
     }
 
     /**
@@ -640,8 +934,7 @@ public class Hull {
             throw new IllegalArgumentException("Section start x (" + section.getX() + ") must be > 0.");
         if (section.getRx() > getLength())
             throw new IllegalArgumentException("Section end x (" + section.getRx() + ") must be < hull length (" + getLength() + ").");
-        return CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(),
-                getMassDistributionFunction(), section.getX(), section.getRx());
+        return CalculusUtils.integrate(getMassDistributionFunction(), section.getX(), section.getRx());
     }
 
     /**
@@ -662,8 +955,7 @@ public class Hull {
     @JsonIgnore
     public double getWeight() {
         Section full = getSection();
-        return CalculusUtils.integrator.integrate(
-                MaxEval.unlimited().getMaxEval(),
+        return CalculusUtils.integrate(
                 getWeightDistributionFunction(),
                 full.getX(), full.getRx());
     }
@@ -11,12 +11,10 @@ import com.wecca.canoeanalysis.models.load.LoadType;
 import com.wecca.canoeanalysis.models.function.Section;
 import com.wecca.canoeanalysis.models.function.VertexFormParabolaFunction;
 import com.wecca.canoeanalysis.utils.CalculusUtils;
-import com.wecca.canoeanalysis.utils.HullLibrary;
 import com.wecca.canoeanalysis.utils.PhysicalConstants;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.math3.analysis.polynomials.PolynomialFunction;
 import org.apache.commons.math3.optim.MaxEval;
 import org.apache.commons.math3.optim.univariate.*;
 
@@ -51,19 +49,8 @@ public class HullSection extends Section
     private double bulkheadDensity; // [kg/m^3]
 
     @JsonIgnore @EqualsAndHashCode.Exclude
-    private final BoundedUnivariateFunction crossSectionalAreaAdjustmentFactorFunction = h -> {
-        double[] coefficients = new double[] {0, 17.771, -210.367, 1409.91, -5420.6, 11769.4, -13242.7, 5880.62};
-        for (int i = 0; i < coefficients.length; i++) {
-            coefficients[i] = coefficients[i] / Math.pow(HullLibrary.scalingFactor, i);
-        }
-        PolynomialFunction regressionFit = new PolynomialFunction(coefficients);
-        if (0 <= h && h <= 0.4 * HullLibrary.scalingFactor)
-            return regressionFit.value(h);
-        else if (h > 0.4 * HullLibrary.scalingFactor)
-            return regressionFit.value(0.4 * HullLibrary.scalingFactor);
-        else
-            throw new IllegalArgumentException("Function undefined for negative values");
-    };
+    // Legacy sections carry no scaling factor, so they use the unscaled Shark Bait front profile (see Hull)
+    private final BoundedUnivariateFunction crossSectionalAreaAdjustmentFactorFunction = h -> Hull.getCrossSectionalAreaAdjustmentFactor(h, 1.0);
 
     /**
      * @param x the start x position of the section's profile curve interval
@@ -123,7 +110,7 @@ public class HullSection extends Section
      */
     @JsonIgnore
     public double getVolume() {
-        return CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(), getCrossSectionalAreaFunction(), x, rx);
+        return CalculusUtils.integrate(getCrossSectionalAreaFunction(), x, rx);
     }
 
     /**
@@ -146,7 +133,7 @@ public class HullSection extends Section
      */
     @JsonIgnore
     public double getBulkheadVolume() {
-        return isFilledBulkhead ? CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(), getInnerCrossSectionalAreaFunction(), x, rx) : 0;
+        return isFilledBulkhead ? CalculusUtils.integrate(getInnerCrossSectionalAreaFunction(), x, rx) : 0;
     }
 
     /**
@@ -164,7 +151,7 @@ public class HullSection extends Section
      */
     @JsonIgnore
     public double getConcreteVolume() {
-        return CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(), getConcreteCrossSectionalAreaFunction(), x, rx);
+        return CalculusUtils.integrate(getConcreteCrossSectionalAreaFunction(), x, rx);
     }
 
     /**
@@ -183,7 +170,7 @@ public class HullSection extends Section
      */
     @JsonIgnore
     public double getMass() {
-        return CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(), getMassDistributionFunction(), x, rx);
+        return CalculusUtils.integrate(getMassDistributionFunction(), x, rx);
     }
 
 
@@ -203,7 +190,7 @@ public class HullSection extends Section
      */
     @JsonIgnore
     public double getWeight() {
-        return CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(), getWeightDistributionFunction().getPieces().get(this), x, rx);
+        return CalculusUtils.integrate(getWeightDistributionFunction().getPieces().get(this), x, rx);
     }
 
     /**
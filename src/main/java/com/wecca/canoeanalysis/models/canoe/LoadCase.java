@@ -0,0 +1,18 @@
+package com.wecca.canoeanalysis.models.canoe;
+
+import com.wecca.canoeanalysis.models.data.SolveType;
+import com.wecca.canoeanalysis.models.load.Load;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * A set of external loads on the hull together with how the canoe is supported
+ * The supports or buoyancy are solved for when the case is analyzed, so they are not part of the loads
+ */
+@Data @AllArgsConstructor
+public class LoadCase {
+    String name;
+    SolveType solveType; // STANDS or FLOATING
+    List<Load> loads; // external loads only (i.e. paddlers, cargo)
+}
@@ -0,0 +1,31 @@
+package com.wecca.canoeanalysis.models.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The analyses a headless batch run can perform on each model, see BatchAnalysisService
+ * Analyses that need a solved canoe (everything past SOLVE) solve it first whether or not SOLVE was chosen
+ */
+@Getter @AllArgsConstructor
+public enum BatchAnalysis {
+    PROPERTIES("properties"), // hull length, volumes and mass
+    SOLVE("solve"), // supports or floating waterline
+    DIAGRAMS("diagrams"), // max shear and moment
+    STRESS("stress"), // max bending stress and the most critical section
+    DEFLECTION("deflection"), // max deflection
+    ENVELOPE("envelope"); // failure envelope over the default load cases, the slowest by far
+
+    private final String argument;
+
+    /**
+     * @param argument the command-line name of the analysis
+     * @return the analysis
+     */
+    public static BatchAnalysis fromArgument(String argument) {
+        for (BatchAnalysis analysis : values()) {
+            if (analysis.argument.equalsIgnoreCase(argument.trim())) return analysis;
+        }
+        throw new IllegalArgumentException("Unknown analysis: " + argument);
+    }
+}
@@ -0,0 +1,23 @@
+package com.wecca.canoeanalysis.models.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * How a headless batch run analyzes its model files, derive variants of the defaults with the withers
+ */
+@Getter @With @AllArgsConstructor
+public class BatchOptions {
+
+    public static final BatchOptions DEFAULT = new BatchOptions(EnumSet.of(BatchAnalysis.PROPERTIES, BatchAnalysis.SOLVE, BatchAnalysis.DIAGRAMS),
+            null, Runtime.getRuntime().availableProcessors(), true, BatchOutputFormat.CSV);
+
+    private final Set<BatchAnalysis> analyses;
+    private final SolveType solveType; // null to solve each canoe the way it was saved
+    private final int threads; // model files analyzed at once
+    private final boolean useResultCache; // see ResultCacheService
+    private final BatchOutputFormat format;
+}
@@ -0,0 +1,17 @@
+package com.wecca.canoeanalysis.models.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Output formats of a headless batch run, see BatchAnalysisService
+ * CSV: a header of every BatchResult column then one row per model file, empty cells for values that were not computed
+ * JSON: an array of one object per model file, values that were not computed are left out
+ */
+@Getter @AllArgsConstructor
+public enum BatchOutputFormat {
+    CSV("csv"),
+    JSON("json");
+
+    private final String extension;
+}
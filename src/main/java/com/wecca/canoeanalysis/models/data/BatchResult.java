@@ -0,0 +1,46 @@
+package com.wecca.canoeanalysis.models.data;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The results of a headless batch run for one model file, one CSV row or JSON object
+ * Values of analyses that were not run (or did not apply) are left null, and written as empty cells or left out
+ */
+@Data @NoArgsConstructor
+public class BatchResult {
+    private String file;
+    private String model; // Canoe or Hull
+    private String error; // null if every analysis succeeded
+    private Long timeMs;
+
+    // PROPERTIES
+    private Double length; // [m]
+    private Double totalVolume; // [m^3]
+    private Double concreteVolume; // [m^3]
+    private Double mass; // [kg]
+
+    // SOLVE
+    private SolveType solveType;
+    private Double waterline; // [m]
+    private Double theta; // [°]
+    private Boolean tippedOver;
+
+    // DIAGRAMS
+    private Double maxShear; // [kN]
+    private Double maxMoment; // [kN·m]
+
+    // STRESS
+    private Double maxStress; // [kPa]
+    private Double criticalSectionX; // [m]
+
+    // DEFLECTION
+    private Double maxDeflection; // [m]
+
+    // ENVELOPE
+    private Integer loadCases;
+    private Integer unsolvedLoadCases;
+    private Double envelopeMaxShear; // [kN]
+    private Double envelopeMaxMoment; // [kN·m]
+    private Double envelopeMaxStress; // [kPa]
+}
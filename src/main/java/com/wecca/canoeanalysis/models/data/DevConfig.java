@@ -3,6 +3,7 @@ package com.wecca.canoeanalysis.models.data;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
+import java.util.Map;
 
 @Data
 public class DevConfig {
@@ -10,10 +11,25 @@ public class DevConfig {
     private boolean tracing;
     @JsonProperty("debouncing")
     private boolean debouncing;
+    @JsonProperty("traceArguments")
+    private boolean traceArguments;
+    @JsonProperty("metrics")
+    private boolean metrics;
+    @JsonProperty("traceSampling")
+    private TraceSampling traceSampling;
+    @JsonProperty("traceMethodSampling")
+    private Map<String, TraceSampling> traceMethodSampling;
 
     @JsonCreator
-    public DevConfig(@JsonProperty("tracing") boolean tracing, @JsonProperty("debouncing") boolean debouncing) {
+    public DevConfig(@JsonProperty("tracing") boolean tracing, @JsonProperty("debouncing") boolean debouncing,
+                     @JsonProperty("traceArguments") boolean traceArguments, @JsonProperty("metrics") boolean metrics,
+                     @JsonProperty("traceSampling") TraceSampling traceSampling,
+                     @JsonProperty("traceMethodSampling") Map<String, TraceSampling> traceMethodSampling) {
         this.tracing = tracing;
         this.debouncing = debouncing;
+        this.traceArguments = traceArguments;
+        this.metrics = metrics;
+        this.traceSampling = traceSampling == null ? new TraceSampling(1, 0L, 0) : traceSampling;
+        this.traceMethodSampling = traceMethodSampling == null ? Map.of() : traceMethodSampling;
     }
 }
@@ -0,0 +1,39 @@
+package com.wecca.canoeanalysis.models.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+
+/**
+ * The accuracy vs. speed knobs of the numerical methods, read by CalculusUtils, DiagramService and BeamSolverService
+ * Immutable so that a configuration can be swapped in atomically while workers are computing, derive variants with the withers
+ * ------------------------------------------------------------------------------------------------
+ * Tune these against the golden references with the AccuracyHarness (benchmark profile) rather than by eye,
+ * the defaults were tweaked for a fair balance of rendering speed and accuracy
+ */
+@Getter @With @AllArgsConstructor
+public class NumericalSettings {
+
+    public static final NumericalSettings DEFAULT = new NumericalSettings(1e-4, 1e-8, 5, 16, 100, 100, 1e-6, 1000);
+
+    // SimpsonIntegrator, the iteration counts must satisfy 0 < min < max <= 64
+    private final double integratorRelativeAccuracy;
+    private final double integratorAbsoluteAccuracy;
+    private final int integratorMinIterations;
+    private final int integratorMaxIterations;
+
+    // Sampling grids, in points (or intervals) per metre of hull length
+    private final int diagramGridResolution; // x values tested for loads starting / ending when building the SFD, only loads on the grid are seen
+    private final int selfWeightIntervalsPerMetre; // discretization of the hull's self-weight for the stand solver
+
+    // 2D Newton-Raphson floating solver
+    private final double solverTolerance; // [kN] and [kN·m], on both the net force and net moment
+    private final int solverMaxIterations;
+
+    @Override
+    public String toString() {
+        return String.format("simpson(rel=%.0e, abs=%.0e, iter=%d..%d), grid=%d/m, selfWeight=%d/m, newton(tol=%.0e, max=%d)",
+                integratorRelativeAccuracy, integratorAbsoluteAccuracy, integratorMinIterations, integratorMaxIterations,
+                diagramGridResolution, selfWeightIntervalsPerMetre, solverTolerance, solverMaxIterations);
+    }
+}
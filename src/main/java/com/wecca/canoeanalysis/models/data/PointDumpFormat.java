@@ -0,0 +1,17 @@
+package com.wecca.canoeanalysis.models.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * File formats for bulk numeric dumps of points from LoggerService
+ * CSV: an "x,y" header then one point per line
+ * BINARY: an int count then count (x, y) pairs of big-endian doubles
+ */
+@Getter @AllArgsConstructor
+public enum PointDumpFormat {
+    CSV("csv"),
+    BINARY("bin");
+
+    private final String extension;
+}
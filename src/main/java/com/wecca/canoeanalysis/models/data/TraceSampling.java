@@ -0,0 +1,30 @@
+package com.wecca.canoeanalysis.models.data;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * Which calls of a traced method are recorded, any property left out falls back to the next level of config
+ * Method entries in dev-config.yaml > @Traceable on the method > @Traceable on the class > defaults in dev-config.yaml
+ */
+@Data
+public class TraceSampling {
+    // Record 1 in N calls
+    @JsonProperty("sampleRate")
+    private Integer sampleRate;
+    // Record only calls taking at least this long
+    @JsonProperty("thresholdMicros")
+    private Long thresholdMicros;
+    // Record at most this many calls per second, 0 for no limit
+    @JsonProperty("budgetPerSecond")
+    private Integer budgetPerSecond;
+
+    @JsonCreator
+    public TraceSampling(@JsonProperty("sampleRate") Integer sampleRate, @JsonProperty("thresholdMicros") Long thresholdMicros,
+                         @JsonProperty("budgetPerSecond") Integer budgetPerSecond) {
+        this.sampleRate = sampleRate;
+        this.thresholdMicros = thresholdMicros;
+        this.budgetPerSecond = budgetPerSecond;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
 import com.wecca.canoeanalysis.utils.CalculusUtils;
 import javafx.geometry.Point2D;
 import lombok.AccessLevel;
@@ -20,6 +21,9 @@ import java.util.List;
 
 /**
  * A Cubic Bézier curve that passes the vertical line test, therefore can be represented as a function.
+ * Evaluation is stateless and thread-safe, the curve holds only its points and the root solver used to invert x(t)
+ * is per thread rather than per curve, so one curve (and a hull of them) can be shared by concurrent computations
+ * as long as no thread mutates its points meanwhile (see Hull.derive())
  */
 @Getter @Setter @EqualsAndHashCode
 public class CubicBezierFunction implements ParameterizedBoundedUnivariateFunction {
@@ -43,8 +47,9 @@ public class CubicBezierFunction implements ParameterizedBoundedUnivariateFuncti
 
     @JsonIgnore
     private final FunctionType type = FunctionType.CUBIC_BEZIER_FUNCTION;
-    @JsonIgnore
-    private final UnivariateSolver solver = new BrentSolver(1e-6);
+
+    // Commons math solvers hold the state of the solve in progress, so each thread gets its own instance
+    private static final ThreadLocal<UnivariateSolver> solver = ThreadLocal.withInitial(() -> new BrentSolver(1e-6));
 
     @JsonIgnore @Getter(AccessLevel.NONE)
     private final double T_MIN = 0.0;
@@ -153,10 +158,11 @@ public class CubicBezierFunction implements ParameterizedBoundedUnivariateFuncti
 
         // Define and root-solve the function for which we want to find the root:
         // f(t) = (rounded Bézier x-value at t) - (rounded target x)
+        MetricsService.BEZIER_INVERSIONS.increment();
         double finalRoundedX = roundedX;
         UnivariateFunction xFunc = t -> CalculusUtils.roundXDecimalDigits(getCubicBezierCurve2D().point(t).x(), 6) - finalRoundedX;
         try {
-            return solver.solve(MaxEval.unlimited().getMaxEval(), xFunc, T_MIN, T_MAX);
+            return solver.get().solve(MaxEval.unlimited().getMaxEval(), xFunc, T_MIN, T_MAX);
         }
         catch (Exception e) {
             throw new RuntimeException("Failed to solve for t given x = " + roundedX + " within bounds [" + roundedMin + ", " + roundedMax + "]", e);
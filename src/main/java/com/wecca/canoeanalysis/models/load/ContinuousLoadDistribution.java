@@ -6,7 +6,6 @@ import com.wecca.canoeanalysis.models.function.Section;
 import com.wecca.canoeanalysis.utils.CalculusUtils;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import org.apache.commons.math3.optim.MaxEval;
 import java.util.*;
 
 @Getter @EqualsAndHashCode(callSuper = true)
@@ -28,7 +27,7 @@ public class ContinuousLoadDistribution extends PiecewiseContinuousLoadDistribut
 
     @Override
     public double getForce() {
-        return CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(), pieces.get(section), section.getX(), section.getRx());
+        return CalculusUtils.integrate(pieces.get(section), section.getX(), section.getRx());
     }
 
     @Override
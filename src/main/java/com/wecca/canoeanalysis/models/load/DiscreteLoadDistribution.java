@@ -29,6 +29,14 @@ public class DiscreteLoadDistribution extends LoadDistribution {
         this.loads = loads;
     }
 
+    /**
+     * Copy constructor for deep cloning.
+     * @param src the source DiscreteLoadDistribution to copy
+     */
+    public DiscreteLoadDistribution(DiscreteLoadDistribution src) {
+        this(src.type, src.loads.stream().map(UniformLoadDistribution::new).toList());
+    }
+
     /**
      * @return the maximum child dLoad value
      */
@@ -11,7 +11,6 @@ import com.wecca.canoeanalysis.utils.CalculusUtils;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.math3.optim.MaxEval;
 import java.util.*;
 
 @Getter @Setter @EqualsAndHashCode(callSuper = true)
@@ -82,8 +81,7 @@ public class PiecewiseContinuousLoadDistribution extends LoadDistribution {
     @Override
     public double getForce() {
         return pieces.entrySet().stream().mapToDouble
-                (piece -> CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(),
-                        piece.getValue(), piece.getKey().getX(), piece.getKey().getRx())).sum();
+                (piece -> CalculusUtils.integrate(piece.getValue(), piece.getKey().getX(), piece.getKey().getRx())).sum();
     }
 
     @Override
@@ -112,8 +110,7 @@ public class PiecewiseContinuousLoadDistribution extends LoadDistribution {
     @Override @Traceable
     public double getMoment(double rotationX) {
         return pieces.entrySet().stream().mapToDouble(piece ->
-                CalculusUtils.integrator.integrate(MaxEval.unlimited().getMaxEval(),
-                x -> piece.getValue().value(x) * (x - rotationX),
+                CalculusUtils.integrate(x -> piece.getValue().value(x) * (x - rotationX),
                 piece.getKey().getX(), piece.getKey().getRx())
         ).sum();
     }
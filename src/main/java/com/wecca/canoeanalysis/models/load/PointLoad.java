@@ -39,6 +39,14 @@ public class PointLoad extends Load
         this(LoadType.POINT_LOAD, force, x, isSupport);
     }
 
+    /**
+     * Copy constructor for deep cloning.
+     * @param src the source PointLoad to copy
+     */
+    public PointLoad(PointLoad src) {
+        this(src.type, src.force, src.x, src.isSupport);
+    }
+
     @Override @JsonIgnore
     public double getMaxSignedValue() {
         return getForce();
@@ -32,6 +32,14 @@ public class UniformLoadDistribution extends LoadDistribution {
         this(LoadType.UNIFORM_LOAD_DISTRIBUTION, magnitude, x, rx);
     }
 
+    /**
+     * Copy constructor for deep cloning.
+     * @param src the source UniformLoadDistribution to copy
+     */
+    public UniformLoadDistribution(UniformLoadDistribution src) {
+        this(src.type, src.magnitude, src.section.getX(), src.section.getRx());
+    }
+
     @JsonIgnore
     public double getForce() {
         return magnitude * section.getLength();
@@ -0,0 +1,317 @@
+package com.wecca.canoeanalysis.services;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wecca.canoeanalysis.models.canoe.*;
+import com.wecca.canoeanalysis.models.data.BatchAnalysis;
+import com.wecca.canoeanalysis.models.data.BatchOptions;
+import com.wecca.canoeanalysis.models.data.BatchResult;
+import com.wecca.canoeanalysis.models.data.NumericalSettings;
+import com.wecca.canoeanalysis.models.data.SolveType;
+import com.wecca.canoeanalysis.models.load.LoadType;
+import com.wecca.canoeanalysis.models.load.PiecewiseContinuousLoadDistribution;
+import com.wecca.canoeanalysis.models.load.PointLoad;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import javafx.geometry.Point2D;
+import lombok.extern.slf4j.Slf4j;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch analysis of a folder of canoe and hull files, for checking every design at once (i.e. in CI) and for sweeps
+ * Uses only the model services, so it runs without the JavaFX toolkit or any controller, see BatchMain for the command line
+ * ------------------------------------------------------------------------------------------------
+ * Files are analyzed concurrently, each on its own models, and results are streamed out in file order as they complete
+ * A canoe is solved the way it was saved unless a solve type is forced: floating, or on stands
+ * A hull is put in an unloaded canoe, and an unsolved canoe floats (or rests on stands if it is just the default beam)
+ * A file that can't be read or solved gets a row with its error instead of stopping the run
+ */
+@Slf4j
+public class BatchAnalysisService {
+
+    public static final List<String> MODEL_FILE_EXTENSIONS = List.of(".yaml", ".yml", MarshallingService.PROJECT_FILE_EXTENSION);
+
+    // Writes every column so the CSV header is complete, JSON leaves out what was not computed
+    private static final ObjectMapper csvMapper = new ObjectMapper();
+    private static final ObjectMapper jsonMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    /**
+     * @param directory the folder to search
+     * @param recursive whether to search sub folders too
+     * @return the model files in the folder, sorted by path so runs are repeatable
+     */
+    public static List<Path> findModelFiles(Path directory, boolean recursive) throws IOException {
+        if (!Files.isDirectory(directory)) throw new IOException("Not a directory: " + directory);
+        try (Stream<Path> paths = recursive ? Files.walk(directory) : Files.list(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> MODEL_FILE_EXTENSIONS.stream().anyMatch(extension -> path.getFileName().toString().toLowerCase().endsWith(extension)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Analyze model files concurrently, streaming a result per file to the output in file order
+     * @param files the canoe and hull files
+     * @param options the analyses, solve type, threads and output format
+     * @param output where results are written, flushed after every file and left open
+     * @return the number of files that failed
+     */
+    public static int run(List<Path> files, BatchOptions options, OutputStream output) throws IOException {
+        if (options.getThreads() < 1) throw new IllegalArgumentException("Batch runs need at least one thread");
+        int numFailed = 0;
+        // Workers analyze with the settings in use when the run started, even if they are replaced meanwhile
+        NumericalSettings settings = CalculusUtils.getNumericalSettings();
+        try (ResultWriter writer = switch (options.getFormat()) {
+                case CSV -> new CsvResultWriter(output);
+                case JSON -> new JsonResultWriter(output);
+            };
+             ExecutorService executor = Executors.newFixedThreadPool(options.getThreads())) {
+            List<Future<BatchResult>> results = new ArrayList<>();
+            for (Path file : files) {
+                results.add(executor.submit(() -> analyze(file, options, settings)));
+            }
+            for (Future<BatchResult> future : results) {
+                BatchResult result = future.get();
+                if (result.getError() != null) numFailed++;
+                writer.write(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch run interrupted");
+        } catch (ExecutionException e) {
+            // analyze() reports its failures in the result, so only errors such as running out of memory get here
+            throw new RuntimeException(e.getCause());
+        }
+        return numFailed;
+    }
+
+    /**
+     * Run the chosen analyses on one file
+     * @param file a canoe or hull file
+     * @param options the analyses and solve type
+     * @return the results, with the error set if the file could not be read or analyzed
+     */
+    public static BatchResult analyze(Path file, BatchOptions options) {
+        return analyze(file, options, CalculusUtils.getNumericalSettings());
+    }
+
+    /**
+     * Run the chosen analyses on one file with the given numerical settings
+     * @param file a canoe or hull file
+     * @param options the analyses and solve type
+     * @param settings the numerical settings to analyze with
+     * @return the results, with the error set if the file could not be read or analyzed
+     */
+    public static BatchResult analyze(Path file, BatchOptions options, NumericalSettings settings) {
+        BatchResult result = new BatchResult();
+        result.setFile(file.toString());
+        long startNs = System.nanoTime();
+        try {
+            String model = MarshallingService.readModelName(file.toFile());
+            result.setModel(model);
+            Canoe canoe;
+            if (model.equals(Canoe.class.getSimpleName()))
+                canoe = MarshallingService.readAdjustedCanoe(file.toFile());
+            else if (model.equals(Hull.class.getSimpleName())) {
+                canoe = new Canoe();
+                canoe.setHull(MarshallingService.readModel(file.toFile(), Hull.class));
+            }
+            else throw new IOException("Unsupported model: " + model);
+            AnalysisContext context = new AnalysisContext(canoe.getHull(), settings);
+            context.call(() -> {
+                analyze(context, canoe, options, result);
+                return null;
+            });
+        } catch (Exception e) {
+            // Parser messages span several lines with a source excerpt, the first line says what went wrong
+            result.setError(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage().lines().findFirst().orElse(""));
+            log.debug("Batch analysis of {} failed", file, e);
+        }
+        result.setTimeMs((System.nanoTime() - startNs) / 1_000_000);
+        return result;
+    }
+
+    private static void analyze(AnalysisContext context, Canoe canoe, BatchOptions options, BatchResult result) {
+        Set<BatchAnalysis> analyses = options.getAnalyses();
+        Hull hull = context.getHull();
+        if (analyses.contains(BatchAnalysis.PROPERTIES)) {
+            result.setLength(hull.getLength());
+            result.setTotalVolume(hull.getTotalVolume());
+            result.setConcreteVolume(hull.getConcreteVolume());
+            result.setMass(hull.getMass());
+        }
+
+        // The envelope solves its own load cases, everything else works on this canoe solved
+        boolean needsDiagrams = analyses.contains(BatchAnalysis.DIAGRAMS) || analyses.contains(BatchAnalysis.STRESS)
+                || analyses.contains(BatchAnalysis.DEFLECTION);
+        if (needsDiagrams || analyses.contains(BatchAnalysis.SOLVE)) {
+            Canoe solvedCanoe = solve(canoe, options, result);
+            if (needsDiagrams) analyzeDiagrams(solvedCanoe, options, result);
+        }
+
+        if (analyses.contains(BatchAnalysis.ENVELOPE)) {
+            List<LoadCase> loadCases = FailureEnvelopeService.generateLoadCases(canoe);
+            FailureEnvelope envelope = FailureEnvelopeService.solveFailureEnvelope(context, loadCases, progress -> {}, () -> false);
+            result.setLoadCases(loadCases.size());
+            result.setUnsolvedLoadCases(envelope.getUnsolvedLoadCases().size());
+            result.setEnvelopeMaxShear(maxAbs(envelope.getMaxShear(), envelope.getMinShear()));
+            result.setEnvelopeMaxMoment(maxAbs(envelope.getMaxMoment(), envelope.getMinMoment()));
+            result.setEnvelopeMaxStress(maxAbs(envelope.getMaxStress(), envelope.getMinStress()));
+        }
+    }
+
+    /**
+     * Solve a copy of the canoe, replacing any supports or buoyancy it was saved with
+     * @return the solved copy
+     */
+    private static Canoe solve(Canoe canoe, BatchOptions options, BatchResult result) {
+        Canoe solvedCanoe = new Canoe(canoe);
+        solvedCanoe.getLoads().removeIf(load -> load.getType() == LoadType.POINT_LOAD_SUPPORT || load.getType() == LoadType.BUOYANCY);
+
+        SolveType solveType = options.getSolveType() != null ? options.getSolveType() : canoe.getSolveType();
+        if (solveType == SolveType.UNSOLVED) solveType = solvedCanoe.getHull().getWeight() == 0 ? SolveType.STANDS : SolveType.FLOATING;
+        solvedCanoe.setSolveType(solveType);
+        result.setSolveType(solveType);
+
+        if (solveType == SolveType.STANDS) {
+            for (PointLoad support : BeamSolverService.solveStandSystem(solvedCanoe)) {
+                solvedCanoe.addLoad(support);
+            }
+        }
+        else {
+            if (solvedCanoe.getHull().getWeight() == 0)
+                throw new IllegalArgumentException("Cannot solve for buoyancy without a hull");
+            FloatingSolution solution = options.isUseResultCache()
+                    ? ResultCacheService.solveFloatingSystem(solvedCanoe)
+                    : BeamSolverService.solveFloatingSystem(solvedCanoe);
+            if (solution == null) throw new RuntimeException("Buoyancy solver could not converge to a solution");
+            result.setWaterline(solution.getSolvedH());
+            result.setTheta(solution.getSolvedTheta());
+            result.setTippedOver(solution.isTippedOver());
+            PiecewiseContinuousLoadDistribution buoyancy = solution.getSolvedBuoyancy();
+            if (buoyancy.getForce() != 0) solvedCanoe.addLoad(buoyancy);
+        }
+        return solvedCanoe;
+    }
+
+    private static void analyzeDiagrams(Canoe solvedCanoe, BatchOptions options, BatchResult result) {
+        CachedSolution diagrams;
+        if (options.isUseResultCache()) diagrams = ResultCacheService.getDiagrams(solvedCanoe);
+        else {
+            List<Point2D> sfdPoints = DiagramService.generateSfdPoints(solvedCanoe);
+            diagrams = new CachedSolution();
+            diagrams.setDiagrams(sfdPoints, DiagramService.generateBmdPoints(solvedCanoe, sfdPoints));
+        }
+        List<Point2D> bmdPoints = diagrams.getBmdPoints();
+
+        if (options.getAnalyses().contains(BatchAnalysis.DIAGRAMS)) {
+            result.setMaxShear(diagrams.getMaxAbsShear());
+            result.setMaxMoment(diagrams.getMaxAbsMoment());
+        }
+
+        if (options.getAnalyses().contains(BatchAnalysis.STRESS)) {
+            BendingStressSolution solution = CriticalSectionService.solveBendingStress(solvedCanoe, bmdPoints);
+            if (!solution.getCriticalSections().isEmpty()) {
+                CriticalSection mostCritical = solution.getCriticalSections().getFirst();
+                result.setMaxStress(Math.abs(mostCritical.getStress()));
+                result.setCriticalSectionX(mostCritical.getX());
+            }
+        }
+
+        if (options.getAnalyses().contains(BatchAnalysis.DEFLECTION)) {
+            DeflectionSolution solution = DiagramService.generateDeflectionSolution(solvedCanoe, bmdPoints);
+            result.setMaxDeflection(Arrays.stream(solution.getDeflection()).map(Math::abs).max().orElse(0));
+        }
+    }
+
+    private static double maxAbs(double[] maxValues, double[] minValues) {
+        double maxAbs = 0;
+        for (int i = 0; i < maxValues.length; i++) {
+            maxAbs = Math.max(maxAbs, Math.max(Math.abs(maxValues[i]), Math.abs(minValues[i])));
+        }
+        return maxAbs;
+    }
+
+    /**
+     * Streams results out one at a time
+     */
+    private interface ResultWriter extends Closeable {
+        void write(BatchResult result) throws IOException;
+    }
+
+    /**
+     * A header of every column, then one row per result with empty cells for nulls
+     */
+    private static class CsvResultWriter implements ResultWriter {
+        private final Writer writer;
+        private boolean hasHeader;
+
+        private CsvResultWriter(OutputStream output) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void write(BatchResult result) throws IOException {
+            JsonNode row = csvMapper.valueToTree(result);
+            if (!hasHeader) {
+                writer.write(String.join(",", (Iterable<String>) row::fieldNames));
+                writer.write(System.lineSeparator());
+                hasHeader = true;
+            }
+            StringJoiner cells = new StringJoiner(",");
+            row.elements().forEachRemaining(cell -> cells.add(cell.isNull() ? "" : escape(cell.asText())));
+            writer.write(cells.toString());
+            writer.write(System.lineSeparator());
+            writer.flush();
+        }
+
+        private static String escape(String cell) {
+            if (cell.indexOf(',') == -1 && cell.indexOf('"') == -1 && cell.indexOf('\n') == -1 && cell.indexOf('\r') == -1) return cell;
+            return '"' + cell.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * A JSON array written one element at a time
+     */
+    private static class JsonResultWriter implements ResultWriter {
+        private final JsonGenerator generator;
+
+        private JsonResultWriter(OutputStream output) throws IOException {
+            this.generator = jsonMapper.getFactory().createGenerator(output)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setPrettyPrinter(new DefaultPrettyPrinter());
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(BatchResult result) throws IOException {
+            jsonMapper.writeValue(generator, result);
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.writeRaw(System.lineSeparator());
+            generator.close();
+        }
+    }
+}
@@ -2,17 +2,21 @@ package com.wecca.canoeanalysis.services;
 
 import Jama.Matrix;
 import com.wecca.canoeanalysis.aop.TraceIgnore;
+import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.aop.jfr.NewtonIterationEvent;
+import com.wecca.canoeanalysis.aop.jfr.SolverEvent;
 import com.wecca.canoeanalysis.models.canoe.Canoe;
 import com.wecca.canoeanalysis.models.canoe.FloatingSolution;
 import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.data.NumericalSettings;
 import com.wecca.canoeanalysis.models.function.BoundedUnivariateFunction;
 import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
 import com.wecca.canoeanalysis.models.function.Section;
 import com.wecca.canoeanalysis.models.load.*;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
 import com.wecca.canoeanalysis.utils.CalculusUtils;
 import com.wecca.canoeanalysis.utils.PhysicalConstants;
 import org.apache.commons.math3.analysis.BivariateFunction;
-import org.apache.commons.math3.optim.MaxEval;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +24,7 @@ import java.util.List;
 /**
  * Solves load cases
  */
+@Traceable(event = SolverEvent.class)
 public class BeamSolverService {
 
     /**
@@ -33,8 +38,8 @@ public class BeamSolverService {
         // Transform the distributed loads into point loads
         if (canoe.getHull() != null && canoe.getHull().getSelfWeightDistribution() != null)
             pointLoads.addAll(distributedToPoint(canoe.getHull().getSelfWeightDistributionDiscretized().getLoads()));
-        pointLoads.addAll(distributedToPoint(canoe.getAllLoadsOfType(UniformLoadDistribution.class)));
-        pointLoads.addAll(canoe.getAllLoadsOfType(PointLoad.class));
+        pointLoads.addAll(distributedToPoint(canoe.getExternalLoadsOfType(UniformLoadDistribution.class)));
+        pointLoads.addAll(canoe.getExternalLoadsOfType(PointLoad.class));
 
         // Find the sum of moments from the start and the total magnitude of combined point loads
         double momentSum = 0;
@@ -108,13 +113,20 @@ public class BeamSolverService {
         // Solve for the equilibrium waterline and get the buoyancy force distribution at that waterline
         double[] waterLine = getEquilibriumWaterLine(canoe);
         if (waterLine == null) return null;
-        else {
-            double h = waterLine[0];
-            double theta = waterLine[1];
-            double hTilt = (canoe.getHull().getLength() / 2) * Math.tan(Math.toRadians(theta));
-            boolean isTippedOver =  Math.abs(hTilt) >= Math.abs(h);
-            return new FloatingSolution(getBuoyancyForceDistribution(h, theta, canoe), h, theta, isTippedOver);
-        }
+        else return getFloatingSolution(canoe, waterLine[0], waterLine[1]);
+    }
+
+    /**
+     * Build the floating solution at an already known equilibrium waterline (i.e. from the result cache) without solving for it
+     * @param canoe the canoe the waterline was solved for
+     * @param h the height of the waterline
+     * @param theta the angle of the waterline in degrees
+     * @return the floating solution at the waterline
+     */
+    public static FloatingSolution getFloatingSolution(Canoe canoe, double h, double theta) {
+        double hTilt = (canoe.getHull().getLength() / 2) * Math.tan(Math.toRadians(theta));
+        boolean isTippedOver =  Math.abs(hTilt) >= Math.abs(h);
+        return new FloatingSolution(getBuoyancyForceDistribution(h, theta, canoe), h, theta, isTippedOver);
     }
 
     /**
@@ -158,8 +170,7 @@ public class BeamSolverService {
         for (CubicBezierFunction seg : hull.getSideViewSegments()) {
             double xStart = seg.getX1();
             double xEnd = seg.getX2();
-            totalVolume += CalculusUtils.integrator.integrate(
-                    MaxEval.unlimited().getMaxEval(),
+            totalVolume += CalculusUtils.integrate(
                     getSubmergedCrossSectionalAreaFunction(waterline, theta, rotationX, hull),
                     xStart, xEnd);
         }
@@ -196,8 +207,7 @@ public class BeamSolverService {
         for (CubicBezierFunction seg : hull.getSideViewSegments()) {
             double xStart = seg.getX1();
             double xEnd = seg.getX2();
-            totalMoment += CalculusUtils.integrator.integrate(
-                    MaxEval.unlimited().getMaxEval(),
+            totalMoment += CalculusUtils.integrate(
                     x -> {
                         double xSec = submergedArea.value(x);
                         double buoyantForceAtX = xSec * PhysicalConstants.DENSITY_OF_WATER.getValue() * PhysicalConstants.GRAVITY.getValue() / 1000.0;
@@ -255,7 +265,8 @@ public class BeamSolverService {
         // Initial guesses for h and theta
         double h = (minWaterLine + maxWaterLine) / 2.0;
         double theta = 0.0;
-        double tolerance = 1e-6;
+        NumericalSettings settings = CalculusUtils.getNumericalSettings();
+        double tolerance = settings.getSolverTolerance();
         double regularization = 1e-6;
 
         // [F(h, theta) M(h, theta)] = [0, 0] (move everything in the force and moment equations to one side)
@@ -263,11 +274,14 @@ public class BeamSolverService {
         BivariateFunction momentBalance = (hGuess, thetaGuess) -> getBuoyancyMomentOnHull(hGuess, thetaGuess, canoe.getHull()) + netMoment;
 
         // Iterate using 2D Newton-Raphson algorithm to solve for both h and theta
-        int maxIterations = 1000;
+        int maxIterations = settings.getSolverMaxIterations();
         for (int iter = 0; iter < maxIterations; iter++) {
+            ComputeScheduler.checkCancelled();
 
             double systemNetForce = forceBalance.value(h, theta);
             double systemNetMoment = momentBalance.value(h, theta);
+            NewtonIterationEvent.emit(iter, h, theta, systemNetForce, systemNetMoment);
+            MetricsService.SOLVER_ITERATIONS.increment();
 
             // Check if the solution is within tolerance for both force and moment balance
             if (Math.abs(systemNetForce) < tolerance && Math.abs(systemNetMoment) < tolerance)
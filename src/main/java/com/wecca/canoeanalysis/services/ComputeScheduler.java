@@ -0,0 +1,167 @@
+package com.wecca.canoeanalysis.services;
+
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import javafx.application.Platform;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs heavy computations (hull properties, floating solves, diagram generation) on a pool of worker threads
+ * so the JavaFX application thread never blocks on them
+ * ------------------------------------------------------------------------------------------------
+ * Jobs are submitted on a channel (i.e. "hull-properties") and tagged with a model version taken at submission,
+ * edits happen on the JavaFX thread so a later submission always reflects a newer model
+ * A newer job on a channel supersedes older ones: queued ones never start, running ones stop at their next
+ * checkCancelled() (every integration and solver iteration) and any result they still produce is discarded
+ * Only the newest result of a channel is delivered, on the JavaFX thread
+ * ------------------------------------------------------------------------------------------------
+ * Computations run concurrently with the UI, so they must work on their own copy of anything the UI edits in place
+ * (i.e. new Canoe(canoe), loads are edited in place while hulls are replaced rather than mutated, see Hull.derive())
+ */
+@Slf4j
+public class ComputeScheduler {
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+                Thread thread = new Thread(runnable, "compute-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final AtomicLong versionCounter = new AtomicLong();
+    private static final Map<String, Job<?>> latestJobs = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Job<?>> currentJob = new ThreadLocal<>();
+
+    static {
+        // Running jobs check in at every integration, wherever in the model layer it happens
+        CalculusUtils.setBeforeIntegration(ComputeScheduler::checkCancelled);
+    }
+
+    /**
+     * A submitted computation, stale once superseded by a newer job on its channel or cancelled
+     */
+    public static class Job<T> {
+        @Getter
+        private final String channel;
+        @Getter
+        private final long version;
+        private volatile boolean cancelled;
+        private Future<?> future;
+
+        private Job(String channel, long version) {
+            this.channel = channel;
+            this.version = version;
+        }
+
+        /**
+         * @return whether the job's result would no longer be delivered
+         */
+        public boolean isStale() {
+            return cancelled || latestJobs.get(channel) != this;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (future != null) future.cancel(false);
+        }
+    }
+
+    /**
+     * Run a computation in the background, superseding any earlier job on the same channel
+     * @param channel the kind of result, jobs on a channel replace each other
+     * @param computation the computation, run on a worker thread
+     * @param onResult called on the JavaFX thread with the result, unless superseded by then
+     * @param onError called on the JavaFX thread if the computation throws, unless superseded by then
+     * @param <T> the type of the result
+     * @return the job
+     */
+    public static <T> Job<T> submit(String channel, Callable<T> computation, Consumer<T> onResult, Consumer<Throwable> onError) {
+        Job<T> job = new Job<>(channel, versionCounter.incrementAndGet());
+        Job<?> previous = latestJobs.put(channel, job);
+        if (previous != null) previous.cancel();
+
+        job.future = workers.submit(() -> run(job, computation, onResult, onError));
+        return job;
+    }
+
+    /**
+     * Run a computation in the background, errors are logged
+     * @see #submit(String, Callable, Consumer, Consumer)
+     */
+    public static <T> Job<T> submit(String channel, Callable<T> computation, Consumer<T> onResult) {
+        return submit(channel, computation, onResult, e -> log.error("Background computation on {} failed", channel, e));
+    }
+
+    /**
+     * Cancel the job on a channel, if any, so its result is never delivered (i.e. the model it was computed for was replaced)
+     * @param channel the channel
+     * @return whether there was a job waiting to deliver its result
+     */
+    public static boolean cancel(String channel) {
+        Job<?> job = latestJobs.remove(channel);
+        if (job == null) return false;
+        job.cancel();
+        return true;
+    }
+
+    /**
+     * Stop the current computation if its job was superseded, call from long-running loops
+     * Does nothing outside of jobs (i.e. on the JavaFX thread or in parallel streams)
+     * @throws CancellationException if the job running on this thread is stale
+     */
+    public static void checkCancelled() {
+        Job<?> job = currentJob.get();
+        if (job != null && job.isStale())
+            throw new CancellationException(String.format("Job %d on %s was superseded", job.getVersion(), job.getChannel()));
+    }
+
+    private static <T> void run(Job<T> job, Callable<T> computation, Consumer<T> onResult, Consumer<Throwable> onError) {
+        if (job.isStale()) {
+            MetricsService.COMPUTE_STALE_JOBS.increment();
+            return;
+        }
+
+        currentJob.set(job);
+        try {
+            T result = computation.call();
+            deliver(job, () -> onResult.accept(result));
+        } catch (CancellationException e) {
+            MetricsService.COMPUTE_STALE_JOBS.increment();
+        } catch (Throwable t) {
+            deliver(job, () -> onError.accept(t));
+        } finally {
+            currentJob.remove();
+        }
+    }
+
+    /**
+     * Hand a result to the JavaFX thread, checking again once there as a newer job may have been submitted meanwhile
+     */
+    private static void deliver(Job<?> job, Runnable delivery) {
+        if (job.isStale()) {
+            MetricsService.COMPUTE_STALE_JOBS.increment();
+            return;
+        }
+        Platform.runLater(() -> {
+            if (job.isStale()) {
+                MetricsService.COMPUTE_STALE_JOBS.increment();
+                return;
+            }
+            latestJobs.remove(job.getChannel(), job);
+            MetricsService.COMPUTE_COMPLETED_JOBS.increment();
+            delivery.run();
+        });
+    }
+}
@@ -0,0 +1,170 @@
+package com.wecca.canoeanalysis.services;
+
+import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.models.canoe.BendingStressSolution;
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.CriticalSection;
+import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.function.BoundedUnivariateFunction;
+import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import com.wecca.canoeanalysis.utils.SectionPropertyMapEntry;
+import javafx.geometry.Point2D;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Bending stress analysis for the Critical Sections module
+ * The section modulus S(x) of the thin-walled hull is combined with the BMD to get the bending stress σ(x) = M(x) / S(x)
+ * Stations where |σ| peaks are ranked as the critical sections of the hull
+ */
+@Traceable
+public class CriticalSectionService {
+
+    private static final double STATION_SPACING = 0.01; // [m], same as the SFD grid
+    private static final int MAX_CRITICAL_SECTIONS = 5;
+    private static final double MIN_STRESS_SECTION_MODULUS_RATIO = 1e-2; // S is floored at this fraction of the max S when computing σ
+    static final double MIN_CRITICAL_SECTION_MODULUS_RATIO = 0.1; // sections smaller than this fraction of the max S are tip artifacts, also left out of the failure envelope
+
+    private static final int MAX_CACHED_PROFILES = 16;
+
+    // S(x) only depends on the hull geometry and properties, so the profiles of the last few hulls are kept by hull key
+    // Only lookups hold the lock, analyses of different hulls (i.e. batch workers) compute theirs concurrently
+    private static final Map<List<Object>, double[][]> sectionModulusProfiles = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, double[][]> eldest) {
+                    return size() > MAX_CACHED_PROFILES;
+                }
+            });
+
+    /**
+     * Solve for the bending stress at each station along the hull and rank the critical sections
+     * @param canoe the solved canoe (supports / buoyancy already added as loads)
+     * @return the bending stress solution
+     */
+    public static BendingStressSolution solveBendingStress(Canoe canoe) {
+        return solveBendingStress(canoe, DiagramService.generateBmdPoints(canoe));
+    }
+
+    /**
+     * Solve for the bending stress at each station along the hull and rank the critical sections
+     * @param canoe the solved canoe (supports / buoyancy already added as loads)
+     * @param bmdPoints the BMD points from DiagramService.generateBmdPoints for the same canoe
+     * @return the bending stress solution
+     */
+    public static BendingStressSolution solveBendingStress(Canoe canoe, List<Point2D> bmdPoints) {
+        double[][] sectionModulusProfile = getSectionModulusProfile(canoe.getHull());
+        double[] stations = sectionModulusProfile[0];
+        double[] sectionModulus = sectionModulusProfile[1];
+
+        // Unpack the BMD into primitive arrays to interpolate the moment at each station
+        double[][] bmdSamples = CalculusUtils.toSampleArrays(bmdPoints);
+        double[] bmdX = bmdSamples[0];
+        double[] bmdMoment = bmdSamples[1];
+
+        // σ = M / S, with S floored near the bow and stern for the same reason as EI (see DiagramService.MIN_FLEXURAL_RIGIDITY_RATIO)
+        int n = stations.length;
+        double maxSectionModulus = Arrays.stream(sectionModulus).max().orElse(0);
+        double minSectionModulus = maxSectionModulus * MIN_STRESS_SECTION_MODULUS_RATIO;
+        double[] moment = new double[n];
+        double[] stress = new double[n];
+        for (int i = 0; i < n; i++) {
+            moment[i] = CalculusUtils.interpolate(bmdX, bmdMoment, stations[i]);
+            double sectionModulusAtX = Math.max(sectionModulus[i], minSectionModulus);
+            stress[i] = sectionModulusAtX == 0 ? 0 : moment[i] / sectionModulusAtX;
+        }
+
+        return new BendingStressSolution(stations, moment, sectionModulus, stress,
+                rankCriticalSections(stations, moment, sectionModulus, stress, maxSectionModulus * MIN_CRITICAL_SECTION_MODULUS_RATIO));
+    }
+
+    /**
+     * Get S(x) sampled at each station, reusing the result for a hull with the same geometry and properties if there is one
+     * Stations are split into one chunk per core, all sampling the same hull
+     * @param hull the hull to get the section modulus for
+     * @return {stations, S(stations)}, new arrays the caller may modify
+     */
+    public static double[][] getSectionModulusProfile(Hull hull) {
+        List<Object> hullKey = getHullKey(hull);
+        double[][] profile = sectionModulusProfiles.get(hullKey);
+        if (profile == null) {
+            MetricsService.HULL_CACHE_MISSES.increment();
+            // Two threads missing on the same hull at once both compute it, the results are equal
+            profile = computeSectionModulusProfile(hull);
+            sectionModulusProfiles.put(hullKey, profile);
+        }
+        else MetricsService.HULL_CACHE_HITS.increment();
+        return new double[][] {profile[0].clone(), profile[1].clone()};
+    }
+
+    /**
+     * @param hull the hull to sample
+     * @return {stations, S(stations)}
+     */
+    private static double[][] computeSectionModulusProfile(Hull hull) {
+
+        double length = hull.getLength();
+        int n = (int) Math.ceil(length / STATION_SPACING) + 1;
+        double[] stations = new double[n];
+        double[] sectionModulus = new double[n];
+        for (int i = 0; i < n; i++) {
+            stations[i] = Math.min(i * STATION_SPACING, length);
+        }
+
+        int numChunks = Math.min(Runtime.getRuntime().availableProcessors(), n);
+        int chunkSize = (int) Math.ceil((double) n / numChunks);
+        BoundedUnivariateFunction s = hull.getSectionModulusFunction();
+        IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+            int end = Math.min(n, (chunk + 1) * chunkSize);
+            for (int i = chunk * chunkSize; i < end; i++) {
+                sectionModulus[i] = s.value(stations[i]);
+            }
+        });
+        return new double[][] {stations, sectionModulus};
+    }
+
+    /**
+     * Pick out the local peaks of |σ| and rank them, keeping the top few
+     * Plateaus (i.e. under a uniform moment) are reported once at their first station
+     * Stations near the bow and stern tips are skipped since the thin-walled idealization breaks down there
+     * @param minSectionModulus the smallest section modulus a station can have to be considered
+     * @return the critical sections sorted by descending absolute stress
+     */
+    private static List<CriticalSection> rankCriticalSections(double[] stations, double[] moment, double[] sectionModulus, double[] stress, double minSectionModulus) {
+        List<CriticalSection> peaks = new ArrayList<>();
+        for (int i = 0; i < stations.length; i++) {
+            double abs = Math.abs(stress[i]);
+            if (abs == 0 || sectionModulus[i] < minSectionModulus) continue;
+            boolean isLeftPeak = i == 0 || abs > Math.abs(stress[i - 1]);
+            boolean isRightPeak = i == stations.length - 1 || abs >= Math.abs(stress[i + 1]);
+            if (isLeftPeak && isRightPeak)
+                peaks.add(new CriticalSection(stations[i], moment[i], sectionModulus[i], stress[i]));
+        }
+        return peaks.stream()
+                .sorted(Comparator.comparingDouble((CriticalSection c) -> Math.abs(c.getStress())).reversed())
+                .limit(MAX_CRITICAL_SECTIONS)
+                .toList();
+    }
+
+    /**
+     * Everything S(x) depends on, flattened into a list with value equality
+     * A snapshot rather than the hull itself, so a hull edited in place can't change under its cached profile
+     * @param hull the hull to build the key for
+     * @return the key
+     */
+    private static List<Object> getHullKey(Hull hull) {
+        List<Object> key = new ArrayList<>();
+        for (CubicBezierFunction segment : hull.getSideViewSegments()) key.addAll(segment.getKnotAndControlPoints());
+        for (CubicBezierFunction segment : hull.getTopViewSegments()) key.addAll(segment.getKnotAndControlPoints());
+        // Map entries are mutable, so their values are copied rather than the entries themselves
+        for (List<SectionPropertyMapEntry> map : List.of(hull.getHullProperties().getThicknessMap(), hull.getHullProperties().getBulkheadMap())) {
+            for (SectionPropertyMapEntry entry : map) {
+                key.addAll(List.of(entry.getX(), entry.getRx(), entry.getValue()));
+            }
+            key.add(map.size()); // separates the thickness entries from the bulkhead entries
+        }
+        return key;
+    }
+}
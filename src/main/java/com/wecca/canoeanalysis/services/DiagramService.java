@@ -1,12 +1,19 @@
 package com.wecca.canoeanalysis.services;
 
 import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.aop.jfr.DiagramGenerationEvent;
+import com.wecca.canoeanalysis.components.diagrams.CanvasDiagram;
 import com.wecca.canoeanalysis.components.diagrams.FixedTicksNumberAxis;
 import com.wecca.canoeanalysis.components.diagrams.DiagramInterval;
+import com.wecca.canoeanalysis.components.diagrams.DiagramSeries;
 import com.wecca.canoeanalysis.services.color.ColorPaletteService;
 import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.DeflectionSolution;
+import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.function.BoundedUnivariateFunction;
 import com.wecca.canoeanalysis.models.load.*;
 import com.wecca.canoeanalysis.utils.CalculusUtils;
+import com.wecca.canoeanalysis.utils.DecimationUtils;
 import javafx.animation.PauseTransition;
 import javafx.geometry.Point2D;
 import javafx.scene.chart.*;
@@ -22,13 +29,20 @@ import java.util.List;
 
 public class DiagramService {
 
-    // State (of multiple diagram chart windows open at once, mapping chart to state value)
-    private static final Map<AreaChart<Number, Number>, Boolean> isHoveringOverCircleMap = new HashMap<>();
-    private static final Map<AreaChart<Number, Number>, Double> lastTooltipXMap = new HashMap<>();
-    private static final Map<AreaChart<Number, Number>, Double> lastTooltipYMap = new HashMap<>();
-    private static final Map<AreaChart<Number, Number>, MouseEvent> latestMouseEventMap = new HashMap<>();
+    // State of each diagram chart (multiple windows may be open at once), kept in the chart's properties so it goes with the chart
+    private static final String CHART_STATE_KEY = "diagramChartState";
     private static final double TOOLTIP_UPDATE_THRESHOLD = 0.1;
 
+    // Level of detail for displayed series, diagrams are generated with far more points than pixels
+    private static final double PIXELS_PER_POINT = 3;
+    private static final int MIN_POINTS_PER_SERIES = 100;
+    private static final int MAX_POINTS_PER_SERIES = 400;
+
+    // Modelling assumption for deflection: EI is floored at this fraction of its max along the hull
+    // The idealized section tapers to nothing at the bow and stern, where it is really a solid concrete tip and M is ~0 anyway,
+    // so without a floor the curvature M/EI blows up there. This slightly stiffens the ends in the deflection solution
+    private static final double MIN_FLEXURAL_RIGIDITY_RATIO = 1e-2;
+
     /**
      * Sets up the chart for the diagram window.
      * @param canoe  the canoe object containing section end points and length
@@ -168,6 +182,26 @@ public class DiagramService {
         return group.get(group.size() / 2); // Middle element (choose left middle if two middle elements)
     }
 
+    /**
+     * The interaction and level of detail state of a diagram chart, only touched on the JavaFX thread
+     */
+    private static class ChartState {
+        boolean isHoveringOverCircle;
+        double lastTooltipX = -1.0;
+        double lastTooltipY = -1.0;
+        MouseEvent latestMouseEvent;
+        List<DiagramSeries> fullResolutionSeries; // null until the first series is added
+        int targetPointCount;
+    }
+
+    /**
+     * @param chart the chart
+     * @return the chart's state, created the first time it is needed
+     */
+    private static ChartState getChartState(AreaChart<Number, Number> chart) {
+        return (ChartState) chart.getProperties().computeIfAbsent(CHART_STATE_KEY, key -> new ChartState());
+    }
+
     public static void showMousePositionAsTooltip(AreaChart<Number, Number> chart, String yUnits, String yValName) {
         Tooltip tooltip = new Tooltip(); // Initialize tooltip
         tooltip.setShowDelay(Duration.millis(0));
@@ -177,14 +211,14 @@ public class DiagramService {
         // Initialize PauseTransition for the chart
         PauseTransition tooltipDelay = new PauseTransition(Duration.millis(300));
         tooltipDelay.setOnFinished(event -> {
-            if (!isHoveringOverCircleMap.getOrDefault(chart, false) &&
-                    latestMouseEventMap.containsKey(chart)) {
-                updateTooltip(latestMouseEventMap.get(chart), chart, tooltip, yUnits, yValName);
+            ChartState state = getChartState(chart);
+            if (!state.isHoveringOverCircle && state.latestMouseEvent != null) {
+                updateTooltip(state.latestMouseEvent, chart, tooltip, yUnits, yValName);
             }
         });
 
         chart.setOnMouseMoved(event -> {
-            latestMouseEventMap.put(chart, event); // Store the latest mouse event
+            getChartState(chart).latestMouseEvent = event; // Store the latest mouse event
             tooltip.hide(); // Hide tooltip immediately when mouse moves
             tooltipDelay.playFromStart(); // Restart the delay timer
         });
@@ -196,10 +230,11 @@ public class DiagramService {
 
         Tooltip.install(chart, tooltip); // Attach the tooltip to the chart
 
-        // Initialize state maps
-        isHoveringOverCircleMap.put(chart, false);
-        lastTooltipXMap.put(chart, -1.0);
-        lastTooltipYMap.put(chart, -1.0);
+        // Initialize state
+        ChartState state = getChartState(chart);
+        state.isHoveringOverCircle = false;
+        state.lastTooltipX = -1.0;
+        state.lastTooltipY = -1.0;
     }
 
     /**
@@ -222,8 +257,9 @@ public class DiagramService {
                 double xValue = xValueAxis.getValueForDisplay(mouseX).doubleValue();
                 double yValue = yValueAxis.getValueForDisplay(mouseY).doubleValue();
 
-                double lastTooltipX = lastTooltipXMap.getOrDefault(chart, -1.0);
-                double lastTooltipY = lastTooltipYMap.getOrDefault(chart, -1.0);
+                ChartState state = getChartState(chart);
+                double lastTooltipX = state.lastTooltipX;
+                double lastTooltipY = state.lastTooltipY;
 
                 // Update tooltip only if the mouse has moved significantly
                 if (Math.abs(mouseX - lastTooltipX) > TOOLTIP_UPDATE_THRESHOLD ||
@@ -235,8 +271,8 @@ public class DiagramService {
                     tooltip.setY(event.getScreenY() + 10);
                     tooltip.show(chart, event.getScreenX() + 10, event.getScreenY() + 10);
 
-                    lastTooltipXMap.put(chart, mouseX); // Update the last X position
-                    lastTooltipYMap.put(chart, mouseY); // Update the last Y position
+                    state.lastTooltipX = mouseX; // Update the last X position
+                    state.lastTooltipY = mouseY; // Update the last Y position
                 }
             } else {
                 tooltip.hide(); // Hide tooltip if mouse is out of bounds
@@ -269,11 +305,11 @@ public class DiagramService {
             Tooltip tooltip = new Tooltip(tooltipText);
             Tooltip.install(circle, tooltip); // Attach a tooltip to the circle
 
-            // Ensure state maps are initialized for this chart
-            isHoveringOverCircleMap.putIfAbsent(chart, false);
+            // Ensure state is initialized for this chart
+            ChartState state = getChartState(chart);
 
             circle.setOnMouseEntered(event -> {
-                isHoveringOverCircleMap.put(chart, true); // Set state for hovering
+                state.isHoveringOverCircle = true; // Set state for hovering
                 tooltip.setStyle("-fx-font-weight: bold;"); // Set tooltip text to bold
                 tooltip.show(circle, event.getScreenX() + 10, event.getScreenY() + 10); // Show tooltip on hover
                 circle.setRadius(7); // Highlight the circle
@@ -281,7 +317,7 @@ public class DiagramService {
             });
 
             circle.setOnMouseExited(event -> {
-                isHoveringOverCircleMap.put(chart, false); // Reset state for hovering
+                state.isHoveringOverCircle = false; // Reset state for hovering
                 tooltip.hide(); // Hide tooltip when mouse exits
                 tooltip.setStyle("-fx-font-weight: normal;"); // Reset tooltip text to normal
                 circle.setRadius(5); // Reset circle size
@@ -293,6 +329,27 @@ public class DiagramService {
     }
 
 
+    /**
+     * Set up a canvas diagram, drawn from primitive arrays rather than a scene graph node per point
+     * Used for standalone diagram windows where the full resolution data is shown with pan and zoom
+     * @param canoe the canoe object containing section end points and length
+     * @param points the points to plot, sorted by x
+     * @param yUnits the unit of the y value (i.e. N or kN·m)
+     * @param yValName the name representing the y val (i.e. Force or Moment)
+     * @return the diagram
+     */
+    public static CanvasDiagram setupCanvasDiagram(Canoe canoe, List<Point2D> points, String yUnits, String yValName) {
+        double[] x = new double[points.size()];
+        double[] y = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            x[i] = points.get(i).getX();
+            y[i] = points.get(i).getY();
+        }
+        CanvasDiagram diagram = new CanvasDiagram(x, y, setupXAxis(canoe), setupYAxis(yUnits, yValName), yUnits, yValName);
+        diagram.setPrefSize(1125, 750);
+        return diagram;
+    }
+
     /**
      * Sets up the Y-axis for the chart.
      * @param yUnits the unit of the y value (i.e. N or kN·m)
@@ -330,6 +387,7 @@ public class DiagramService {
      * Adds one or more data series to the chart.
      * Partitions points with the canoe's critical endpoints
      * Creates and labels XYChart.Series with yValName and yUnits
+     * Displayed points are decimated to suit the chart's width, and decimated again from the full resolution points when it is resized
      * @param canoe Canoe object with section endpoints
      * @param points Data points to plot
      * @param yUnits Y-axis units
@@ -337,15 +395,71 @@ public class DiagramService {
      * @param chart AreaChart to add the series to
      */
     public static void addSeriesToChart(Canoe canoe, List<Point2D> points, String yUnits, String yValName, AreaChart<Number, Number> chart) {
+        ChartState state = getChartState(chart);
+        if (state.fullResolutionSeries == null) {
+            state.fullResolutionSeries = new ArrayList<>();
+            state.targetPointCount = getTargetPointCount(chart);
+
+            // Wait for resizing to settle before rebuilding the series
+            PauseTransition resizeDelay = new PauseTransition(Duration.millis(150));
+            resizeDelay.setOnFinished(event -> redecimateChart(chart));
+            chart.widthProperty().addListener((observable, oldValue, newValue) -> resizeDelay.playFromStart());
+        }
+        DiagramSeries series = new DiagramSeries(canoe, new ArrayList<>(points), yUnits, yValName);
+        state.fullResolutionSeries.add(series);
+        addDecimatedSeriesToChart(series, state.targetPointCount, chart);
+    }
+
+    /**
+     * Rebuild the chart's series from their full resolution points if its width calls for a different level of detail
+     * @param chart the chart to rebuild
+     */
+    private static void redecimateChart(AreaChart<Number, Number> chart) {
+        ChartState state = getChartState(chart);
+        int targetPointCount = getTargetPointCount(chart);
+        if (targetPointCount == state.targetPointCount)
+            return;
+
+        state.targetPointCount = targetPointCount;
+        chart.getData().clear();
+        for (DiagramSeries series : state.fullResolutionSeries) {
+            addDecimatedSeriesToChart(series, targetPointCount, chart);
+        }
+    }
+
+    /**
+     * @param chart the chart to display points on
+     * @return the number of points to display per series for the chart's current width
+     */
+    private static int getTargetPointCount(AreaChart<Number, Number> chart) {
+        double width = chart.getWidth() > 0 ? chart.getWidth() : chart.getPrefWidth();
+        int targetPointCount = (int) (width / PIXELS_PER_POINT);
+        return Math.max(MIN_POINTS_PER_SERIES, Math.min(MAX_POINTS_PER_SERIES, targetPointCount));
+    }
+
+    /**
+     * Add a series to the chart, decimating each interval with a share of the target point count proportional to its length
+     * @param diagramSeries the full resolution series
+     * @param targetPointCount the number of points to aim for across the whole series
+     * @param chart AreaChart to add the series to
+     */
+    private static void addDecimatedSeriesToChart(DiagramSeries diagramSeries, int targetPointCount, AreaChart<Number, Number> chart) {
+        Canoe canoe = diagramSeries.getCanoe();
+        List<Point2D> points = new ArrayList<>(diagramSeries.getPoints());
+        String yUnits = diagramSeries.getYUnits();
+        String yValName = diagramSeries.getYValName();
         TreeSet<Double> criticalPoints = canoe.getCriticalPointSet();
         TreeSet<Point2D> absoluteMaximumPoints = filterForAbsoluteMaximums(points);
+        double length = canoe.getHull().getLength();
 
         // Adding the sections of the pseudo piecewise function separately
         boolean set = false; // only need to set the name of the series once since its really one piecewise function
         List<List<Point2D>> intervals = partitionPoints(points, criticalPoints);
         for (List<Point2D> interval : intervals) {
             XYChart.Series<Number, Number> series = new XYChart.Series<>();
-            for (Point2D point : interval) {
+            double intervalLength = interval.getLast().getX() - interval.getFirst().getX();
+            int intervalTargetPointCount = (int) Math.ceil(targetPointCount * intervalLength / length);
+            for (Point2D point : DecimationUtils.decimate(interval, intervalTargetPointCount, absoluteMaximumPoints)) {
                 XYChart.Data<Number, Number> data = new XYChart.Data<>(point.getX(), point.getY());
                 Point2D dataPoint = new Point2D(data.getXValue().doubleValue(), data.getYValue().doubleValue());
                 if (absoluteMaximumPoints.contains(dataPoint))
@@ -425,14 +539,15 @@ public class DiagramService {
     /**
      * Convert the canoe's point loads to a map of [x coordinate] : [point load].
      * Note: a regular map suffices instead of a multimap as point loads at the same x value should always combine
-     * @param canoe the canoe object.
+     * @param loads all loads on the canoe, from canoe.getAllLoads().
      * @return the generated map.
      */
-    private static Map<Double, PointLoad> getPointLoadMap(Canoe canoe)
+    private static Map<Double, PointLoad> getPointLoadMap(List<Load> loads)
     {
         Map<Double, PointLoad> map = new HashMap<>();
-        for (PointLoad load : canoe.getAllLoadsOfType(PointLoad.class))
+        for (Load l : loads)
         {
+            if (!(l instanceof PointLoad load)) continue;
             double x = (double) Math.round(load.getX() * 100) / 100;
             if (map.containsKey(x))
             {
@@ -447,61 +562,48 @@ public class DiagramService {
         return map;
     }
 
+    /**
+     * Collect the canoe's distributed loads, with piecewise distributions (i.e. hull, buoyancy) discretized into uniform ones.
+     * @param loads all loads on the canoe, from canoe.getAllLoads().
+     * @return the uniform distributed loads.
+     */
+    private static List<UniformLoadDistribution> getDistributedLoads(List<Load> loads)
+    {
+        List<UniformLoadDistribution> distributedLoads = new ArrayList<>();
+        for (Load load : loads) {
+            if (load instanceof UniformLoadDistribution dLoad)
+                distributedLoads.add(dLoad);
+            else if (load instanceof PiecewiseContinuousLoadDistribution piecewise)
+                distributedLoads.addAll(DiscreteLoadDistribution.fromPiecewise(LoadType.DISCRETE_SECTION, piecewise, (int) (piecewise.getSection().getLength() * 100)).getLoads());
+        }
+        return distributedLoads;
+    }
+
     /**
      * Convert the canoe's distributed loads to a map of [starting x coordinate] : [distributed load].
-     * @param canoe the canoe object.
+     * @param distributedLoads the canoe's distributed loads, from getDistributedLoads.
      * @return the generated map.
      */
-    private static Multimap<Double, UniformLoadDistribution> getDistributedLoadStartMap(Canoe canoe)
+    private static Multimap<Double, UniformLoadDistribution> getDistributedLoadStartMap(List<UniformLoadDistribution> distributedLoads)
     {
         Multimap<Double, UniformLoadDistribution> map = ArrayListMultimap.create();
-        for (UniformLoadDistribution load : canoe.getAllLoadsOfType(UniformLoadDistribution.class)) {
+        for (UniformLoadDistribution load : distributedLoads) {
             map.put((double) Math.round(load.getX() * 100) / 100, load);
         }
-
-        List<UniformLoadDistribution> distributionDLoads = new ArrayList<>();
-        if (!canoe.getAllLoadsOfType(PiecewiseContinuousLoadDistribution.class).isEmpty()) {
-
-            List<DiscreteLoadDistribution> discretizations = canoe.getAllLoadsOfType(PiecewiseContinuousLoadDistribution.class).stream()
-                    .map(piecewise -> DiscreteLoadDistribution.fromPiecewise(LoadType.DISCRETE_SECTION, piecewise, (int) (piecewise.getSection().getLength() * 100)))
-                    .toList();
-
-            for (DiscreteLoadDistribution loadDist : discretizations) {
-                distributionDLoads.addAll(loadDist.getLoads());
-            }
-            for (UniformLoadDistribution load : distributionDLoads) {
-                map.put((double) Math.round(load.getX() * 100) / 100, load);
-            }
-        }
-
         return map;
     }
 
     /**
      * Convert the canoe's distributed loads to a map of [ending x coordinate] : [distributed load].
-     * @param canoe the canoe object.
+     * @param distributedLoads the canoe's distributed loads, from getDistributedLoads.
      * @return the generated map.
      */
-    private static Multimap<Double, UniformLoadDistribution> getDistributedLoadEndMap(Canoe canoe)
+    private static Multimap<Double, UniformLoadDistribution> getDistributedLoadEndMap(List<UniformLoadDistribution> distributedLoads)
     {
         Multimap<Double, UniformLoadDistribution> map = ArrayListMultimap.create();
-        for (UniformLoadDistribution load : canoe.getAllLoadsOfType(UniformLoadDistribution.class)) {map.put((double) Math.round(load.getRx() * 100) / 100, load);}
-
-        List<UniformLoadDistribution> externalDistributionDLoads = new ArrayList<>();
-        if (!canoe.getAllLoadsOfType(PiecewiseContinuousLoadDistribution.class).isEmpty()) {
-
-            List<DiscreteLoadDistribution> discretizations = canoe.getAllLoadsOfType(PiecewiseContinuousLoadDistribution.class).stream()
-                    .map(piecewise -> DiscreteLoadDistribution.fromPiecewise(LoadType.DISCRETE_SECTION, piecewise, (int) (piecewise.getSection().getLength() * 100)))
-                    .toList();
-
-            for (DiscreteLoadDistribution loadDist : discretizations) {
-                externalDistributionDLoads.addAll(loadDist.getLoads());
-            }
-            for (UniformLoadDistribution load : externalDistributionDLoads) {
-                map.put((double) Math.round(load.getRx() * 100) / 100, load);
-            }
+        for (UniformLoadDistribution load : distributedLoads) {
+            map.put((double) Math.round(load.getRx() * 100) / 100, load);
         }
-
         return map;
     }
 
@@ -559,7 +661,7 @@ public class DiagramService {
      * @param startY the baseline y value for the parabola.
      * @return the list of generated points along the parabola.
      */
-    @Traceable
+    @Traceable(event = DiagramGenerationEvent.class)
     private static List<Point2D> generateParabolicPoints(Point2D start, Point2D end, double startY)
     {
         List<Point2D> points = new ArrayList<>();
@@ -596,22 +698,26 @@ public class DiagramService {
      * @param canoe the canoe object with loads.
      * @return the list of points to render for the SFD.
      */
-    @Traceable
+    @Traceable(event = DiagramGenerationEvent.class)
     public static List<Point2D> generateSfdPoints(Canoe canoe) {
         // Get maps for each load type for efficient processing
-        Map<Double, PointLoad> pointLoadMap = getPointLoadMap(canoe);
-        Multimap<Double, UniformLoadDistribution> distributedLoadStartMap = getDistributedLoadStartMap(canoe);
-        Multimap<Double, UniformLoadDistribution> distributedLoadEndMap = getDistributedLoadEndMap(canoe);
+        // All loads are fetched and discretized once since that includes integrating the hull's self-weight
+        List<Load> loads = canoe.getAllLoads();
+        List<UniformLoadDistribution> distributedLoads = getDistributedLoads(loads);
+        Map<Double, PointLoad> pointLoadMap = getPointLoadMap(loads);
+        Multimap<Double, UniformLoadDistribution> distributedLoadStartMap = getDistributedLoadStartMap(distributedLoads);
+        Multimap<Double, UniformLoadDistribution> distributedLoadEndMap = getDistributedLoadEndMap(distributedLoads);
 
         // Maintain the x coordinate, slope, and magnitude of the previous interval
         double prevX = 0;
         double slope = 0;
         double magnitude = 0;
         List<DiagramInterval> intervals = new ArrayList<>();
-        // Go through each x index from 0 to [canoe length], incrementing it by 0.01 each time
+        // Go through each x index from 0 to [canoe length], incrementing it by the grid step (0.01 by default) each time
         // This tests each possible starting point to check for a load beginning/ending/occurring at this x coordinate.
-        for (int i = 0; i < canoe.getHull().getLength() * 100; i ++) {
-            double x = (double) i / 100;
+        int gridResolution = CalculusUtils.getNumericalSettings().getDiagramGridResolution();
+        for (int i = 0; i < canoe.getHull().getLength() * gridResolution; i ++) {
+            double x = (double) i / gridResolution;
 
             // If a distributed load starts here
             if (distributedLoadStartMap.containsKey(x)) {
@@ -657,10 +763,19 @@ public class DiagramService {
      * @param canoe the canoe object with loads.
      * @return the list of points to render for the BMD.
      */
-    @Traceable
+    @Traceable(event = DiagramGenerationEvent.class)
     public static List<Point2D> generateBmdPoints(Canoe canoe) {
-        // Gets the SFD points for the canoe
-        List<Point2D> sfdPoints = generateSfdPoints(canoe);
+        return generateBmdPoints(canoe, generateSfdPoints(canoe));
+    }
+
+    /**
+     * Generate a list of points to comprise the Bending Moment Diagram from already generated SFD points.
+     * @param canoe the canoe object with loads.
+     * @param sfdPoints the SFD points from generateSfdPoints for the same canoe.
+     * @return the list of points to render for the BMD.
+     */
+    @Traceable(event = DiagramGenerationEvent.class)
+    public static List<Point2D> generateBmdPoints(Canoe canoe, List<Point2D> sfdPoints) {
         List<Point2D> bmdPoints = new ArrayList<>();
         Point2D firstPoint = sfdPoints.getFirst();
 
@@ -686,4 +801,66 @@ public class DiagramService {
 
         return bmdPoints;
     }
+
+    /**
+     * Solve for the rotation and deflection of the hull by integrating the curvature M/EI twice.
+     * The BMD points are reused as the sampling grid so this costs about as much as one extra pass over them.
+     * Boundary conditions are zero deflection at the two outermost supports if the canoe is on stands,
+     * otherwise deflection is taken relative to the line between the bow and stern (free-free beam).
+     * E is the hull's elastic modulus and EI is floored near the bow and stern (see MIN_FLEXURAL_RIGIDITY_RATIO).
+     * @param canoe the canoe object with loads
+     * @param bmdPoints the BMD points from generateBmdPoints for the same canoe
+     * @return the deflection solution on the BMD grid
+     */
+    @Traceable(event = DiagramGenerationEvent.class)
+    public static DeflectionSolution generateDeflectionSolution(Canoe canoe, List<Point2D> bmdPoints) {
+        Hull hull = canoe.getHull();
+        double length = hull.getLength();
+
+        // Unpack the BMD into primitive arrays
+        int n = bmdPoints.size();
+        double[][] bmdSamples = CalculusUtils.toSampleArrays(bmdPoints);
+        double[] x = bmdSamples[0];
+        double[] moment = bmdSamples[1];
+
+        // EI(x) is smooth, so sample it on the coarser SFD grid and interpolate onto the BMD grid
+        int numEiSamples = (int) Math.ceil(length * 100) + 1;
+        double[] eiX = new double[numEiSamples];
+        double[] ei = new double[numEiSamples];
+        BoundedUnivariateFunction secondMomentOfArea = hull.getSecondMomentOfAreaFunction();
+        double maxEi = 0;
+        for (int i = 0; i < numEiSamples; i++) {
+            eiX[i] = Math.min(i / 100.0, length);
+            ei[i] = hull.getElasticModulus() * secondMomentOfArea.value(eiX[i]);
+            maxEi = Math.max(maxEi, ei[i]);
+        }
+
+        double minEi = maxEi * MIN_FLEXURAL_RIGIDITY_RATIO;
+        double[] curvature = new double[n];
+        for (int i = 0; i < n; i++) {
+            double eiAtX = Math.max(CalculusUtils.interpolate(eiX, ei, x[i]), minEi);
+            curvature[i] = eiAtX == 0 ? 0 : moment[i] / eiAtX;
+        }
+
+        // Integrate twice with zero constants, then correct with the linear function satisfying the boundary conditions
+        double[] rotation = CalculusUtils.cumulativeTrapezoid(x, curvature);
+        double[] deflection = CalculusUtils.cumulativeTrapezoid(x, rotation);
+        List<Double> supportXs = canoe.getAllLoadsOfType(PointLoad.class).stream()
+                .filter(PointLoad::isSupport)
+                .map(PointLoad::getX)
+                .sorted()
+                .toList();
+        boolean isOnStands = supportXs.size() >= 2 && supportXs.getLast() - supportXs.getFirst() > 1e-6;
+        double xA = isOnStands ? supportXs.getFirst() : 0;
+        double xB = isOnStands ? supportXs.getLast() : length;
+        double wA = CalculusUtils.interpolate(x, deflection, xA);
+        double wB = CalculusUtils.interpolate(x, deflection, xB);
+        double correctionSlope = (wB - wA) / (xB - xA);
+        for (int i = 0; i < n; i++) {
+            rotation[i] -= correctionSlope;
+            deflection[i] -= wA + correctionSlope * (x[i] - xA);
+        }
+
+        return new DeflectionSolution(x, rotation, deflection);
+    }
 }
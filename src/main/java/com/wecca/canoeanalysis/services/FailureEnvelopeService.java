@@ -0,0 +1,303 @@
+package com.wecca.canoeanalysis.services;
+
+import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.models.canoe.*;
+import com.wecca.canoeanalysis.models.data.SolveType;
+import com.wecca.canoeanalysis.models.load.*;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import com.wecca.canoeanalysis.utils.LoadUtils;
+import javafx.geometry.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Solves many load cases on one hull concurrently and reduces them to failure envelopes for the Failure Envelope module
+ * Each worker folds the cases it solves into its own partial envelope, partials are only merged once workers finish
+ * so no locking is needed on the envelope arrays
+ */
+@Traceable
+public class FailureEnvelopeService {
+
+    public static final double DEFAULT_PADDLER_WEIGHT = 0.8; // [kN], about 80kg
+    public static final double DEFAULT_PADDLER_SPACING = 1.0; // [m]
+    private static final int[] DEFAULT_PADDLER_COUNTS = {2, 4};
+    private static final double PADDLER_LAYOUT_STEP = 0.5; // [m]
+    private static final double PADDLER_END_CLEARANCE = 0.5; // [m], paddlers can't kneel in the bow or stern tip
+
+    /**
+     * Generate the default set of load cases for a canoe
+     * The canoe's own external loads and paddler layouts sliding along the hull, each on stands and floating
+     * @param canoe the canoe to generate cases for, any solved supports or buoyancy on it are ignored
+     * @return the load cases
+     */
+    public static List<LoadCase> generateLoadCases(Canoe canoe) {
+        List<Load> externalLoads = canoe.getLoads().stream()
+                .filter(load -> load.getType() != LoadType.POINT_LOAD_SUPPORT && load.getType() != LoadType.BUOYANCY)
+                .toList();
+
+        List<LoadCase> loadCases = new ArrayList<>();
+        for (SolveType solveType : List.of(SolveType.STANDS, SolveType.FLOATING)) {
+            String supportName = solveType == SolveType.STANDS ? "stands" : "floating";
+            loadCases.add(new LoadCase(String.format("Self-weight, %s", supportName), solveType, List.of()));
+            if (!externalLoads.isEmpty())
+                loadCases.add(new LoadCase(String.format("Uploaded loads, %s", supportName), solveType, externalLoads));
+            for (int numPaddlers : DEFAULT_PADDLER_COUNTS) {
+                loadCases.addAll(generatePaddlerLayouts(canoe.getHull().getLength(), numPaddlers,
+                        DEFAULT_PADDLER_WEIGHT, DEFAULT_PADDLER_SPACING, solveType));
+            }
+        }
+        return loadCases;
+    }
+
+    /**
+     * Generate load cases for a group of evenly spaced paddlers at each position it can slide to along the hull
+     * @param length the length of the hull
+     * @param numPaddlers the number of paddlers
+     * @param paddlerWeight the weight of each paddler [kN]
+     * @param paddlerSpacing the distance between adjacent paddlers [m]
+     * @param solveType how the canoe is supported
+     * @return the load cases, empty if the group does not fit in the hull
+     */
+    public static List<LoadCase> generatePaddlerLayouts(double length, int numPaddlers, double paddlerWeight, double paddlerSpacing, SolveType solveType) {
+        if (numPaddlers < 1 || paddlerWeight <= 0 || paddlerSpacing <= 0)
+            throw new IllegalArgumentException("Paddler layouts need at least one paddler with positive weight and spacing");
+
+        List<LoadCase> loadCases = new ArrayList<>();
+        double groupLength = (numPaddlers - 1) * paddlerSpacing;
+        double lastStart = length - PADDLER_END_CLEARANCE - groupLength;
+        String supportName = solveType == SolveType.STANDS ? "stands" : "floating";
+        for (int step = 0; PADDLER_END_CLEARANCE + step * PADDLER_LAYOUT_STEP <= lastStart + 1e-9; step++) {
+            double start = CalculusUtils.roundXDecimalDigits(PADDLER_END_CLEARANCE + step * PADDLER_LAYOUT_STEP, 2);
+            List<Load> loads = new ArrayList<>();
+            for (int i = 0; i < numPaddlers; i++) {
+                loads.add(new PointLoad(-paddlerWeight, CalculusUtils.roundXDecimalDigits(start + i * paddlerSpacing, 2), false));
+            }
+            loadCases.add(new LoadCase(String.format("%d paddlers from %.2f m, %s", numPaddlers, start, supportName), solveType, loads));
+        }
+        return loadCases;
+    }
+
+    /**
+     * Solve each load case on the canoe's hull concurrently and reduce them to failure envelopes
+     * The hooks are called from worker threads, so UI updates from them must be wrapped in Platform.runLater
+     * Every case is solved with the numerical settings in use by the calling thread
+     * @param canoe the canoe providing the hull
+     * @param loadCases the load cases to solve
+     * @param onProgress called with the fraction of cases completed after each case
+     * @param isCancelled polled before each case, remaining cases are skipped once it returns true
+     * @return the failure envelope, or null if cancelled
+     */
+    public static FailureEnvelope solveFailureEnvelope(Canoe canoe, List<LoadCase> loadCases, DoubleConsumer onProgress, BooleanSupplier isCancelled) {
+        return solveFailureEnvelope(AnalysisContext.of(canoe.getHull()), loadCases, onProgress, isCancelled);
+    }
+
+    /**
+     * Solve each load case on the context's hull concurrently and reduce them to failure envelopes
+     * Every case is solved, and its diagrams and stresses generated, with the context's numerical settings
+     * @param context the hull and numerical settings
+     * @param loadCases the load cases to solve
+     * @param onProgress called from worker threads with the fraction of cases completed after each case
+     * @param isCancelled polled before each case, remaining cases are skipped once it returns true
+     * @return the failure envelope, or null if cancelled
+     */
+    public static FailureEnvelope solveFailureEnvelope(AnalysisContext context, List<LoadCase> loadCases, DoubleConsumer onProgress, BooleanSupplier isCancelled) {
+        Hull hull = context.getHull();
+
+        // Warm the section modulus cache before fanning out so all workers share the same stations
+        double[][] sectionModulusProfile = context.call(() -> CriticalSectionService.getSectionModulusProfile(hull));
+        double[] stations = sectionModulusProfile[0];
+
+        // The floored stress near the bow and stern tips would otherwise govern the stress envelope, leave those stations out
+        double minSectionModulus = Arrays.stream(sectionModulusProfile[1]).max().orElse(0) * CriticalSectionService.MIN_CRITICAL_SECTION_MODULUS_RATIO;
+        boolean[] isStressStation = new boolean[stations.length];
+        for (int i = 0; i < stations.length; i++) {
+            isStressStation[i] = sectionModulusProfile[1][i] >= minSectionModulus;
+        }
+
+        AtomicInteger numCompleted = new AtomicInteger();
+        PartialEnvelope envelope = IntStream.range(0, loadCases.size()).parallel().collect(
+                () -> new PartialEnvelope(stations, isStressStation),
+                (partial, i) -> {
+                    if (isCancelled.getAsBoolean()) return;
+                    // Workers are pool threads, everything from solving to folding in the stresses must see the context's settings
+                    context.call(() -> {
+                        Canoe solvedCanoe = solveLoadCase(hull, loadCases.get(i));
+                        if (solvedCanoe == null) partial.unsolvedCases.add(i);
+                        else partial.accumulate(i, solvedCanoe);
+                        return null;
+                    });
+                    onProgress.accept((double) numCompleted.incrementAndGet() / loadCases.size());
+                },
+                PartialEnvelope::merge);
+
+        if (isCancelled.getAsBoolean()) return null;
+        return envelope.toFailureEnvelope(loadCases);
+    }
+
+    /**
+     * Build and solve a canoe for a single load case
+     * All cases share the hull, which is only read while solving
+     * @param hull the hull to put the loads on
+     * @param loadCase the load case
+     * @return the canoe with the case's loads and solved supports or buoyancy, or null if buoyancy could not converge
+     */
+    private static Canoe solveLoadCase(Hull hull, LoadCase loadCase) {
+        Canoe canoe = new Canoe();
+        canoe.setHull(hull);
+        canoe.setSolveType(loadCase.getSolveType());
+        for (Load load : loadCase.getLoads()) {
+            canoe.addLoad(LoadUtils.copyLoad(load));
+        }
+
+        if (loadCase.getSolveType() == SolveType.STANDS) {
+            for (PointLoad support : BeamSolverService.solveStandSystem(canoe)) {
+                canoe.addLoad(support);
+            }
+        }
+        else if (loadCase.getSolveType() == SolveType.FLOATING) {
+            FloatingSolution solution = BeamSolverService.solveFloatingSystem(canoe);
+            if (solution == null) return null;
+            PiecewiseContinuousLoadDistribution buoyancy = solution.getSolvedBuoyancy();
+            if (buoyancy == null) throw new RuntimeException("Solution has no solved buoyancy to set");
+            if (buoyancy.getForce() != 0) canoe.addLoad(buoyancy);
+        }
+        else throw new IllegalArgumentException("Load case must be solved on stands or floating");
+
+        return canoe;
+    }
+
+    /**
+     * One worker's share of the envelope reduction
+     * Ties keep the lower case index so the result does not depend on how cases were split between workers
+     */
+    private static class PartialEnvelope {
+        private final double[] stations;
+        private final boolean[] isStressStation;
+        private final double[] maxShear, minShear, maxMoment, minMoment, maxStress, minStress;
+        private final int[] maxShearCase, minShearCase, maxMomentCase, minMomentCase, maxStressCase, minStressCase;
+        private final List<Integer> unsolvedCases = new ArrayList<>();
+
+        /**
+         * @param stations the stations along the hull
+         * @param isStressStation whether the stress envelope includes each station
+         */
+        private PartialEnvelope(double[] stations, boolean[] isStressStation) {
+            int n = stations.length;
+            this.stations = stations;
+            this.isStressStation = isStressStation;
+            maxShear = filled(n, Double.NEGATIVE_INFINITY);
+            minShear = filled(n, Double.POSITIVE_INFINITY);
+            maxMoment = filled(n, Double.NEGATIVE_INFINITY);
+            minMoment = filled(n, Double.POSITIVE_INFINITY);
+            maxStress = filled(n, Double.NEGATIVE_INFINITY);
+            minStress = filled(n, Double.POSITIVE_INFINITY);
+            maxShearCase = unassigned(n);
+            minShearCase = unassigned(n);
+            maxMomentCase = unassigned(n);
+            minMomentCase = unassigned(n);
+            maxStressCase = unassigned(n);
+            minStressCase = unassigned(n);
+        }
+
+        /**
+         * Fold a solved load case into this partial envelope
+         * @param caseIndex the index of the load case
+         * @param canoe the solved canoe for the case
+         */
+        private void accumulate(int caseIndex, Canoe canoe) {
+            List<Point2D> sfdPoints = DiagramService.generateSfdPoints(canoe);
+            List<Point2D> bmdPoints = DiagramService.generateBmdPoints(canoe, sfdPoints);
+            BendingStressSolution bendingStress = CriticalSectionService.solveBendingStress(canoe, bmdPoints);
+
+            // Shear jumps at point loads, so fold in each SFD vertex at its nearest station to keep both sides of a jump
+            double[][] sfdSamples = CalculusUtils.toSampleArrays(sfdPoints);
+            double[] sfdX = sfdSamples[0];
+            double[] sfdY = sfdSamples[1];
+            for (int i = 0; i < sfdX.length; i++) {
+                int station = nearestStation(sfdX[i]);
+                update(station, sfdY[i], caseIndex, maxShear, maxShearCase, minShear, minShearCase);
+            }
+
+            for (int i = 0; i < stations.length; i++) {
+                update(i, CalculusUtils.interpolate(sfdX, sfdY, stations[i]), caseIndex, maxShear, maxShearCase, minShear, minShearCase);
+                update(i, bendingStress.getMoment()[i], caseIndex, maxMoment, maxMomentCase, minMoment, minMomentCase);
+                if (isStressStation[i])
+                    update(i, bendingStress.getStress()[i], caseIndex, maxStress, maxStressCase, minStress, minStressCase);
+            }
+        }
+
+        /**
+         * Merge another worker's partial envelope into this one
+         * @param other the other partial envelope
+         */
+        private void merge(PartialEnvelope other) {
+            for (int i = 0; i < stations.length; i++) {
+                update(i, other.maxShear[i], other.maxShearCase[i], maxShear, maxShearCase, null, null);
+                update(i, other.minShear[i], other.minShearCase[i], null, null, minShear, minShearCase);
+                update(i, other.maxMoment[i], other.maxMomentCase[i], maxMoment, maxMomentCase, null, null);
+                update(i, other.minMoment[i], other.minMomentCase[i], null, null, minMoment, minMomentCase);
+                update(i, other.maxStress[i], other.maxStressCase[i], maxStress, maxStressCase, null, null);
+                update(i, other.minStress[i], other.minStressCase[i], null, null, minStress, minStressCase);
+            }
+            unsolvedCases.addAll(other.unsolvedCases);
+        }
+
+        /**
+         * Update the max and/or min envelope at a station with a value from a case
+         * Either pair of arrays may be null to only update the other
+         */
+        private static void update(int i, double value, int caseIndex, double[] max, int[] maxCase, double[] min, int[] minCase) {
+            if (caseIndex < 0) return;
+            if (max != null && (value > max[i] || (value == max[i] && caseIndex < maxCase[i]))) {
+                max[i] = value;
+                maxCase[i] = caseIndex;
+            }
+            if (min != null && (value < min[i] || (value == min[i] && caseIndex < minCase[i]))) {
+                min[i] = value;
+                minCase[i] = caseIndex;
+            }
+        }
+
+        private int nearestStation(double x) {
+            int index = Arrays.binarySearch(stations, x);
+            if (index >= 0) return index;
+            int insertion = -index - 1;
+            if (insertion == 0) return 0;
+            if (insertion == stations.length) return stations.length - 1;
+            return x - stations[insertion - 1] <= stations[insertion] - x ? insertion - 1 : insertion;
+        }
+
+        /**
+         * @param loadCases the load cases the indices refer to
+         * @return the final envelope, stations which no case reached (i.e. tip stations of the stress envelope) are zeroed
+         */
+        private FailureEnvelope toFailureEnvelope(List<LoadCase> loadCases) {
+            for (double[] values : List.of(maxShear, minShear, maxMoment, minMoment, maxStress, minStress)) {
+                for (int i = 0; i < values.length; i++) {
+                    if (Double.isInfinite(values[i])) values[i] = 0;
+                }
+            }
+            List<LoadCase> unsolvedLoadCases = unsolvedCases.stream().sorted().map(loadCases::get).toList();
+            return new FailureEnvelope(loadCases, unsolvedLoadCases, stations,
+                    maxShear, minShear, maxMoment, minMoment, maxStress, minStress,
+                    maxShearCase, minShearCase, maxMomentCase, minMomentCase, maxStressCase, minStressCase);
+        }
+
+        private static double[] filled(int n, double value) {
+            double[] values = new double[n];
+            Arrays.fill(values, value);
+            return values;
+        }
+
+        private static int[] unassigned(int n) {
+            int[] values = new int[n];
+            Arrays.fill(values, -1);
+            return values;
+        }
+    }
+}
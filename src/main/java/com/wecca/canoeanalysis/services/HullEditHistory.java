@@ -0,0 +1,284 @@
+package com.wecca.canoeanalysis.services;
+
+import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.canoe.HullProperties;
+import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
+import com.wecca.canoeanalysis.utils.SectionPropertyMapEntry;
+import lombok.Getter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Undo/redo history of the hull builder, one instance per editor
+ * ------------------------------------------------------------------------------------------------
+ * An edit stores only the parts it replaced (i.e. segment index, old and new Bézier segment) and the scalar properties (densities, scaling factor, elastic modulus),
+ * found by comparing the hulls before and after by identity, which works because edits derive the new hull from
+ * the old one so every part they did not touch is shared (see Hull.derive())
+ * An edit that changes the number of sections (adding or deleting a knot) stores the old and new part lists instead
+ * ------------------------------------------------------------------------------------------------
+ * A stream of edits with the same coalescing key (i.e. one knob being turned) is merged into a single entry
+ * as long as the edits keep coming within COALESCE_WINDOW_MS of each other
+ * The oldest entries are dropped past the capacity, so a long session uses bounded memory
+ * Stepping back or forward swaps the parts of one entry, the cost does not depend on the length of the history
+ */
+public class HullEditHistory {
+
+    public static final int DEFAULT_CAPACITY = 200;
+    public static final long COALESCE_WINDOW_MS = 750;
+
+    @Getter
+    private final int capacity;
+    private final Deque<Edit> undoStack = new ArrayDeque<>();
+    private final Deque<Edit> redoStack = new ArrayDeque<>();
+
+    /**
+     * A change to one of the hull's part lists, either the parts replaced in place or the whole list when its size changed
+     */
+    private static class PartsDelta<T> {
+        private final List<Integer> indices = new ArrayList<>();
+        private final List<T> oldParts = new ArrayList<>();
+        private final List<T> newParts = new ArrayList<>();
+        private List<T> oldList;
+        private List<T> newList;
+
+        /**
+         * @return the delta between the lists, null if they hold the same parts
+         */
+        private static <T> PartsDelta<T> of(List<T> before, List<T> after) {
+            if (before == after) return null;
+            PartsDelta<T> delta = new PartsDelta<>();
+            if (before.size() != after.size()) {
+                delta.oldList = new ArrayList<>(before);
+                delta.newList = new ArrayList<>(after);
+                return delta;
+            }
+            for (int i = 0; i < before.size(); i++) {
+                if (before.get(i) != after.get(i)) {
+                    delta.indices.add(i);
+                    delta.oldParts.add(before.get(i));
+                    delta.newParts.add(after.get(i));
+                }
+            }
+            return delta.indices.isEmpty() ? null : delta;
+        }
+
+        private boolean isReplacement() {
+            return oldList != null;
+        }
+
+        /**
+         * Fold a later in-place delta into this one, keeping the oldest part and the newest part of each index
+         */
+        private void merge(PartsDelta<T> later) {
+            for (int i = 0; i < later.indices.size(); i++) {
+                int position = indices.indexOf(later.indices.get(i));
+                if (position == -1) {
+                    indices.add(later.indices.get(i));
+                    oldParts.add(later.oldParts.get(i));
+                    newParts.add(later.newParts.get(i));
+                }
+                else newParts.set(position, later.newParts.get(i));
+            }
+        }
+
+        /**
+         * @param parts the parts of the hull on one side of the edit
+         * @param forward whether to go to the state after the edit, otherwise before it
+         * @return new list of the parts on the other side of the edit
+         */
+        private List<T> apply(List<T> parts, boolean forward) {
+            if (isReplacement()) return new ArrayList<>(forward ? newList : oldList);
+            List<T> result = new ArrayList<>(parts);
+            List<T> target = forward ? newParts : oldParts;
+            for (int i = 0; i < indices.size(); i++) {
+                result.set(indices.get(i), target.get(i));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * One entry of the history
+     */
+    private static class Edit {
+        @Getter
+        private final String label;
+        private final String coalescingKey;
+        private long lastEditMs;
+        private boolean sealed;
+        private final PartsDelta<CubicBezierFunction> sideViewDelta;
+        private final PartsDelta<CubicBezierFunction> topViewDelta;
+        private final PartsDelta<SectionPropertyMapEntry> thicknessDelta;
+        private final PartsDelta<SectionPropertyMapEntry> bulkheadDelta;
+        private final double oldConcreteDensity;
+        private double newConcreteDensity;
+        private final double oldBulkheadDensity;
+        private double newBulkheadDensity;
+        private final double oldScalingFactor;
+        private double newScalingFactor;
+        private final double oldElasticModulus;
+        private double newElasticModulus;
+
+        private Edit(String label, String coalescingKey, Hull before, Hull after) {
+            this.label = label;
+            this.coalescingKey = coalescingKey;
+            this.lastEditMs = System.currentTimeMillis();
+            this.sideViewDelta = PartsDelta.of(before.getSideViewSegments(), after.getSideViewSegments());
+            this.topViewDelta = PartsDelta.of(before.getTopViewSegments(), after.getTopViewSegments());
+            this.thicknessDelta = PartsDelta.of(before.getHullProperties().getThicknessMap(), after.getHullProperties().getThicknessMap());
+            this.bulkheadDelta = PartsDelta.of(before.getHullProperties().getBulkheadMap(), after.getHullProperties().getBulkheadMap());
+            this.oldConcreteDensity = before.getConcreteDensity();
+            this.newConcreteDensity = after.getConcreteDensity();
+            this.oldBulkheadDensity = before.getBulkheadDensity();
+            this.newBulkheadDensity = after.getBulkheadDensity();
+            this.oldScalingFactor = before.getScalingFactor();
+            this.newScalingFactor = after.getScalingFactor();
+            this.oldElasticModulus = before.getElasticModulus();
+            this.newElasticModulus = after.getElasticModulus();
+        }
+
+        private boolean isEmpty() {
+            return sideViewDelta == null && topViewDelta == null && thicknessDelta == null && bulkheadDelta == null
+                    && oldConcreteDensity == newConcreteDensity && oldBulkheadDensity == newBulkheadDensity
+                    && oldScalingFactor == newScalingFactor && oldElasticModulus == newElasticModulus;
+        }
+
+        /**
+         * @return whether the later edit can be folded into this one, only in-place edits of the same parts are merged
+         */
+        private boolean canCoalesce(Edit later) {
+            return !sealed && coalescingKey != null && coalescingKey.equals(later.coalescingKey)
+                    && later.lastEditMs - lastEditMs <= COALESCE_WINDOW_MS
+                    && canMerge(sideViewDelta, later.sideViewDelta) && canMerge(topViewDelta, later.topViewDelta)
+                    && canMerge(thicknessDelta, later.thicknessDelta) && canMerge(bulkheadDelta, later.bulkheadDelta);
+        }
+
+        private static boolean canMerge(PartsDelta<?> earlier, PartsDelta<?> later) {
+            if (later == null) return true;
+            return earlier != null && !earlier.isReplacement() && !later.isReplacement();
+        }
+
+        private void merge(Edit later) {
+            if (later.sideViewDelta != null) sideViewDelta.merge(later.sideViewDelta);
+            if (later.topViewDelta != null) topViewDelta.merge(later.topViewDelta);
+            if (later.thicknessDelta != null) thicknessDelta.merge(later.thicknessDelta);
+            if (later.bulkheadDelta != null) bulkheadDelta.merge(later.bulkheadDelta);
+            newConcreteDensity = later.newConcreteDensity;
+            newBulkheadDensity = later.newBulkheadDensity;
+            newScalingFactor = later.newScalingFactor;
+            newElasticModulus = later.newElasticModulus;
+            lastEditMs = later.lastEditMs;
+        }
+
+        /**
+         * @param hull the hull on one side of the edit
+         * @param forward whether to redo the edit, otherwise undo it
+         * @return a new hull on the other side of the edit, sharing its parts with the history
+         */
+        private Hull apply(Hull hull, boolean forward) {
+            // Derived rather than constructed, the state was validated when it was first built and its parts must stay shared
+            Hull result = hull.derive();
+            result.setConcreteDensity(forward ? newConcreteDensity : oldConcreteDensity);
+            result.setBulkheadDensity(forward ? newBulkheadDensity : oldBulkheadDensity);
+            result.setScalingFactor(forward ? newScalingFactor : oldScalingFactor);
+            result.setElasticModulus(forward ? newElasticModulus : oldElasticModulus);
+            result.setHullProperties(new HullProperties(
+                    apply(thicknessDelta, hull.getHullProperties().getThicknessMap(), forward),
+                    apply(bulkheadDelta, hull.getHullProperties().getBulkheadMap(), forward)));
+            result.setSideViewSegments(apply(sideViewDelta, hull.getSideViewSegments(), forward));
+            result.setTopViewSegments(apply(topViewDelta, hull.getTopViewSegments(), forward));
+            return result;
+        }
+
+        private static <T> List<T> apply(PartsDelta<T> delta, List<T> parts, boolean forward) {
+            return delta == null ? new ArrayList<>(parts) : delta.apply(parts, forward);
+        }
+    }
+
+    public HullEditHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the most entries kept for undoing, the oldest are dropped first
+     */
+    public HullEditHistory(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("History capacity must be at least 1");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Record an edit, clearing the redo history
+     * The hulls must not be mutated after being recorded, which holds for hulls derived by HullGeometryService
+     * @param before the hull before the edit
+     * @param after the hull after the edit, derived from before
+     * @param label describes the edit to the user (i.e. "Drag knot point")
+     * @param coalescingKey edits in a stream with the same key are merged into one entry, null to never merge
+     */
+    public void record(Hull before, Hull after, String label, String coalescingKey) {
+        if (before == null || after == null || before == after) return;
+        Edit edit = new Edit(label, coalescingKey, before, after);
+        if (edit.isEmpty()) return;
+
+        Edit last = undoStack.peekLast();
+        if (redoStack.isEmpty() && last != null && last.canCoalesce(edit)) last.merge(edit);
+        else {
+            undoStack.addLast(edit);
+            if (undoStack.size() > capacity) undoStack.removeFirst();
+        }
+        redoStack.clear();
+    }
+
+    /**
+     * @param current the hull currently in the editor, the state after the last recorded edit
+     * @return the hull before the last edit, null if there is nothing to undo
+     */
+    public Hull undo(Hull current) {
+        Edit edit = undoStack.pollLast();
+        if (edit == null) return null;
+        redoStack.addLast(edit);
+        return edit.apply(current, false);
+    }
+
+    /**
+     * @param current the hull currently in the editor, the state before the last undone edit
+     * @return the hull after the last undone edit, null if there is nothing to redo
+     */
+    public Hull redo(Hull current) {
+        Edit edit = redoStack.pollLast();
+        if (edit == null) return null;
+        undoStack.addLast(edit);
+        return edit.apply(current, true);
+    }
+
+    /**
+     * @return the label of the edit undo would revert, null if there is none
+     */
+    public String peekUndoLabel() {
+        Edit edit = undoStack.peekLast();
+        return edit == null ? null : edit.getLabel();
+    }
+
+    /**
+     * @return the label of the edit redo would reapply, null if there is none
+     */
+    public String peekRedoLabel() {
+        Edit edit = redoStack.peekLast();
+        return edit == null ? null : edit.getLabel();
+    }
+
+    /**
+     * Stop merging into the last entry, so the next edit starts a new one even within the coalescing window
+     */
+    public void seal() {
+        Edit last = undoStack.peekLast();
+        if (last != null) last.sealed = true;
+    }
+
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+    }
+}
@@ -1,7 +1,6 @@
 package com.wecca.canoeanalysis.services;
 
 import com.wecca.canoeanalysis.aop.Traceable;
-import com.wecca.canoeanalysis.controllers.modules.HullBuilderController;
 import com.wecca.canoeanalysis.models.canoe.Hull;
 import com.wecca.canoeanalysis.models.canoe.HullProperties;
 import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
@@ -31,13 +30,14 @@ import java.util.stream.IntStream;
  * and the bounds on what the user can do the keep the geometry reasonable for a hull
  * (one central theme for "reasonable" geometry is C1 continuity between adjacent hull sections).
  * This ultimately operates as a bridge between the data model (hull and sections) and the UI
+ * --------------------------------------------------------------------------------------
+ * The hull being edited (and the selected segment, overlay zones, etc.) are passed in rather than read from the editor,
+ * so the service holds no editor state and its results depend only on its arguments
+ * Edits never modify the hull passed in, they return a new hull derived from it (see Hull.derive())
  */
 @Traceable
 public class HullGeometryService {
 
-    @Setter
-    private static HullBuilderController hullBuilderController;
-
     // Refs
     @Setter
     private static double bottomMostAllowedHullHeight; // TODO would need to be updated with length scale once that's in HullBuilder
@@ -48,28 +48,17 @@ public class HullGeometryService {
     public static final double OPEN_INTERVAL_TOLERANCE = 1e-3;
     public static final double THICKNESS = HullLibrary.generateDefaultHull(HullLibrary.SHARK_BAIT_LENGTH).getMaxThickness();
 
-    /**
-     * In this service, we will prefer to only process and return data for the hull model
-     * Setting the processed data to the hull model should occur instead at the controller level
-     * @return a new memory reference to the hull equivalent to the one in HullBuilderController state
-     */
-    private static Hull getHull() {
-        if (hullBuilderController == null)
-            throw new IllegalStateException("HullBuilderController is not set");
-        return new Hull(hullBuilderController.getHull());
-    }
-
     /**
      * Calculates the maximum radius (r) such that a point at (r, theta) from an origin/knot (xO, yO)
      * remains within the rectangular bounds defined by x = 0, x = L, y = 0, y = -h.
+     * @param hull the hull being edited
      * @param knot the knot point which acts as the origin
      * @param thetaKnown the known angle in degrees (relative to the origin) at which the point lies.
      * @param selectedBezierSegmentIndex the index of the hullSection in the hull in which to bound the radius
      *                                 (not necessarily the current state hullSectionIndex in HullBuilderController)
      * @return The maximum radius (r) such that the point stays within the bounds.
      */
-    public static double calculateMaxR(Point2D knot, double thetaKnown, int selectedBezierSegmentIndex) {
-        Hull hull = getHull();
+    public static double calculateMaxR(Hull hull, Point2D knot, double thetaKnown, int selectedBezierSegmentIndex) {
         double hullHeight = -hull.getMaxHeight();
         CubicBezierFunction bezier = hull.getSideViewSegments().get(selectedBezierSegmentIndex);
         double xL = bezier.getX1();
@@ -111,6 +100,7 @@ public class HullGeometryService {
      * Returns the allowable angular range for a control point on a circle within a bounding rectangle.
      * Merges constraints from adjacent hull sections if needed, and applies a small tolerance so the range
      * does not collapse. If it does collapse, the range is set to a single value.
+     * @param hull the hull being edited
      * @param knot The reference point for polar coordinates
      * @param rKnown The radial distance from the knot to the control point
      * @param currTheta The current angle (in degrees)
@@ -120,8 +110,7 @@ public class HullGeometryService {
      *                                  (not necessarily the current state hullSectionIndex in HullBuilderController)
      * @return A two-element array containing the minimum and maximum valid theta values
      */
-    public static double[] calculateThetaBounds(Point2D knot, double rKnown, double currTheta, boolean isLeft, boolean boundWithAdjacentSections, int selectedBezierSegmentIndex) {
-        Hull hull = getHull();
+    public static double[] calculateThetaBounds(Hull hull, Point2D knot, double rKnown, double currTheta, boolean isLeft, boolean boundWithAdjacentSections, int selectedBezierSegmentIndex) {
         CubicBezierFunction bezier = hull.getSideViewSegments().get(selectedBezierSegmentIndex);
         double l = bezier.getX2() - bezier.getX1();
         double h = -hull.getMaxHeight();
@@ -132,7 +121,7 @@ public class HullGeometryService {
         double maxTheta = rawThetaBounds[1];
 
         if (boundWithAdjacentSections) {
-            double[] additionalThetaBounds = calculateAdjacentSectionThetaBounds(knot, isLeft, currTheta);
+            double[] additionalThetaBounds = calculateAdjacentSectionThetaBounds(hull, knot, isLeft, currTheta, selectedBezierSegmentIndex);
             minTheta = additionalThetaBounds != null
                     ? Math.max(minTheta, additionalThetaBounds[0])
                     : minTheta;
@@ -278,14 +267,14 @@ public class HullGeometryService {
     /**
      * Calculates additional theta bounds based on adjacent sections' control points to ensure smoothness and continuity.
      *
+     * @param hull the hull being edited
      * @param knot the knot point which acts as the origin
      * @param isLeft whether the control point belongs to the left knot or right knot
      * @param currTheta, the current theta value before the updated geometry, of the original section (NOT the adjacent section)
+     * @param selectedBezierSegmentIndex the index of the original section
      * @return [additionalMinTheta, additionalMaxTheta], or null for an edge knot (the first and last knot with no adjacent sections they are shared with)
      */
-    public static double[] calculateAdjacentSectionThetaBounds(Point2D knot, boolean isLeft, double currTheta) {
-        Hull hull = getHull();
-        int selectedBezierSegmentIndex = hullBuilderController.getSelectedBezierSegmentIndex();
+    public static double[] calculateAdjacentSectionThetaBounds(Hull hull, Point2D knot, boolean isLeft, double currTheta, int selectedBezierSegmentIndex) {
         double thetaMin = isLeft ? 180 : 0;
         double thetaMax = isLeft ? 360 : 180;
 
@@ -300,7 +289,7 @@ public class HullGeometryService {
                     ? adjacentSegment.getControlPoints().getLast()
                     : adjacentSegment.getControlPoints().getFirst();
             double siblingPointR = CalculusUtils.toPolar(siblingPoint, knot).getX();
-            double[] thetaBounds = calculateThetaBounds(knot, siblingPointR, (currTheta + 180) % 360, !isLeft, false, adjacentHullSectionIndex);
+            double[] thetaBounds = calculateThetaBounds(hull, knot, siblingPointR, (currTheta + 180) % 360, !isLeft, false, adjacentHullSectionIndex);
 
             thetaMin = Math.max(thetaMin, (thetaBounds[0] + 180) % 360);
             thetaMax = Math.min(thetaMax, (thetaBounds[1] + 180) % 360);
@@ -369,11 +358,12 @@ public class HullGeometryService {
      * x = 0, x = L (length of the hull section), y = 0, y = -h (negative of the maximum height of the hull).
      * Returns an array in the format:
      * [rLMin, rLMax, thetaLMin, thetaLMax, rRMin, rRMax, thetaRMin, thetaRMax].
+     * @param hull the hull being edited
+     * @param hullSectionIndex the index of the selected hull section
      */
-    public static double[] calculateParameterBounds() {
-        // Get hull and section details
-        CubicBezierFunction bezier = hullBuilderController.getSelectedBezierSegment();
-        int hullSectionIndex = hullBuilderController.getSelectedBezierSegmentIndex();
+    public static double[] calculateParameterBounds(Hull hull, int hullSectionIndex) {
+        // Get section details
+        CubicBezierFunction bezier = hull.getSideViewSegments().get(hullSectionIndex);
 
         // Get bezier knot points
         List<Point2D> knotPoints = bezier.getKnotPoints();
@@ -390,10 +380,10 @@ public class HullGeometryService {
 
         // Calculate bounds
         double rMin = HullGeometryService.OPEN_INTERVAL_TOLERANCE;
-        double rLMax = calculateMaxR(lKnot, thetaL, hullSectionIndex);
-        double rRMax = calculateMaxR(rKnot, thetaR, hullSectionIndex);
-        double[] thetaLBounds = calculateThetaBounds(lKnot, rL, thetaL, true, true, hullSectionIndex);
-        double[] thetaRBounds = calculateThetaBounds(rKnot, rR, thetaR, false, true, hullSectionIndex);
+        double rLMax = calculateMaxR(hull, lKnot, thetaL, hullSectionIndex);
+        double rRMax = calculateMaxR(hull, rKnot, thetaR, hullSectionIndex);
+        double[] thetaLBounds = calculateThetaBounds(hull, lKnot, rL, thetaL, true, true, hullSectionIndex);
+        double[] thetaRBounds = calculateThetaBounds(hull, rKnot, rR, thetaR, false, true, hullSectionIndex);
 
         // Return the min and max of each parameter (i.e. its bounds)
         return new double[] {
@@ -408,21 +398,22 @@ public class HullGeometryService {
     /**
      * Calculates the bounds for θ (theta) when r (radius) is updated.
      * Accounts for the geometry of the current section and optionally the adjacent sections.
+     * @param hull the hull being edited
+     * @param hullSectionIndex the index of the selected hull section
      * @param parameterIndex The index of the parameter being updated (0 or 2 for rL and rR).
      * @param siblingTheta The siblings initial θ value before being adjusted.
      * @param selectedR The current radius value for the parameter value being updated by the user.
      * @return An interval [thetaMin, thetaMax]
      */
-    public static double[] calculateSiblingThetaBounds(int parameterIndex, double siblingTheta, double selectedR) {
-        CubicBezierFunction bezier = hullBuilderController.getSelectedBezierSegment();
-        int hullSectionIndex = hullBuilderController.getSelectedBezierSegmentIndex();
+    public static double[] calculateSiblingThetaBounds(Hull hull, int hullSectionIndex, int parameterIndex, double siblingTheta, double selectedR) {
+        CubicBezierFunction bezier = hull.getSideViewSegments().get(hullSectionIndex);
         Point2D knot = (parameterIndex == 0) ? bezier.getKnotPoints().getFirst() : bezier.getKnotPoints().getLast();
 
         // Calculate theta bounds for the current section
-        double[] thetaBounds = calculateThetaBounds(knot, selectedR, siblingTheta, parameterIndex == 0, false, hullSectionIndex);
+        double[] thetaBounds = calculateThetaBounds(hull, knot, selectedR, siblingTheta, parameterIndex == 0, false, hullSectionIndex);
 
         // Merge bounds with adjacent sections if applicable
-        double[] additionalThetaBounds = calculateAdjacentSectionThetaBounds(knot, parameterIndex == 0, siblingTheta);
+        double[] additionalThetaBounds = calculateAdjacentSectionThetaBounds(hull, knot, parameterIndex == 0, siblingTheta, hullSectionIndex);
         double minTheta = (additionalThetaBounds != null)
                 ? Math.max(thetaBounds[0], additionalThetaBounds[0])
                 : thetaBounds[0];
@@ -438,16 +429,17 @@ public class HullGeometryService {
 
     /**
      * Calculates the maximum r (radius) when θ (theta) is updated.
+     * @param hull the hull being edited
+     * @param hullSectionIndex the index of the selected hull section
      * @param thetaParameterIndex The index of the parameter being updated (1 or 3 for θL and θR).
      * @param theta The current θ value for the parameter in the hull model being updated.
      * @return The maximum r value that keeps the control point within bounds.
      */
-    public static double calculateSiblingRMax(int thetaParameterIndex, double theta) {
+    public static double calculateSiblingRMax(Hull hull, int hullSectionIndex, int thetaParameterIndex, double theta) {
         if (!(thetaParameterIndex == 1 || thetaParameterIndex == 3)) throw new IllegalArgumentException("thetaParameterIndex must be 1 or 3");
-        CubicBezierFunction bezier = hullBuilderController.getSelectedBezierSegment();
-        int hullSectionIndex = hullBuilderController.getSelectedBezierSegmentIndex();
+        CubicBezierFunction bezier = hull.getSideViewSegments().get(hullSectionIndex);
         Point2D knot = (thetaParameterIndex == 1) ? bezier.getKnotPoints().getFirst() : bezier.getKnotPoints().getLast();
-        return calculateMaxR(knot, theta, hullSectionIndex);
+        return calculateMaxR(hull, knot, theta, hullSectionIndex);
     }
 
     /**
@@ -474,12 +466,12 @@ public class HullGeometryService {
      * @param parameterValues Array of current parameter values: [rL, θL, rR, θR]
      * @param bezierSegmentIndex the index of the bezier segment to update, or the selected segment if -1 (or any invalid index)
      */
-    private static Hull updatePolarHullParameter(Hull hull, int parameterIndex, double newParameterValue, double[] parameterValues, int bezierSegmentIndex) {
+    private static Hull applyPolarHullParameter(Hull hull, int parameterIndex, double newParameterValue, double[] parameterValues, int bezierSegmentIndex) {
         if (parameterValues.length != 4)
             throw new IllegalArgumentException("parameterValues must have exactly 4 elements: [rL, θL, rR, θR]");
 
         // Get knot points
-        CubicBezierFunction selectedBezier = hull.getSideViewSegments().get(bezierSegmentIndex);
+        CubicBezierFunction selectedBezier = hull.getEditableSideViewSegment(bezierSegmentIndex);
         List<Point2D> selectedKnotPoints = selectedBezier.getKnotPoints();
         Point2D selectedLKnot = selectedKnotPoints.getFirst();
         Point2D selectedRKnot = selectedKnotPoints.getLast();
@@ -503,7 +495,7 @@ public class HullGeometryService {
 
         if (adjustingLeft || adjustingRight) {
             int adjacentIndex = bezierSegmentIndex + (adjustingLeft ? -1 : 1);
-            CubicBezierFunction adjacentBezier = hull.getSideViewSegments().get(adjacentIndex);
+            CubicBezierFunction adjacentBezier = hull.getEditableSideViewSegment(adjacentIndex);
             Point2D selectedKnot = adjustingLeft ? selectedLKnot : selectedRKnot;
 
             // Calculate deltas for the adjacent control point
@@ -512,33 +504,33 @@ public class HullGeometryService {
 
             // Adjust the control point of the adjacent section
             adjustAdjacentSectionControlPoint(adjacentBezier, adjustingLeft, deltas.getX(), deltas.getY());
-            hull.getSideViewSegments().set(adjacentIndex, adjacentBezier);
         }
         return hull;
     }
 
     /**
-     * A publicly accessible overload of updateHullParameter
+     * The publicly accessible version of applyPolarHullParameter, which edits a hull derived from the one passed in
+     * @param hull the hull being edited
+     * @param selectedBezierSegmentIndex the index of the bezier segment to update
+     * @return the new hull
      */
-    public static Hull updatePolarHullParameter(int parameterIndex, double newParameterValue, double[] parameterValues) {
-        int selectedBezierSegmentIndex = hullBuilderController.getSelectedBezierSegmentIndex();
-        Hull hull = getHull();
-        return updatePolarHullParameter(hull, parameterIndex, newParameterValue, parameterValues, selectedBezierSegmentIndex);
+    public static Hull updatePolarHullParameter(Hull hull, int selectedBezierSegmentIndex, int parameterIndex, double newParameterValue, double[] parameterValues) {
+        return applyPolarHullParameter(hull.derive(), parameterIndex, newParameterValue, parameterValues, selectedBezierSegmentIndex);
     }
 
     /**
      * Returns an editable knot point for a given function-space x coordinate.
      * Note: This corresponds to only deleting and dragging operations, and NOT the add knot point operation
+     * @param hull the hull being edited
+     * @param overlayZones the zones of the Bézier handles overlaid on the hull graphic
      * @param functionSpaceX the x coordinate in function space
      * @return the editable knot point as a Point2D
      *         or null if in an add knot point zone
      *         or null for the first and last ("edge") knots since they are locked (i.e. not editable)
      *         also null in the case that the mouse is outside the hull zone (i.e. the mouseXTrackerLine is not covering the hull graphic)
      */
-    public static Point2D getEditableKnotPoint(double functionSpaceX) {
-        Hull hull = getHull();
+    public static Point2D getEditableKnotPoint(Hull hull, List<Zone> overlayZones, double functionSpaceX) {
         List<CubicBezierFunction> sideViewSegments = hull.getSideViewSegments();
-        List<Zone> overlayZones = hullBuilderController.getOverlayZones();
         if (overlayZones == null) return null;
 
         for (int i = 0; i < overlayZones.size(); i++) {
@@ -601,13 +593,14 @@ public class HullGeometryService {
      * The control point is repositioned to preserve its original polar offset (distance and angle) relative to the knot.
      * If the candidate control point falls outside its allowed horizontal (from control points) or vertical (global)
      * envelope, it is retracted along its ray until it lies on the boundary.
+     * @param originalHull the hull being edited
      * @param knotPos the original position of the knot in the side view
      * @param newKnotPos the new (requested) position for the knot in the side view
      * @return a new Hull instance with updated side–view curves and refreshed hull properties
      *         or null if the user dragged the first or last knot point which are anchored in place
      */
-    public static Hull dragKnotPoint(@NonNull Point2D knotPos, @NonNull Point2D newKnotPos, Point2D optionalMinKnot) {
-        Hull hull = getHull();
+    public static Hull dragKnotPoint(@NonNull Hull originalHull, @NonNull Point2D knotPos, @NonNull Point2D newKnotPos, Point2D optionalMinKnot) {
+        Hull hull = originalHull.derive();
         double eps = OPEN_INTERVAL_TOLERANCE;
         boolean isDraggingMinKnot = optionalMinKnot != null;
         double top = -eps;
@@ -619,6 +612,7 @@ public class HullGeometryService {
             if (bezier.getKnotPoints().getFirst().distance(knotPos) < 1e-6) {
                 // User tried to drag the left endpoint
                 if (i == 0) return null;
+                bezier = hull.getEditableSideViewSegment(i);
 
                 // Update the current segment's knot to the new position.
                 bezier.setX1(newKnotPos.getX());
@@ -641,7 +635,7 @@ public class HullGeometryService {
                 bezier.setControlY1(candidateControl.getY());
 
                 // Update left-adjacent segment if it exists.
-                CubicBezierFunction prevBezier = hull.getSideViewSegments().get(i - 1);
+                CubicBezierFunction prevBezier = hull.getEditableSideViewSegment(i - 1);
                 prevBezier.setX2(newKnotPos.getX());
                 prevBezier.setY2(newKnotPos.getY());
                 Point2D oldControlPrev = new Point2D(prevBezier.getControlX2(), prevBezier.getControlY2());
@@ -702,7 +696,8 @@ public class HullGeometryService {
                         newTheta = Math.min(newTheta, flatTheta - 5 * eps);
                         if (Math.abs(currTheta - newTheta) > eps) {
                             double[] newParams = new double[] {polarValues.get(0), newTheta, polarValues.get(2), polarValues.get(3)};
-                            updatePolarHullParameter(hull, 1, newTheta, newParams, i);
+                            applyPolarHullParameter(hull, 1, newTheta, newParams, i);
+                            seg = segments.get(i);
                             rotated = true;
                             startKnot = seg.getKnotPoints().getFirst();
                             isStartMin = Math.abs(startKnot.getY() - newMinKnot.getY()) <= 2 * eps;
@@ -714,12 +709,16 @@ public class HullGeometryService {
                 double leftKnotOrControlYToCompare = i == 0 ? seg.getControlY1() : startKnot.getY();
                 if (leftKnotOrControlYToCompare < targetY) {
                     if ((i != 0) && (!isStartMin || !rotated)) {
+                        seg = hull.getEditableSideViewSegment(i);
                         seg.setY1(targetY);
                         seg.setControlY1(targetY);
-                        segments.get(i - 1).setY2(targetY);
-                        segments.get(i - 1).setControlY2(targetY);
+                        hull.getEditableSideViewSegment(i - 1).setY2(targetY);
+                        hull.getEditableSideViewSegment(i - 1).setControlY2(targetY);
+                    }
+                    else if (i == 0) {
+                        seg = hull.getEditableSideViewSegment(i);
+                        seg.setControlY1(targetY);
                     }
-                    else if (i == 0) seg.setControlY1(targetY);
                 }
             }
 
@@ -740,7 +739,8 @@ public class HullGeometryService {
                         newTheta = Math.max(newTheta, flatTheta + 5 * eps);
                         if (Math.abs(currTheta - newTheta) > eps) {
                             double[] newParams = new double[] {polarValues.get(0), polarValues.get(1), polarValues.get(2), newTheta};
-                            updatePolarHullParameter(hull, 3, newTheta, newParams, i);
+                            applyPolarHullParameter(hull, 3, newTheta, newParams, i);
+                            seg = segments.get(i);
                             rotated = true;
                             endKnot = seg.getKnotPoints().getLast();
                             isEndMin = Math.abs(endKnot.getY() - newMinKnot.getY()) <= 2 * eps;
@@ -752,12 +752,16 @@ public class HullGeometryService {
                 double rightKnotOrControlYToCompare = i == segments.size() - 1 ? seg.getControlY2() : endKnot.getY();
                 if (rightKnotOrControlYToCompare < targetY) {
                     if ((i != segments.size() - 1) && (!isEndMin || !rotated)) {
+                        seg = hull.getEditableSideViewSegment(i);
                         seg.setY2(targetY);
                         seg.setControlY2(targetY);
-                        segments.get(i + 1).setY1(targetY);
-                        segments.get(i + 1).setControlY1(targetY);
+                        hull.getEditableSideViewSegment(i + 1).setY1(targetY);
+                        hull.getEditableSideViewSegment(i + 1).setControlY1(targetY);
+                    }
+                    else if (i == segments.size() - 1) {
+                        seg = hull.getEditableSideViewSegment(i);
+                        seg.setControlY2(targetY);
                     }
-                    else if (i == segments.size() - 1) seg.setControlY2(targetY);
                 }
             }
         }
@@ -814,21 +818,19 @@ public class HullGeometryService {
      * 1. Finds the segment (by index) in which the new knot’s x–coordinate lies.
      * 2. Splits that segment’s side view and top view curves using de Casteljau’s algorithm.
      * 3. Updates the thickness and bulkhead maps for the split segment.
-     * 4. Rebuilds new lists of side and top segments by inserting the two new segments in place of the old one.
-     * 5. Constructs and returns a new Hull via the new model constructor.
+     * 4. Derives a new Hull from the original and inserts the two new segments and map entries in place of the old ones.
+     * 5. Returns the derived Hull, which still shares the unchanged segments and map entries with the original.
+     * @param hull the hull being edited, left unchanged
      * @param knotPointToAdd the new knot point (x,y) on the existing curve
      * @return a new Hull with the updated side and top segments and updated property maps
      * @throws IllegalArgumentException if the new knot’s x–coordinate is out of range.
      */
-    public static Hull addKnotPoint(@NonNull Point2D knotPointToAdd) {
-        // Get a deep copy of the current hull.
-        Hull hull = getHull();
-        if (hull == null) throw new RuntimeException("Marshalling error deep copying the hull");
+    public static Hull addKnotPoint(@NonNull Hull hull, @NonNull Point2D knotPointToAdd) {
+        // The hull is only read, the new hull is derived from it below
         double newX = knotPointToAdd.getX();
 
         // Get current side and top view segments and property maps.
         List<CubicBezierFunction> oldSideSegments = hull.getSideViewSegments();
-        List<CubicBezierFunction> oldTopSegments = hull.getTopViewSegments();
         List<SectionPropertyMapEntry> oldThicknessMap = hull.getHullProperties().getThicknessMap();
         List<SectionPropertyMapEntry> oldBulkheadMap = hull.getHullProperties().getBulkheadMap();
 
@@ -858,8 +860,8 @@ public class HullGeometryService {
                 .min(Comparator.comparingDouble(Point2D::getY))
                 .orElseThrow(() -> new RuntimeException("No minimum side knot found"));
         double globalMinY = globalMinSideKnot.getY();
-        adjustBezierWithMinKnot(leftSide, globalMinY, splitIndex);
-        adjustBezierWithMinKnot(rightSide, globalMinY, splitIndex);
+        adjustBezierWithMinKnot(hull, leftSide, globalMinY, splitIndex);
+        adjustBezierWithMinKnot(hull, rightSide, globalMinY, splitIndex);
 
         // Split the top–view segment
         CubicBezierFunction oldTop = CalculusUtils.getSegmentForX(hull.getSideViewSegments(), newX);
@@ -874,44 +876,26 @@ public class HullGeometryService {
                 .min(Comparator.comparingDouble(Point2D::getY))
                 .orElseThrow(() -> new RuntimeException("No minimum top knot found"));
         double globalMinYTop = globalMinTopKnot.getY();
-        adjustBezierWithMinKnot(leftTop, globalMinYTop, splitIndex);
-        adjustBezierWithMinKnot(rightTop, globalMinYTop, splitIndex);
-
-        // Rebuild the lists for side segments, top segments, and maps
-        List<CubicBezierFunction> newSideSegments = new ArrayList<>(oldSideSegments.size() + 1);
-        List<CubicBezierFunction> newTopSegments = new ArrayList<>(oldTopSegments.size() + 1);
-        List<SectionPropertyMapEntry> newThicknessMap = new ArrayList<>(oldThicknessMap.size() + 1);
-        List<SectionPropertyMapEntry> newBulkheadMap = new ArrayList<>(oldBulkheadMap.size() + 1);
-
-        // Loop over the old lists, and when we reach the split index, insert the two new segments and map entries.
-        for (int i = 0; i < oldSideSegments.size(); i++) {
-            if (i == splitIndex) {
-                // For the split segment, get its original map entries.
-                SectionPropertyMapEntry oldThickness = oldThicknessMap.get(i);
-                SectionPropertyMapEntry oldBulkhead = oldBulkheadMap.get(i);
-                SectionPropertyMapEntry leftThicknessEntry = new SectionPropertyMapEntry(oldThickness.getX(), newX, oldThickness.getValue());
-                SectionPropertyMapEntry rightThicknessEntry = new SectionPropertyMapEntry(newX, oldThickness.getRx(), oldThickness.getValue());
-                SectionPropertyMapEntry leftBulkheadEntry = new SectionPropertyMapEntry(oldBulkhead.getX(), newX, oldBulkhead.getValue());
-                SectionPropertyMapEntry rightBulkheadEntry = new SectionPropertyMapEntry(newX, oldBulkhead.getRx(), oldBulkhead.getValue());
-                newSideSegments.add(leftSide);
-                newSideSegments.add(rightSide);
-                newTopSegments.add(leftTop);
-                newTopSegments.add(rightTop);
-                newThicknessMap.add(leftThicknessEntry);
-                newThicknessMap.add(rightThicknessEntry);
-                newBulkheadMap.add(leftBulkheadEntry);
-                newBulkheadMap.add(rightBulkheadEntry);
-            }
-            // Copy over unchanged segments and map entries.
-            else {
-                newSideSegments.add(oldSideSegments.get(i));
-                newTopSegments.add(oldTopSegments.get(i));
-                newThicknessMap.add(oldThicknessMap.get(i));
-                newBulkheadMap.add(oldBulkheadMap.get(i));
-            }
-        }
-        HullProperties newProps = new HullProperties(newThicknessMap, newBulkheadMap);
-        return new Hull(hull.getConcreteDensity(), hull.getBulkheadDensity(), newProps, newSideSegments, newTopSegments);
+        adjustBezierWithMinKnot(hull, leftTop, globalMinYTop, splitIndex);
+        adjustBezierWithMinKnot(hull, rightTop, globalMinYTop, splitIndex);
+
+        // Replace the split section in a hull derived from the original, which shares the unchanged segments and map entries
+        SectionPropertyMapEntry oldThickness = oldThicknessMap.get(splitIndex);
+        SectionPropertyMapEntry oldBulkhead = oldBulkheadMap.get(splitIndex);
+        Hull newHull = hull.derive();
+        List<CubicBezierFunction> newSideSegments = newHull.getSideViewSegments();
+        List<CubicBezierFunction> newTopSegments = newHull.getTopViewSegments();
+        List<SectionPropertyMapEntry> newThicknessMap = newHull.getHullProperties().getThicknessMap();
+        List<SectionPropertyMapEntry> newBulkheadMap = newHull.getHullProperties().getBulkheadMap();
+        newSideSegments.set(splitIndex, leftSide);
+        newSideSegments.add(splitIndex + 1, rightSide);
+        newTopSegments.set(splitIndex, leftTop);
+        newTopSegments.add(splitIndex + 1, rightTop);
+        newThicknessMap.set(splitIndex, new SectionPropertyMapEntry(oldThickness.getX(), newX, oldThickness.getValue()));
+        newThicknessMap.add(splitIndex + 1, new SectionPropertyMapEntry(newX, oldThickness.getRx(), oldThickness.getValue()));
+        newBulkheadMap.set(splitIndex, new SectionPropertyMapEntry(oldBulkhead.getX(), newX, oldBulkhead.getValue()));
+        newBulkheadMap.add(splitIndex + 1, new SectionPropertyMapEntry(newX, oldBulkhead.getRx(), oldBulkhead.getValue()));
+        return newHull;
     }
 
 
@@ -919,16 +903,17 @@ public class HullGeometryService {
      * Adjusts a given CubicBezierFunction after an operation has been done it to ensure its validity
      * If a control point lies below the provided minimum Y (minY), its radial coordinate (r)
      * is clamped into a valid range by computing the maximum allowed radius (via calculateMaxR) for that knot.
+     * @param referenceHull the hull before the operation, which bounds the radius
      * @param bezier the CubicBezierFunction to adjust
      * @param minY the minimum allowed Y value (from the global minimum knot)
      * @param sectionIndex the index of the section (used in calculateMaxR)
      */
-    private static void adjustBezierWithMinKnot(CubicBezierFunction bezier, double minY, int sectionIndex) {
+    private static void adjustBezierWithMinKnot(Hull referenceHull, CubicBezierFunction bezier, double minY, int sectionIndex) {
         // Adjust the first control point (relative to the first knot)
         Point2D firstControl = bezier.getControlPoints().getFirst();
         if (firstControl.getY() < minY) {
             double theta = CalculusUtils.toPolar(firstControl, bezier.getKnotPoints().getFirst()).getY();
-            double maxR = calculateMaxR(bezier.getKnotPoints().getFirst(), Math.toDegrees(theta), sectionIndex);
+            double maxR = calculateMaxR(referenceHull, bezier.getKnotPoints().getFirst(), Math.toDegrees(theta), sectionIndex);
             Point2D updatedPoint = CalculusUtils.toCartesian(new Point2D(maxR, theta), bezier.getKnotPoints().getFirst());
             bezier.setControlX1(updatedPoint.getX());
             bezier.setControlY1(updatedPoint.getY());
@@ -937,7 +922,7 @@ public class HullGeometryService {
         Point2D lastControl = bezier.getControlPoints().getLast();
         if (lastControl.getY() < minY) {
             double theta = CalculusUtils.toPolar(lastControl, bezier.getKnotPoints().getLast()).getY();
-            double maxR = calculateMaxR(bezier.getKnotPoints().getLast(), Math.toDegrees(theta), sectionIndex);
+            double maxR = calculateMaxR(referenceHull, bezier.getKnotPoints().getLast(), Math.toDegrees(theta), sectionIndex);
             Point2D updatedPoint = CalculusUtils.toCartesian(new Point2D(maxR, theta), bezier.getKnotPoints().getLast());
             bezier.setControlX2(updatedPoint.getX());
             bezier.setControlY2(updatedPoint.getY());
@@ -994,11 +979,11 @@ public class HullGeometryService {
     /**
      * Deletes a knot point from the hull model.
      * Merges adjacent sections around the knot point to maintain continuity.
+     * @param hull the hull being edited, left unchanged
      * @param knotPointToDelete the knot point to delete from the hull model
      * @return the updated Hull
      */
-    public static Hull deleteKnotPoint(Point2D knotPointToDelete) {
-        Hull hull = getHull();
+    public static Hull deleteKnotPoint(@NonNull Hull hull, Point2D knotPointToDelete) {
         if (knotPointToDelete == null) return null;
 
         // Prevent deleting the min knot
@@ -1013,7 +998,7 @@ public class HullGeometryService {
             double knotX = knotPoint.getX();
             double knotY = knotPoint.getY();
             if (Math.abs(knotX - knotPointToDelete.getX()) < 1e-6 && Math.abs(knotY - knotPointToDelete.getY()) < 1e-6) {
-                if (i > 0) return getHullWithMergedAdjacentSections(i);
+                if (i > 0) return getHullWithMergedAdjacentSections(hull, i);
                 else return null;
             }
         }
@@ -1024,12 +1009,13 @@ public class HullGeometryService {
      * Merges two adjacent hull sections (new model) to maintain continuity after a knot point is deleted.
      * This method updates the side–view segments, top–view segments, and the associated thickness and bulkhead maps.
      * It assumes that the lists in hullProperties match the size of the side–view and top–view segment lists.
+     * @param originalHull the hull before the merge, left unchanged
      * @param rightIndex the index of the right section (in the side–view list) of the two sections to merge. Must be >= 1.
      * @return the updated Hull with merged segments.
      * @throws IllegalArgumentException if rightIndex is less than 1 or if any segment is non–Bezier.
      */
-    private static Hull getHullWithMergedAdjacentSections(int rightIndex) {
-        Hull hull = getHull();
+    private static Hull getHullWithMergedAdjacentSections(Hull originalHull, int rightIndex) {
+        Hull hull = originalHull.derive();
 
         if (rightIndex <= 0) throw new IllegalArgumentException("Index must be at least 1");
         int leftIndex = rightIndex - 1;
@@ -1042,7 +1028,7 @@ public class HullGeometryService {
         List<SectionPropertyMapEntry> bulkheadMap = props.getBulkheadMap();
 
         // Merge side–view segments
-        CubicBezierFunction leftBezier = sideSegments.get(leftIndex);
+        CubicBezierFunction leftBezier = hull.getEditableSideViewSegment(leftIndex);
         CubicBezierFunction rightBezier = sideSegments.get(rightIndex);
         Point2D rightKnot = rightBezier.getKnotPoints().getLast();
         Point2D rightControl = rightBezier.getControlPoints().getLast();
@@ -1050,11 +1036,11 @@ public class HullGeometryService {
         leftBezier.setY2(rightKnot.getY());
         leftBezier.setControlX2(rightControl.getX());
         leftBezier.setControlY2(rightControl.getY());
-        thicknessMap.get(leftIndex).setRx(rightKnot.getX());
-        bulkheadMap.get(leftIndex).setRx(rightKnot.getX());
+        hull.getEditableThicknessMapEntry(leftIndex).setRx(rightKnot.getX());
+        hull.getEditableBulkheadMapEntry(leftIndex).setRx(rightKnot.getX());
 
         // Merge top–view segments
-        CubicBezierFunction leftTopBezier = topSegments.get(leftIndex);
+        CubicBezierFunction leftTopBezier = hull.getEditableTopViewSegment(leftIndex);
         CubicBezierFunction rightTopBezier = topSegments.get(rightIndex);
         Point2D rightKnotTop = rightTopBezier.getKnotPoints().getLast();
         Point2D rightControlTop = rightTopBezier.getControlPoints().getLast();
@@ -1079,10 +1065,10 @@ public class HullGeometryService {
                 .orElseThrow(() -> new RuntimeException("No minimum knot found"));
         double minY = globalMinKnot.getY();
 
-        // Adjust all side–view segments in one loop.
+        // Adjust all side–view segments in one loop, only those with a control point below the min are edited
         IntStream.range(0, sideSegments.size()).forEach(i -> {
-            CubicBezierFunction seg = sideSegments.get(i);
-            adjustBezierWithMinKnot(seg, minY, i);
+            boolean hasControlBelowMin = sideSegments.get(i).getControlPoints().stream().anyMatch(point -> point.getY() < minY);
+            if (hasControlBelowMin) adjustBezierWithMinKnot(originalHull, hull.getEditableSideViewSegment(i), minY, i);
         });
 
         return hull;
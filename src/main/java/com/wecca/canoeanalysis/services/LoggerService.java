@@ -1,15 +1,22 @@
 package com.wecca.canoeanalysis.services;
 
 import ch.qos.logback.core.PropertyDefinerBase;
+import com.wecca.canoeanalysis.models.data.PointDumpFormat;
 import com.wecca.canoeanalysis.models.function.Section;
 import javafx.geometry.Point2D;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
@@ -26,6 +33,7 @@ public class LoggerService {
      * Redirects System.err to SLF4J's log.error() and System.out to SLF4J's log.info().
      * Note: We lose printing on the same line because SLF4J logs messages one at a time.
      * Thus print and println basically become the same thing
+     * The appenders are asynchronous (see logback.xml) so printing only enqueues the message
      */
     public static void redirectSystemStreamsToLogger() {
         // Redirect System.err to log.error()
@@ -47,7 +55,7 @@ public class LoggerService {
 
             @Override
             public PrintStream printf(@NonNull String format, Object... args) {
-                log.error(String.format(format, args));
+                if (log.isErrorEnabled()) log.error(String.format(format, args));
                 return this;
             }
         };
@@ -72,7 +80,7 @@ public class LoggerService {
 
             @Override
             public PrintStream printf(@NonNull String format, Object... args) {
-                log.info(String.format(format, args));
+                if (log.isInfoEnabled()) log.info(String.format(format, args));
                 return this;
             }
         };
@@ -134,13 +142,14 @@ public class LoggerService {
         // Sample the function over [start, end] and print x and y values
         double x = section.getX();
         double rx = section.getRx();
-        System.out.println("Sampling the function over the domain [" + x + ", " + rx + "]:");
+        StringBuilder block = new StringBuilder("Sampling the function over the domain [" + x + ", " + rx + "]:");
         double step = (rx - x) / numSamples;
         for (int i = 0; i <= numSamples; i++) {
             double xValue = x + i * step;
             double yValue = function.apply(xValue);
-            System.out.println("x: " + xValue + ", y: " + yValue);
+            block.append(System.lineSeparator()).append("x: ").append(xValue).append(", y: ").append(yValue);
         }
+        log.info(block.toString());
     }
 
     /**
@@ -156,8 +165,7 @@ public class LoggerService {
         for (CubicBezierFunction cbf : bezierFunctions) {
             Function<Double, Double> function = cbf::value;
             Section domain = new Section(cbf.getX(), cbf.getRx());
-            System.out.println("Logging points for Bézier curve with domain ["
-                    + domain.getX() + ", " + domain.getRx() + "]:");
+            log.info("Logging points for Bézier curve with domain [{}, {}]:", domain.getX(), domain.getRx());
             logPoints(function, domain, numSamples);
         }
     }
@@ -168,11 +176,99 @@ public class LoggerService {
      */
     @SuppressWarnings("unused")
     public static void logPoints(List<Point2D> points) {
-        System.out.println("Logging 2D points:");
+        StringBuilder block = new StringBuilder("Logging 2D points:");
         for (Point2D point : points) {
-            double xValue = point.getX();
-            double yValue = point.getY();
-            System.out.println("x: " + xValue + ", y: " + yValue);
+            block.append(System.lineSeparator()).append("x: ").append(point.getX()).append(", y: ").append(point.getY());
         }
+        log.info(block.toString());
+    }
+
+    /**
+     * Write points to logs/points-<name>-<timestamp>.<csv|bin> in the resources folder in one buffered write
+     * For numeric dumps too large to go through the logger line by line (i.e. a whole SFD or every sample of a curve)
+     * Read a CSV dump with util/scatter-plot.py, or a binary dump with numpy:
+     * np.fromfile(path, dtype='>f8', offset=4).reshape(-1, 2)
+     * @param name the name of the dump, included in the file name
+     * @param xs the x values
+     * @param ys the y values, the same length as xs
+     * @param format CSV or BINARY
+     * @return the path of the written file
+     */
+    public static Path dumpPoints(String name, double[] xs, double[] ys, PointDumpFormat format) {
+        if (xs.length != ys.length)
+            throw new IllegalArgumentException("xs and ys must have the same length");
+        try {
+            Path logDir = ResourceManagerService.getResourcePathResolved("logs");
+            Files.createDirectories(logDir);
+            Path dumpPath = logDir.resolve(String.format("points-%s-%s.%s", name,
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")), format.getExtension()));
+            switch (format) {
+                case CSV -> {
+                    try (BufferedWriter writer = Files.newBufferedWriter(dumpPath)) {
+                        writer.write("x,y");
+                        writer.newLine();
+                        for (int i = 0; i < xs.length; i++) {
+                            writer.write(Double.toString(xs[i]));
+                            writer.write(',');
+                            writer.write(Double.toString(ys[i]));
+                            writer.newLine();
+                        }
+                    }
+                }
+                case BINARY -> {
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dumpPath)))) {
+                        out.writeInt(xs.length);
+                        for (int i = 0; i < xs.length; i++) {
+                            out.writeDouble(xs[i]);
+                            out.writeDouble(ys[i]);
+                        }
+                    }
+                }
+            }
+            log.info("Dumped {} points to {}", xs.length, dumpPath);
+            return dumpPath;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write points dump", e);
+        }
+    }
+
+    /**
+     * See other overload of dumpPoints, same idea for a discrete set of points
+     */
+    public static Path dumpPoints(String name, List<Point2D> points, PointDumpFormat format) {
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = points.get(i).getX();
+            ys[i] = points.get(i).getY();
+        }
+        return dumpPoints(name, xs, ys, format);
+    }
+
+    /**
+     * See other overload of dumpPoints, samples a function like logPoints does
+     */
+    public static Path dumpPoints(String name, Function<Double, Double> function, Section section, int numSamples, PointDumpFormat format) {
+        double[] xs = new double[numSamples + 1];
+        double[] ys = new double[numSamples + 1];
+        double step = (section.getRx() - section.getX()) / numSamples;
+        for (int i = 0; i <= numSamples; i++) {
+            xs[i] = section.getX() + i * step;
+            ys[i] = function.apply(xs[i]);
+        }
+        return dumpPoints(name, xs, ys, format);
+    }
+
+    /**
+     * Dump the points of each Bézier curve to its own file, see logBezierPoints
+     * @return the paths of the written files, one per curve
+     */
+    public static List<Path> dumpBezierPoints(String name, List<CubicBezierFunction> bezierFunctions, int numSamples, PointDumpFormat format) {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < bezierFunctions.size(); i++) {
+            CubicBezierFunction cbf = bezierFunctions.get(i);
+            paths.add(dumpPoints(name + "-" + i, cbf::value, new Section(cbf.getX(), cbf.getRx()), numSamples, format));
+        }
+        return paths;
     }
 }
\ No newline at end of file
@@ -1,31 +1,54 @@
 package com.wecca.canoeanalysis.services;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import com.wecca.canoeanalysis.aop.Traceable;
 import com.wecca.canoeanalysis.controllers.modules.BeamController;
+import com.wecca.canoeanalysis.controllers.modules.CriticalSectionsController;
+import com.wecca.canoeanalysis.controllers.modules.FailureEnvelopeController;
 import com.wecca.canoeanalysis.controllers.MainController;
 import com.wecca.canoeanalysis.controllers.modules.HullBuilderController;
 import com.wecca.canoeanalysis.controllers.modules.PunchingShearController;
 import com.wecca.canoeanalysis.models.canoe.Canoe;
 import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.canoe.HullProperties;
 import com.wecca.canoeanalysis.models.data.DevConfig;
+import com.wecca.canoeanalysis.models.data.TraceSampling;
 import com.wecca.canoeanalysis.models.data.Settings;
+import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
 import com.wecca.canoeanalysis.models.load.Load;
+import com.wecca.canoeanalysis.utils.LoadUtils;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import lombok.Setter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 
 /**
  * Marshalling and unmarshalling of POJO models
- * Only dealing with YAML and file I/O so far
+ * Models are saved as YAML or as binary Smile project files (*.smile), which are smaller and load several times faster
+ * ------------------------------------------------------------------------------------------------
+ * A Smile project file is a single object with a versioned header ahead of the model:
+ * {format: "canoe-analysis", version: 1, model: "Canoe", data: {...}}
+ * Project files are read and written in one streaming pass, and convert() turns one format into the other
+ * Uploads detect the format from the content, so a project file can have any extension
  */
 @Traceable
 public class MarshallingService {
@@ -38,29 +61,48 @@ public class MarshallingService {
     private static HullBuilderController hullBuilderController;
     @Setter
     private static PunchingShearController punchingShearController;
+    @Setter
+    private static CriticalSectionsController criticalSectionsController;
+    @Setter
+    private static FailureEnvelopeController failureEnvelopeController;
 
     private static final ObjectMapper yamlMapper;
     private static final ObjectMapper smileMapper;
 
+    // Smile project files
+    public static final String PROJECT_FORMAT = "canoe-analysis";
+    public static final int PROJECT_FORMAT_VERSION = 1;
+    public static final String PROJECT_FILE_EXTENSION = ".smile";
+    private static final byte[] SMILE_MAGIC = {':', ')', '\n'};
+    private static final String CANOE_IMPORT_CHANNEL = "canoe-import";
+    private static final String YAML_WARNING_COMMENT = "# Please do not manually modify the contents of this file before uploading, it may result in unexpected results\n";
+
     public static final String SETTINGS_FILE_PATH = ResourceManagerService.getResourceFilePathString("settings/settings.yaml", true);
     public static final String DEV_CONFIG_FILE_PATH = ResourceManagerService.getResourceFilePathString("settings/dev-config.yaml", true);
     public static final boolean TRACING;
     public static final boolean DEBOUNCING;
+    public static final boolean TRACE_ARGUMENTS;
+    public static final boolean METRICS;
+    public static final TraceSampling TRACE_SAMPLING;
+    public static final Map<String, TraceSampling> TRACE_METHOD_SAMPLING;
 
     // Initializations, and loading state
     static {
         yamlMapper = new ObjectMapper(new YAMLFactory().disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER));
         yamlMapper.findAndRegisterModules();
-        smileMapper = new ObjectMapper(new SmileFactory());
+        // Shared string values back-reference repeated strings such as load types, shrinking large canoes
+        smileMapper = new ObjectMapper(new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES));
 
         try {
-            // These have to be separated out because objects cannot be created in static initializers
-            TRACING = MarshallingService
-                    .loadYamlData(DevConfig.class, new DevConfig(false, true),
-                            MarshallingService.DEV_CONFIG_FILE_PATH).isTracing();
-            DEBOUNCING = MarshallingService
-                    .loadYamlData(DevConfig.class, new DevConfig(false, true),
-                            MarshallingService.DEV_CONFIG_FILE_PATH).isDebouncing();
+            // Load once and assign after, traced calls made while loading see all flags unset
+            DevConfig devConfig = MarshallingService.loadYamlData(DevConfig.class, new DevConfig(false, true, false, false, null, null),
+                    MarshallingService.DEV_CONFIG_FILE_PATH);
+            TRACE_ARGUMENTS = devConfig.isTraceArguments();
+            METRICS = devConfig.isMetrics();
+            TRACE_SAMPLING = devConfig.getTraceSampling();
+            TRACE_METHOD_SAMPLING = devConfig.getTraceMethodSampling();
+            DEBOUNCING = devConfig.isDebouncing();
+            TRACING = devConfig.isTracing();
         } catch (IOException e) {throw new RuntimeException(e);}
     }
 
@@ -73,19 +115,18 @@ public class MarshallingService {
     }
 
     /**
-     * Prompts the user the download the current cano model to a YAML representation
-     * @param canoe the canoe model to download to YAML
+     * Prompts the user the download the current cano model to a YAML representation or a Smile project file
+     * @param canoe the canoe model to download
      * @param stage the stage to have the FileChooser model popup onto
-     * @return the YAML file downloaded, or null if no file was downloaded
+     * @return the file downloaded, or null if no file was downloaded
      */
-    public static File exportCanoeToYAML(Canoe canoe, Stage stage){
+    public static File exportCanoe(Canoe canoe, Stage stage){
         // Create a file chooser
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Download Canoe");
 
-        // Set extension filter for YAML files
-        FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("YAML (*.yaml)", "*.yaml");
-        fileChooser.getExtensionFilters().add(extFilter);
+        // Set extension filters for YAML and project files
+        addExportExtensionFilters(fileChooser);
 
         // Set default file name
         fileChooser.setInitialFileName("canoe");
@@ -94,9 +135,9 @@ public class MarshallingService {
         File fileToDownload = fileChooser.showSaveDialog(stage);
 
         if (fileToDownload != null) {
+            fileToDownload = withChosenExtension(fileChooser, fileToDownload);
             try {
-                // Serialize the object to a YAML string
-
+                // The buoyancy is solved for on load, so it is not saved
                 for (int i = 0; i < canoe.getLoads().size(); i++) {
                     if (canoe.getLoads().get(i).getType().name().equals("BUOYANCY")) {
                         canoe.getLoads().remove(i);
@@ -104,16 +145,7 @@ public class MarshallingService {
                     }
                 }
 
-                String yamlString = yamlMapper.writeValueAsString(canoe);
-
-                // Add a comment to the top of the YAML string
-                String comment = "# Please do not manually modify the contents of this file before uploading, it may result in unexpected results\n";
-                yamlString = comment + yamlString;
-
-                // Write the YAML string to a file
-                try (FileWriter writer = new FileWriter(fileToDownload)) {
-                    writer.write(yamlString);
-                }
+                writeModel(canoe, fileToDownload);
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -124,34 +156,54 @@ public class MarshallingService {
 
     /**
      * For Use in the Beam module
-     * Prompts the user to upload a YAML file representing a Canoe model and processes it.
+     * Prompts the user to upload a YAML or project file representing a Canoe model and processes it.
      * @param stage the stage to display the FileChooser dialog
      */
-    public static void beamImportCanoeFromYAML(Stage stage) {
+    public static void beamImportCanoe(Stage stage) {
         uploadAndProcessCanoe(stage, canoe -> beamController.setCanoe(canoe),false);
     }
 
     /**
      * For Use in the Hull Builder module
-     * Prompts the user to upload a YAML file representing a Hull model and processes it.
+     * Prompts the user to upload a YAML or project file representing a Hull model and processes it.
      * @param stage the stage to display the FileChooser dialog
      */
-    public static void hullBuilderImportHullFromYAML(Stage stage) {
+    public static void hullBuilderImportHull(Stage stage) {
         uploadAndProcessHull(stage, hull -> hullBuilderController.setHull(hull));
     }
 
     /**
      * For Use in the punching shear module
-     * Prompts the user to upload a YAML file representing a Canoe model to extract key values from
+     * Prompts the user to upload a YAML or project file representing a Canoe model to extract key values from
      * @param stage the stage to display the FileChooser dialog
      */
-    public static void punchingShearImportCanoeFromYAML(Stage stage) {
+    public static void punchingShearImportCanoe(Stage stage) {
         uploadAndProcessCanoe(stage, canoe -> punchingShearController.setValues(canoe),true);
     }
 
     /**
-     * Handles logic for uploading and processing one to many canoe YAML file(s).
+     * For Use in the Critical Sections module
+     * Prompts the user to upload a YAML or project file representing a Canoe model to analyze the bending stress of
+     * @param stage the stage to display the FileChooser dialog
+     */
+    public static void criticalSectionsImportCanoe(Stage stage) {
+        uploadAndProcessCanoe(stage, canoe -> criticalSectionsController.setCanoe(canoe),false);
+    }
+
+    /**
+     * For Use in the Failure Envelope module
+     * Prompts the user to upload a YAML or project file representing a Canoe model to generate load cases for
+     * @param stage the stage to display the FileChooser dialog
+     */
+    public static void failureEnvelopeImportCanoe(Stage stage) {
+        uploadAndProcessCanoe(stage, canoe -> failureEnvelopeController.setCanoe(canoe),false);
+    }
+
+    /**
+     * Handles logic for uploading and processing one to many canoe YAML or project file(s).
      * Allows custom processing logic to be applied to the parsed and adjusted Canoe object.
+     * With multiple files only the canoe with the greatest session max shear is processed,
+     * the files are parsed and compared in parallel in the background and the winner is handed to the processor on the JavaFX thread
      * @param stage the stage on which to display the FileChooser dialog
      * @param canoeProcessor a Consumer function to process the adjusted Canoe object
      * @param allowMultipleFiles triggers an alternate flow for multi file upload
@@ -160,9 +212,8 @@ public class MarshallingService {
         // Create a file chooser
         FileChooser fileChooser = new FileChooser();
 
-        // Set extension filter for YAML files
-        FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("YAML files (*.yaml, *.yml)", "*.yaml", "*.yml");
-        fileChooser.getExtensionFilters().add(extFilter);
+        // Set extension filter for YAML and project files
+        addImportExtensionFilter(fileChooser);
 
         // Show open file dialog
         if (!allowMultipleFiles) {
@@ -170,16 +221,7 @@ public class MarshallingService {
             File fileToUpload = fileChooser.showOpenDialog(stage);
             if (fileToUpload != null) {
                 try {
-                    Canoe canoe = yamlMapper.readValue(fileToUpload, Canoe.class);
-
-                    // Rebuild the canoe to trigger validations and data restructuring
-                    Canoe adjustedCanoe = new Canoe();
-                    if(canoe.getSessionMaxShear() > 0) adjustedCanoe.setSessionMaxShear(canoe.getSessionMaxShear());
-                    adjustedCanoe.setSolveType(canoe.getSolveType());
-                    adjustedCanoe.setHull(canoe.getHull());
-                    for (Load load : canoe.getLoads()) {
-                        adjustedCanoe.addLoad(load);
-                    }
+                    Canoe adjustedCanoe = readAdjustedCanoe(fileToUpload);
 
                     // Apply the custom processing logic
                     canoeProcessor.accept(adjustedCanoe);
@@ -194,42 +236,90 @@ public class MarshallingService {
             fileChooser.setTitle("Upload one or more Canoes");
             List<File> filesToUpload = fileChooser.showOpenMultipleDialog(stage);
             if (filesToUpload != null) {
-                try {
-                    double maxSessionShear = Double.MIN_VALUE;
-                    String fileName = null;
-                    for(File fileToUpload : filesToUpload) {
-
-                        Canoe canoe = yamlMapper.readValue(fileToUpload, Canoe.class);
-
-                        // TODO fix sessionMaxShear resetting uninentionally to 0 after some combo of buttons after
-
-                        // Rebuild the canoe to trigger validations and data restructuring
-                        Canoe adjustedCanoe = new Canoe();
-                        if (canoe.getSessionMaxShear() > 0) adjustedCanoe.setSessionMaxShear(canoe.getSessionMaxShear());
-                        adjustedCanoe.setSolveType(canoe.getSolveType());
-                        adjustedCanoe.setHull(canoe.getHull());
-                        for (Load load : canoe.getLoads()) {
-                            adjustedCanoe.addLoad(load);
-                        }
-
-                        // Apply the custom processing logic
-                        if (adjustedCanoe.getSessionMaxShear() > maxSessionShear) {
-                            maxSessionShear = adjustedCanoe.getSessionMaxShear();
-                            fileName = fileToUpload.getName();
-
-                            canoeProcessor.accept(adjustedCanoe);
-                        }
+                mainController.showSnackbar(String.format("Uploading %d files...", filesToUpload.size()));
+                ComputeScheduler.submit(CANOE_IMPORT_CHANNEL, () -> findMaxSessionShearCanoe(filesToUpload), winner -> {
+                    // TODO fix sessionMaxShear resetting uninentionally to 0 after some combo of buttons after
+                    if (winner == null) {
+                        mainController.showSnackbar("None of the uploaded files has a max shear.");
+                        return;
                     }
-                    mainController.showSnackbar(String.format("Success. File \"%s\" uploaded with an absolute max shear of %.2f N.", fileName, maxSessionShear * 1000));
-                } catch (IOException ex) {
-                    mainController.showSnackbar("Could not parse files.");
-                }
+                    canoeProcessor.accept(winner.canoe);
+                    mainController.showSnackbar(String.format("Success. File \"%s\" uploaded with an absolute max shear of %.2f N.",
+                            winner.fileName, winner.canoe.getSessionMaxShear() * 1000));
+                }, e -> {
+                    if (e instanceof UncheckedIOException) mainController.showSnackbar("Could not parse \"" + e.getMessage() + "\".");
+                    else mainController.showSnackbar("Could not parse files.");
+                });
             }
         }
     }
 
     /**
-     * Handles logic for uploading and processing a Hull YAML file.
+     * A parsed canoe and the file it came from
+     */
+    private static class UploadedCanoe {
+        private final int index;
+        private final String fileName;
+        private final Canoe canoe;
+
+        private UploadedCanoe(int index, String fileName, Canoe canoe) {
+            this.index = index;
+            this.fileName = fileName;
+            this.canoe = canoe;
+        }
+
+        /**
+         * Associative, so a parallel reduction picks the same canoe as a sequential one: the earliest file wins ties
+         */
+        private static UploadedCanoe max(UploadedCanoe a, UploadedCanoe b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            double shearA = a.canoe.getSessionMaxShear();
+            double shearB = b.canoe.getSessionMaxShear();
+            if (shearA != shearB) return shearB > shearA ? b : a;
+            return b.index < a.index ? b : a;
+        }
+    }
+
+    /**
+     * Parse and validate canoe files in parallel, keeping only the running best canoe of each worker
+     * @param files the canoe YAML or project files
+     * @return the canoe with the greatest positive session max shear, null if none has one
+     * @throws UncheckedIOException with the file name as its message if a file cannot be parsed
+     */
+    private static UploadedCanoe findMaxSessionShearCanoe(List<File> files) {
+        return IntStream.range(0, files.size()).parallel()
+                .mapToObj(i -> {
+                    File file = files.get(i);
+                    try {
+                        Canoe canoe = readAdjustedCanoe(file);
+                        return canoe.getSessionMaxShear() > 0 ? new UploadedCanoe(i, file.getName(), canoe) : null;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(file.getName(), e);
+                    }
+                })
+                .reduce(null, UploadedCanoe::max, UploadedCanoe::max);
+    }
+
+    /**
+     * Read a canoe and rebuild it to trigger validations and data restructuring
+     * @param file the canoe YAML or project file
+     * @return the rebuilt canoe
+     */
+    static Canoe readAdjustedCanoe(File file) throws IOException {
+        Canoe canoe = readModel(file, Canoe.class);
+        Canoe adjustedCanoe = new Canoe();
+        if (canoe.getSessionMaxShear() > 0) adjustedCanoe.setSessionMaxShear(canoe.getSessionMaxShear());
+        adjustedCanoe.setSolveType(canoe.getSolveType());
+        adjustedCanoe.setHull(canoe.getHull());
+        for (Load load : canoe.getLoads()) {
+            adjustedCanoe.addLoad(load);
+        }
+        return adjustedCanoe;
+    }
+
+    /**
+     * Handles logic for uploading and processing a Hull YAML or project file.
      * Allows custom processing logic to be applied to the parsed Hanoe object.
      * @param stage the stage on which to display the FileChooser dialog
      * @param hullProcessor a Consumer function to process the Hull object
@@ -237,15 +327,14 @@ public class MarshallingService {
     private static void uploadAndProcessHull(Stage stage, Consumer<Hull> hullProcessor) {
         // We are not handling multiple file upload for Hull at this time.
         FileChooser fileChooser = new FileChooser();
-        FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("YAML files (*.yaml, *.yml)", "*.yaml", "*.yml");
-        fileChooser.getExtensionFilters().add(extFilter);
+        addImportExtensionFilter(fileChooser);
         fileChooser.setTitle("Upload Hull");
 
         // Single file upload (ignore allowMultipleFiles for now)
         File fileToUpload = fileChooser.showOpenDialog(stage);
         if (fileToUpload != null) {
             try {
-                Hull hull = yamlMapper.readValue(fileToUpload, Hull.class);
+                Hull hull = readModel(fileToUpload, Hull.class);
                 hullProcessor.accept(hull);
                 mainController.showSnackbar("Successfully uploaded " + fileToUpload.getName());
             } catch (IOException ex) {
@@ -255,25 +344,19 @@ public class MarshallingService {
     }
 
     /**
-     * Generic YAML Object Marshaller
+     * Generic Object Marshaller, to YAML or a Smile project file
      */
-    public static <T> File exportObjectToYAML(T object, Stage stage, String defaultFileName) {
+    public static <T> File exportObject(T object, Stage stage, String defaultFileName) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Download " + defaultFileName);
-        FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("YAML (*.yaml)", "*.yaml");
-        fileChooser.getExtensionFilters().add(extFilter);
+        addExportExtensionFilters(fileChooser);
         fileChooser.setInitialFileName(defaultFileName);
 
         File fileToDownload = fileChooser.showSaveDialog(stage);
         if (fileToDownload != null) {
+            fileToDownload = withChosenExtension(fileChooser, fileToDownload);
             try {
-                String yamlString = yamlMapper.writeValueAsString(object);
-                // Add a warning comment to the top of the YAML file
-                String comment = "# Please do not manually modify the contents of this file before uploading, it may result in unexpected results\n";
-                yamlString = comment + yamlString;
-                try (FileWriter writer = new FileWriter(fileToDownload)) {
-                    writer.write(yamlString);
-                }
+                writeModel(object, fileToDownload);
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -282,18 +365,17 @@ public class MarshallingService {
     }
 
     /**
-     * Generic YAML Object Unmarshaller
+     * Generic Object Unmarshaller, from YAML or a Smile project file
      */
-    public static <T> T importObjectFromYAML(Stage stage, Class<T> clazz) {
+    public static <T> T importObject(Stage stage, Class<T> clazz) {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Upload " + clazz.getSimpleName());
-        FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("YAML files (*.yaml, *.yml)", "*.yaml", "*.yml");
-        fileChooser.getExtensionFilters().add(extFilter);
+        addImportExtensionFilter(fileChooser);
 
         File fileToUpload = fileChooser.showOpenDialog(stage);
         if (fileToUpload != null) {
             try {
-                T object = yamlMapper.readValue(fileToUpload, clazz);
+                T object = readModel(fileToUpload, clazz);
                 mainController.showSnackbar("Successfully uploaded " + fileToUpload.getName());
                 return object;
             } catch (IOException ex) {
@@ -303,6 +385,160 @@ public class MarshallingService {
         return null;
     }
 
+    private static void addExportExtensionFilters(FileChooser fileChooser) {
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("YAML (*.yaml)", "*.yaml"));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Binary project (*.smile)", "*" + PROJECT_FILE_EXTENSION));
+    }
+
+    /**
+     * Some platforms don't append the extension of the chosen filter to the file name typed in the save dialog
+     * @return the file, with the chosen filter's extension if it had none
+     */
+    private static File withChosenExtension(FileChooser fileChooser, File file) {
+        FileChooser.ExtensionFilter chosenFilter = fileChooser.getSelectedExtensionFilter();
+        if (chosenFilter == null || file.getName().contains(".")) return file;
+        return new File(file.getParentFile(), file.getName() + chosenFilter.getExtensions().getFirst().substring(1));
+    }
+
+    private static void addImportExtensionFilter(FileChooser fileChooser) {
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                "YAML and project files (*.yaml, *.yml, *.smile)", "*.yaml", "*.yml", "*" + PROJECT_FILE_EXTENSION));
+    }
+
+    /**
+     * Write a model to a file, as a Smile project file if the file has the project extension and as YAML otherwise
+     * @param model the model to write
+     * @param file the file to write to
+     */
+    public static void writeModel(Object model, File file) throws IOException {
+        if (file.getName().endsWith(PROJECT_FILE_EXTENSION)) writeSmile(model, file);
+        else {
+            try (Writer writer = new FileWriter(file)) {
+                writer.write(YAML_WARNING_COMMENT);
+                yamlMapper.writeValue(writer, model);
+            }
+        }
+    }
+
+    /**
+     * Read a model from a YAML or Smile project file, the format is detected from the content
+     * @param file the file to read
+     * @param modelClass the class of the model
+     * @return the model
+     */
+    public static <T> T readModel(File file, Class<T> modelClass) throws IOException {
+        if (isSmileFile(file)) return readSmile(file, modelClass);
+        return yamlMapper.readValue(file, modelClass);
+    }
+
+    /**
+     * @param file the file to check
+     * @return whether the file starts with the Smile header, rather than being text
+     */
+    public static boolean isSmileFile(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return Arrays.equals(in.readNBytes(SMILE_MAGIC.length), SMILE_MAGIC);
+        }
+    }
+
+    /**
+     * Write a model as a Smile project file in one streaming pass
+     * @param model the model to write
+     * @param file the file to write to
+     */
+    public static void writeSmile(Object model, File file) throws IOException {
+        try (JsonGenerator generator = smileMapper.getFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            writeProjectHeader(generator, model.getClass().getSimpleName());
+            smileMapper.writeValue(generator, model);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Read a model from a Smile project file in one streaming pass
+     * @param file the file to read
+     * @param modelClass the class of the model
+     * @return the model
+     * @throws IOException if the file is not a project file, was written by a newer version, or holds another kind of model
+     */
+    public static <T> T readSmile(File file, Class<T> modelClass) throws IOException {
+        try (JsonParser parser = smileMapper.getFactory().createParser(file)) {
+            String model = readProjectHeader(parser);
+            if (!modelClass.getSimpleName().equals(model))
+                throw new IOException(String.format("Project file holds a %s, not a %s", model, modelClass.getSimpleName()));
+            return smileMapper.readValue(parser, modelClass);
+        }
+    }
+
+    /**
+     * Find which kind of model a file holds without binding it
+     * Project files name it in their header, in YAML a canoe is told apart from a hull by its hull field
+     * @param file the YAML or project file
+     * @return the simple class name of the model (i.e. "Canoe" or "Hull")
+     */
+    public static String readModelName(File file) throws IOException {
+        if (isSmileFile(file)) {
+            try (JsonParser parser = smileMapper.getFactory().createParser(file)) {
+                return readProjectHeader(parser);
+            }
+        }
+        JsonNode root = yamlMapper.readTree(file);
+        if (root == null || !root.isObject()) throw new IOException("Not a model file");
+        return root.has("hull") ? Canoe.class.getSimpleName() : Hull.class.getSimpleName();
+    }
+
+    /**
+     * Convert a model file between YAML and a Smile project file, in either direction
+     * The model is bound on the way through, so the converted file is validated and written the same way as an export
+     * (a plain token copy would lose the YAML type tags of the loads)
+     * @param sourceFile the YAML or project file to read, the format is detected from the content
+     * @param targetFile the file to write, a project file if it has the project extension and YAML otherwise
+     * @param modelClass the class of the model
+     */
+    public static <T> void convert(File sourceFile, File targetFile, Class<T> modelClass) throws IOException {
+        writeModel(readModel(sourceFile, modelClass), targetFile);
+    }
+
+    /**
+     * Open the project object and write its header, leaving the generator ready for the model as the data field
+     */
+    private static void writeProjectHeader(JsonGenerator generator, String model) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("format", PROJECT_FORMAT);
+        generator.writeNumberField("version", PROJECT_FORMAT_VERSION);
+        generator.writeStringField("model", model);
+        generator.writeFieldName("data");
+    }
+
+    /**
+     * Read and check the project header, leaving the parser on the start of the model
+     * @return the simple class name of the model
+     */
+    private static String readProjectHeader(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) throw new IOException("Not a project file");
+        String format = null;
+        String model = null;
+        int version = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "format" -> format = parser.getText();
+                case "version" -> version = parser.getIntValue();
+                case "model" -> model = parser.getText();
+                case "data" -> {
+                    if (!PROJECT_FORMAT.equals(format) || version < 1 || model == null)
+                        throw new IOException("Not a project file, its header is missing or malformed");
+                    if (version > PROJECT_FORMAT_VERSION)
+                        throw new IOException(String.format("Project file version %d is newer than the supported version %d", version, PROJECT_FORMAT_VERSION));
+                    return model;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        throw new IOException("Project file has no data");
+    }
+
     /**
      *
      * @param dataClass the POJO representing the structure of the data to load
@@ -323,11 +559,12 @@ public class MarshallingService {
     /**
      * Note: type is checked, IDE is wrongly giving a warning which was suppressed
      * Deep copies an object in-memory by marshalling and unmarshalling the object such that all fields are reinitialized recursively.
+     * Binary fallback of deepCopy for types without a copy constructor
      * @param <T> The type of the object being copied.
-     * @param marshallableObject The object to deep copy which is integrated with Jackson for YAML marshalling.
+     * @param marshallableObject The object to deep copy which is integrated with Jackson for marshalling.
      * @return A deep copy of the object, or null if copying fails.
      */
-    @SuppressWarnings({"unchecked", "unused"})
+    @SuppressWarnings("unchecked")
     public static <T> T smileDeepCopy(T marshallableObject) {
         if (marshallableObject == null) return null;
         try {
@@ -340,22 +577,24 @@ public class MarshallingService {
 
     /**
      * Note: type is checked, IDE is wrongly giving a warning which was suppressed
-     * Deep copies an object in-memory by marshalling and unmarshalling the object such that all fields are reinitialized recursively.
+     * Deep copies an object in-memory, model types are copied structurally with their copy constructors
+     * This skips marshalling and the validation the source already passed, so copying a hull takes microseconds instead of milliseconds
+     * Other types are copied through Smile with smileDeepCopy
      * @param <T>  The type of the object being copied.
-     * @param marshallableObject The object to deep copy which is integrated with Jackson for YAML marshalling.
+     * @param marshallableObject The object to deep copy, a model type or one integrated with Jackson for marshalling.
      * @return A deep copy of the object, or null if copying fails.
      */
     @SuppressWarnings("unchecked")
     public static <T> T deepCopy(T marshallableObject) {
         if (marshallableObject == null) return null;
-        try {
-            String yamlString = yamlMapper.writeValueAsString(marshallableObject);
-            Object read = yamlMapper.readValue(yamlString, marshallableObject.getClass());
-            Class<?> classT = marshallableObject.getClass();
-            if (classT.isInstance(read)) return (T) read;
-            else throw new RuntimeException("Null read object during deep copy");
-        } catch (Exception e) {
-            throw new RuntimeException(e.getMessage());
-        }
+        Object copy = switch (marshallableObject) {
+            case Hull hull -> new Hull(hull);
+            case Canoe canoe -> new Canoe(canoe);
+            case HullProperties hullProperties -> new HullProperties(hullProperties);
+            case CubicBezierFunction bezier -> new CubicBezierFunction(bezier);
+            case Load load -> LoadUtils.copyLoad(load);
+            default -> smileDeepCopy(marshallableObject);
+        };
+        return (T) copy;
     }
 }
@@ -0,0 +1,431 @@
+package com.wecca.canoeanalysis.services;
+
+import com.wecca.canoeanalysis.models.canoe.CachedSolution;
+import com.wecca.canoeanalysis.models.canoe.Canoe;
+import com.wecca.canoeanalysis.models.canoe.FloatingSolution;
+import com.wecca.canoeanalysis.models.canoe.Hull;
+import com.wecca.canoeanalysis.models.data.NumericalSettings;
+import com.wecca.canoeanalysis.models.function.BoundedUnivariateFunction;
+import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
+import com.wecca.canoeanalysis.models.load.*;
+import com.wecca.canoeanalysis.services.metrics.MetricsService;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import com.wecca.canoeanalysis.utils.SectionPropertyMapEntry;
+import javafx.geometry.Point2D;
+import lombok.extern.slf4j.Slf4j;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed on-disk cache of solved canoe results, so re-opening a canoe or re-running a batch skips the solvers
+ * ------------------------------------------------------------------------------------------------
+ * Entries are keyed by a SHA-256 of everything a result depends on: the hull geometry and properties, the loads
+ * (piecewise distributions such as a solved buoyancy are sampled), the solve type and the numerical settings
+ * Any change to the canoe changes its key, so a stale entry is never found rather than having to be invalidated
+ * ------------------------------------------------------------------------------------------------
+ * Each entry is a binary file named by its key in the cache folder, read and written through memory-mapped buffers:
+ * magic, version, key, flags, waterline, then (count, values) arrays of buoyancy samples, SFD, BMD, and the extrema
+ * An entry that does not match its key or version (i.e. corrupted, or from an older build) is deleted on read
+ * The least recently used entries are evicted past MAX_ENTRIES or MAX_BYTES, use is persisted through the file modified times
+ * ------------------------------------------------------------------------------------------------
+ * Cache failures are logged and fall back to computing, the cache never makes a solve fail
+ */
+@Slf4j
+public class ResultCacheService {
+
+    public static final int MAGIC = 0x43524553; // "CRES"
+    public static final short VERSION = 1;
+    public static final int MAX_ENTRIES = 1024;
+    public static final long MAX_BYTES = 64L << 20;
+    private static final String ENTRY_EXTENSION = ".bin";
+    private static final int KEY_BYTES = 32;
+    private static final int BUOYANCY_SAMPLES = 200;
+    private static final int PIECEWISE_KEY_SAMPLES = 32;
+    private static final byte FLOATING_SOLVED = 1;
+    private static final byte TIPPED_OVER = 2;
+
+    // Guarded by the class, loaded on first use
+    private static Path cacheDir;
+    private static LinkedHashMap<String, Long> entrySizes; // key -> file size, in access order
+    private static long totalBytes;
+
+    /**
+     * Use another cache folder (i.e. for a batch run), the index is reloaded from it on next use
+     * @param directory the cache folder
+     */
+    public static synchronized void setCacheDirectory(Path directory) {
+        cacheDir = directory;
+        entrySizes = null;
+    }
+
+    /**
+     * Get the floating solution of a canoe, from the cache if it was solved before
+     * On a hit the buoyancy distribution is rebuilt from the cached waterline, which skips the iterative solve entirely
+     * @param canoe the canoe to solve
+     * @return the floating solution, or null if the solver does not converge
+     */
+    public static FloatingSolution solveFloatingSystem(Canoe canoe) {
+        // Already in equilibrium, nothing to solve
+        if (canoe.getNetForce() == 0) return BeamSolverService.solveFloatingSystem(canoe);
+
+        String key = getKey(canoe);
+        CachedSolution cached = get(key);
+        if (cached != null && cached.isFloatingSolved())
+            return BeamSolverService.getFloatingSolution(canoe, cached.getSolvedH(), cached.getSolvedTheta());
+
+        FloatingSolution solution = BeamSolverService.solveFloatingSystem(canoe);
+        if (solution == null) return null;
+        CachedSolution result = cached == null ? new CachedSolution() : cached;
+        result.setFloatingSolved(true);
+        result.setSolvedH(solution.getSolvedH());
+        result.setSolvedTheta(solution.getSolvedTheta());
+        result.setTippedOver(solution.isTippedOver());
+        sampleBuoyancy(result, solution.getSolvedBuoyancy());
+        put(key, result);
+        return solution;
+    }
+
+    /**
+     * Get the SFD and BMD of a canoe and their extrema, from the cache if they were generated before
+     * @param canoe the canoe with its solved loads
+     * @return the cached solution with its diagrams set
+     */
+    public static CachedSolution getDiagrams(Canoe canoe) {
+        String key = getKey(canoe);
+        CachedSolution cached = get(key);
+        if (cached != null && cached.hasDiagrams()) return cached;
+
+        List<Point2D> sfdPoints = DiagramService.generateSfdPoints(canoe);
+        List<Point2D> bmdPoints = DiagramService.generateBmdPoints(canoe, sfdPoints);
+        CachedSolution result = cached == null ? new CachedSolution() : cached;
+        result.setDiagrams(sfdPoints, bmdPoints);
+        put(key, result);
+        return result;
+    }
+
+    /**
+     * Compute the stable content hash of everything a canoe's results depend on
+     * Doubles are hashed by their exact bits, so any change to the model gives a new key
+     * @param canoe the canoe
+     * @return the key as lowercase hex
+     */
+    public static String getKey(Canoe canoe) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            out.writeShort(VERSION);
+
+            NumericalSettings settings = CalculusUtils.getNumericalSettings();
+            out.writeDouble(settings.getIntegratorRelativeAccuracy());
+            out.writeDouble(settings.getIntegratorAbsoluteAccuracy());
+            out.writeInt(settings.getIntegratorMinIterations());
+            out.writeInt(settings.getIntegratorMaxIterations());
+            out.writeInt(settings.getDiagramGridResolution());
+            out.writeInt(settings.getSelfWeightIntervalsPerMetre());
+            out.writeDouble(settings.getSolverTolerance());
+            out.writeInt(settings.getSolverMaxIterations());
+
+            out.writeUTF(String.valueOf(canoe.getSolveType()));
+            writeHull(out, canoe.getHull());
+            out.writeInt(canoe.getLoads().size());
+            for (Load load : canoe.getLoads()) {
+                writeLoad(out, load);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void writeHull(DataOutputStream out, Hull hull) throws IOException {
+        out.writeDouble(hull.getConcreteDensity());
+        out.writeDouble(hull.getBulkheadDensity());
+        out.writeDouble(hull.getScalingFactor());
+        for (List<CubicBezierFunction> segments : List.of(hull.getSideViewSegments(), hull.getTopViewSegments())) {
+            out.writeInt(segments.size());
+            for (CubicBezierFunction segment : segments) {
+                for (Point2D point : segment.getKnotAndControlPoints()) {
+                    out.writeDouble(point.getX());
+                    out.writeDouble(point.getY());
+                }
+            }
+        }
+        for (List<SectionPropertyMapEntry> map : List.of(hull.getHullProperties().getThicknessMap(), hull.getHullProperties().getBulkheadMap())) {
+            out.writeInt(map.size());
+            for (SectionPropertyMapEntry entry : map) {
+                out.writeDouble(entry.getX());
+                out.writeDouble(entry.getRx());
+                out.writeUTF(String.valueOf(entry.getValue()));
+            }
+        }
+    }
+
+    private static void writeLoad(DataOutputStream out, Load load) throws IOException {
+        out.writeUTF(load.getClass().getSimpleName());
+        out.writeUTF(String.valueOf(load.getType()));
+        switch (load) {
+            case PointLoad pLoad -> {
+                out.writeDouble(pLoad.getX());
+                out.writeDouble(pLoad.getForce());
+                out.writeBoolean(pLoad.isSupport());
+            }
+            case UniformLoadDistribution dLoad -> {
+                out.writeDouble(dLoad.getX());
+                out.writeDouble(dLoad.getRx());
+                out.writeDouble(dLoad.getMagnitude());
+            }
+            case DiscreteLoadDistribution discrete -> {
+                out.writeInt(discrete.getLoads().size());
+                for (UniformLoadDistribution dLoad : discrete.getLoads()) {
+                    writeLoad(out, dLoad);
+                }
+            }
+            case PiecewiseContinuousLoadDistribution piecewise -> {
+                // The pieces are functions, so they are identified by their sections and samples of their values
+                out.writeInt(piecewise.getPieces().size());
+                piecewise.getPieces().keySet().forEach(section -> {
+                    try {
+                        out.writeDouble(section.getX());
+                        out.writeDouble(section.getRx());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                BoundedUnivariateFunction function = piecewise.getPiecedFunction();
+                double x = piecewise.getSection().getX();
+                double step = (piecewise.getSection().getRx() - x) / PIECEWISE_KEY_SAMPLES;
+                for (int i = 0; i < PIECEWISE_KEY_SAMPLES; i++) {
+                    out.writeDouble(function.value(x + (i + 0.5) * step));
+                }
+            }
+            default -> {
+                out.writeDouble(load.getX());
+                out.writeDouble(load.getMaxSignedValue());
+            }
+        }
+    }
+
+    private static void sampleBuoyancy(CachedSolution result, PiecewiseContinuousLoadDistribution buoyancy) {
+        BoundedUnivariateFunction function = buoyancy.getPiecedFunction();
+        double start = buoyancy.getSection().getX();
+        double step = (buoyancy.getSection().getRx() - start) / (BUOYANCY_SAMPLES - 1);
+        double[] x = new double[BUOYANCY_SAMPLES];
+        double[] values = new double[BUOYANCY_SAMPLES];
+        for (int i = 0; i < BUOYANCY_SAMPLES; i++) {
+            x[i] = i == BUOYANCY_SAMPLES - 1 ? buoyancy.getSection().getRx() : start + i * step;
+            values[i] = function.value(x[i]);
+        }
+        result.setBuoyancyX(x);
+        result.setBuoyancy(values);
+    }
+
+    /**
+     * @param key the content hash from getKey
+     * @return the cached solution, null on a miss
+     */
+    public static synchronized CachedSolution get(String key) {
+        try {
+            loadIndex();
+            // get rather than containsKey, only get refreshes the entry's place in the access order
+            if (entrySizes.get(key) == null) {
+                MetricsService.RESULT_CACHE_MISSES.increment();
+                return null;
+            }
+            Path path = getEntryPath(key);
+            CachedSolution solution = readEntry(path, key);
+            if (solution == null) {
+                log.warn("Discarding unreadable result cache entry {}", path.getFileName());
+                remove(key);
+                MetricsService.RESULT_CACHE_MISSES.increment();
+                return null;
+            }
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            MetricsService.RESULT_CACHE_HITS.increment();
+            return solution;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read result cache entry {}", key, e);
+            MetricsService.RESULT_CACHE_MISSES.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Store a solution, replacing any entry with the same key and evicting the least recently used past the limits
+     * @param key the content hash from getKey
+     * @param solution the solution to store
+     */
+    public static synchronized void put(String key, CachedSolution solution) {
+        try {
+            loadIndex();
+            Path path = getEntryPath(key);
+            Path tempPath = cacheDir.resolve(key + ".tmp");
+            long size = writeEntry(tempPath, key, solution);
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Long previousSize = entrySizes.put(key, size);
+            totalBytes += size - (previousSize == null ? 0 : previousSize);
+            evict();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write result cache entry {}", key, e);
+        }
+    }
+
+    /**
+     * Delete every entry
+     */
+    public static synchronized void clear() throws IOException {
+        loadIndex();
+        for (String key : new ArrayList<>(entrySizes.keySet())) {
+            remove(key);
+        }
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    public static synchronized int size() throws IOException {
+        loadIndex();
+        return entrySizes.size();
+    }
+
+    private static CachedSolution readEntry(Path path, String key) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) return null;
+            byte[] storedKey = new byte[KEY_BYTES];
+            buffer.get(storedKey);
+            if (!Arrays.equals(storedKey, HexFormat.of().parseHex(key))) return null;
+
+            CachedSolution solution = new CachedSolution();
+            byte flags = buffer.get();
+            solution.setFloatingSolved((flags & FLOATING_SOLVED) != 0);
+            solution.setTippedOver((flags & TIPPED_OVER) != 0);
+            solution.setSolvedH(buffer.getDouble());
+            solution.setSolvedTheta(buffer.getDouble());
+            solution.setBuoyancyX(readArray(buffer));
+            solution.setBuoyancy(readArray(buffer));
+            solution.setSfdX(readArray(buffer));
+            solution.setShear(readArray(buffer));
+            solution.setBmdX(readArray(buffer));
+            solution.setMoment(readArray(buffer));
+            solution.setMaxAbsShear(buffer.getDouble());
+            solution.setMaxAbsMoment(buffer.getDouble());
+            return solution;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long writeEntry(Path path, String key, CachedSolution solution) throws IOException {
+        List<double[]> arrays = List.of(solution.getBuoyancyX(), solution.getBuoyancy(), solution.getSfdX(),
+                solution.getShear(), solution.getBmdX(), solution.getMoment());
+        long size = Integer.BYTES + Short.BYTES + KEY_BYTES + Byte.BYTES + 4L * Double.BYTES;
+        for (double[] array : arrays) {
+            size += Integer.BYTES + (long) array.length * Double.BYTES;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.put(HexFormat.of().parseHex(key));
+            buffer.put((byte) ((solution.isFloatingSolved() ? FLOATING_SOLVED : 0) | (solution.isTippedOver() ? TIPPED_OVER : 0)));
+            buffer.putDouble(solution.getSolvedH());
+            buffer.putDouble(solution.getSolvedTheta());
+            for (double[] array : arrays) {
+                buffer.putInt(array.length);
+                buffer.asDoubleBuffer().put(array);
+                buffer.position(buffer.position() + array.length * Double.BYTES);
+            }
+            buffer.putDouble(solution.getMaxAbsShear());
+            buffer.putDouble(solution.getMaxAbsMoment());
+            buffer.force();
+        }
+        return size;
+    }
+
+    private static double[] readArray(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || (long) length * Double.BYTES > buffer.remaining()) throw new BufferUnderflowException();
+        double[] array = new double[length];
+        buffer.asDoubleBuffer().get(array);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return array;
+    }
+
+    /**
+     * Build the index from the cache folder, least recently used first
+     */
+    private static void loadIndex() throws IOException {
+        if (entrySizes != null) return;
+        if (cacheDir == null) cacheDir = ResourceManagerService.getResourcePathResolved("cache/results");
+        Files.createDirectories(cacheDir);
+
+        entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+        totalBytes = 0;
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            entries = files.filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION)).toList();
+        }
+        Map<Path, FileTime> modifiedTimes = new HashMap<>();
+        for (Path entry : entries) {
+            modifiedTimes.put(entry, Files.getLastModifiedTime(entry));
+        }
+        for (Path entry : entries.stream().sorted(Comparator.comparing(modifiedTimes::get)).toList()) {
+            String fileName = entry.getFileName().toString();
+            long size = Files.size(entry);
+            entrySizes.put(fileName.substring(0, fileName.length() - ENTRY_EXTENSION.length()), size);
+            totalBytes += size;
+        }
+        evict();
+    }
+
+    private static void evict() throws IOException {
+        // Read sizes through the entries, a get on an access-ordered map would reorder it under the iterator
+        Iterator<Map.Entry<String, Long>> leastRecentlyUsed = entrySizes.entrySet().iterator();
+        while ((entrySizes.size() > MAX_ENTRIES || totalBytes > MAX_BYTES) && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, Long> entry = leastRecentlyUsed.next();
+            totalBytes -= entry.getValue();
+            leastRecentlyUsed.remove();
+            deleteEntry(entry.getKey());
+        }
+    }
+
+    private static void remove(String key) throws IOException {
+        Long size = entrySizes.remove(key);
+        if (size != null) totalBytes -= size;
+        deleteEntry(key);
+    }
+
+    /**
+     * Some platforms can't delete a file while a mapping of it is still open, the entry is then left to be evicted next session
+     */
+    private static void deleteEntry(String key) {
+        try {
+            Files.deleteIfExists(getEntryPath(key));
+        } catch (IOException e) {
+            log.debug("Could not delete result cache entry {}", key, e);
+        }
+    }
+
+    private static Path getEntryPath(String key) {
+        return cacheDir.resolve(key + ENTRY_EXTENSION);
+    }
+}
@@ -2,12 +2,12 @@ package com.wecca.canoeanalysis.services;
 
 import com.jfoenix.controls.JFXDecorator;
 import com.wecca.canoeanalysis.CanoeAnalysisApplication;
+import com.wecca.canoeanalysis.components.diagrams.CanvasDiagram;
 import com.wecca.canoeanalysis.models.canoe.Canoe;
 import com.wecca.canoeanalysis.services.color.ColorManagerService;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Point2D;
 import javafx.scene.Scene;
-import javafx.scene.chart.AreaChart;
 import javafx.scene.image.Image;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
@@ -48,8 +48,8 @@ public class WindowManagerService {
         popupStage.getIcons().add(icon);
 
         // Setting up the diagram specifics
-        AreaChart<Number, Number> chart = DiagramService.setupChart(canoe, points, yUnits, yValName);
-        chartPane.getChildren().add(chart);
+        CanvasDiagram diagram = DiagramService.setupCanvasDiagram(canoe, points, yUnits, yValName);
+        chartPane.getChildren().add(diagram);
 
         // Setting up the window with a decorator
         JFXDecorator decorator = getDraggableJFXDecorator(popupStage, chartPane);
@@ -0,0 +1,33 @@
+package com.wecca.canoeanalysis.services.metrics;
+
+import lombok.Getter;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free monotonic counter, cheap to increment from many threads at once
+ * Increments are a no-op unless metrics are enabled in dev-config.yaml
+ */
+public class Counter {
+
+    @Getter
+    private final String name;
+    private final LongAdder adder = new LongAdder();
+
+    public Counter(String name) {
+        this.name = name;
+    }
+
+    public void increment() {
+        if (MetricsService.ENABLED)
+            adder.increment();
+    }
+
+    public void add(long amount) {
+        if (MetricsService.ENABLED)
+            adder.add(amount);
+    }
+
+    public long get() {
+        return adder.sum();
+    }
+}
@@ -0,0 +1,102 @@
+package com.wecca.canoeanalysis.services.metrics;
+
+import lombok.Getter;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in nanoseconds with HDR-style log-linear buckets
+ * Each power of two is split into 16 linear sub-buckets, so any recorded value is reported within about 6%
+ * over the full range of a long, in a fixed 960 bucket array (no resizing or allocation when recording)
+ * Recording is a no-op unless metrics are enabled in dev-config.yaml
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    @Getter
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param valueNs the latency to record, negative values are recorded as 0
+     */
+    public void record(long valueNs) {
+        if (!MetricsService.ENABLED) return;
+        long value = Math.max(valueNs, 0);
+        buckets.incrementAndGet(getBucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Record the time elapsed since a start time
+     * @param startNs a previous System.nanoTime()
+     */
+    public void recordSince(long startNs) {
+        record(System.nanoTime() - startNs);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @param percentile in [0, 100]
+     * @return the highest value in the bucket containing the percentile, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target)
+                return Math.min(getBucketHighestValue(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Values below 16 get a bucket each, above that the top 4 bits after the most significant bit pick the sub-bucket
+     */
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long getBucketHighestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
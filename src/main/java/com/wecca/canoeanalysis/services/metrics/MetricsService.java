@@ -0,0 +1,171 @@
+package com.wecca.canoeanalysis.services.metrics;
+
+import com.wecca.canoeanalysis.services.MarshallingService;
+import com.wecca.canoeanalysis.services.ResourceManagerService;
+import com.wecca.canoeanalysis.utils.CalculusUtils;
+import javafx.animation.AnimationTimer;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process registry of counters and latency histograms for finding out where time goes (i.e. why a drag stutters)
+ * Toggled with the metrics property in dev-config.yaml, when off every counter and histogram is a no-op
+ * Shown live in an overlay on the main window and dumped to the logs folder on exit
+ */
+@Slf4j
+public class MetricsService {
+
+    public static final boolean ENABLED = MarshallingService.METRICS;
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // Instrumented hot paths
+    public static final Counter INTEGRATIONS = counter("calculus.integrations");
+    public static final Counter INTEGRATOR_EVALUATIONS = counter("calculus.integrator.evaluations");
+    public static final Counter BEZIER_INVERSIONS = counter("bezier.inversions");
+    public static final Counter SOLVER_ITERATIONS = counter("solver.newton.iterations");
+    public static final Counter HULL_CACHE_HITS = counter("hull.cache.hits"); // section modulus profiles, once per analysis
+    public static final Counter HULL_CACHE_MISSES = counter("hull.cache.misses");
+    public static final Counter HULL_SECTION_CACHE_HITS = counter("hull.section.cache.hits"); // per-section properties, many per drag tick
+    public static final Counter HULL_SECTION_CACHE_MISSES = counter("hull.section.cache.misses");
+    public static final Counter RESULT_CACHE_HITS = counter("result.cache.hits");
+    public static final Counter RESULT_CACHE_MISSES = counter("result.cache.misses");
+    public static final Counter DEBOUNCE_DROPS = counter("debounce.drops");
+    public static final Counter DEBOUNCE_EXECUTIONS = counter("debounce.executions");
+    public static final Counter COMPUTE_COMPLETED_JOBS = counter("compute.jobs.completed");
+    public static final Counter COMPUTE_STALE_JOBS = counter("compute.jobs.stale");
+    public static final LatencyHistogram FX_FRAME_TIME = histogram("fx.frame.time");
+    public static final LatencyHistogram FX_HULL_RENDER_TIME = histogram("fx.render.hull");
+
+    private static AnimationTimer frameTimer;
+
+    static {
+        // CalculusUtils does not depend on the services layer, it reports integrations through a hook
+        if (ENABLED) CalculusUtils.setAfterIntegration(evaluations -> {
+            INTEGRATIONS.increment();
+            INTEGRATOR_EVALUATIONS.add(evaluations);
+        });
+    }
+
+    /**
+     * @param name the name of the counter, dot separated by area (i.e. calculus.integrations)
+     * @return the counter with the name, created on first use
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * @param name the name of the histogram, dot separated by area (i.e. fx.frame.time)
+     * @return the histogram with the name, created on first use
+     */
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Record the time between JavaFX pulses into FX_FRAME_TIME, a long frame is a visible stutter
+     * Must be called on the JavaFX application thread
+     */
+    public static void startFrameTimer() {
+        if (!ENABLED || frameTimer != null) return;
+        frameTimer = new AnimationTimer() {
+            private long lastFrameNs = -1;
+
+            @Override
+            public void handle(long now) {
+                if (lastFrameNs != -1)
+                    FX_FRAME_TIME.record(now - lastFrameNs);
+                lastFrameNs = now;
+            }
+        };
+        frameTimer.start();
+    }
+
+    /**
+     * @return the current value of every counter by name
+     */
+    public static Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((name, counter) -> counts.put(name, counter.get()));
+        return counts;
+    }
+
+    /**
+     * @param previousCounts the counts at the last update, from getCounts()
+     * @param intervalSeconds the time since the last update
+     * @return a short summary of rates and latencies for the overlay
+     */
+    public static String getOverlayText(Map<String, Long> previousCounts, double intervalSeconds) {
+        Map<String, Long> counts = getCounts();
+        StringBuilder text = new StringBuilder();
+        counts.forEach((name, count) -> {
+            long delta = count - previousCounts.getOrDefault(name, 0L);
+            text.append(String.format("%s: %.0f/s%n", name, delta / intervalSeconds));
+        });
+        appendHitRate(text, "hull.cache", HULL_CACHE_HITS, HULL_CACHE_MISSES);
+        appendHitRate(text, "hull.section.cache", HULL_SECTION_CACHE_HITS, HULL_SECTION_CACHE_MISSES);
+        appendHitRate(text, "result.cache", RESULT_CACHE_HITS, RESULT_CACHE_MISSES);
+        new TreeMap<>(histograms).forEach((name, histogram) -> text.append(String.format("%s: p50 %s, p99 %s, max %s%n", name,
+                formatNanos(histogram.getValueAtPercentile(50)), formatNanos(histogram.getValueAtPercentile(99)), formatNanos(histogram.getMax()))));
+        return text.toString().stripTrailing();
+    }
+
+    private static void appendHitRate(StringBuilder text, String cacheName, Counter hits, Counter misses) {
+        long numHits = hits.get();
+        long lookups = numHits + misses.get();
+        text.append(String.format("%s.hitRate: %s%n", cacheName, lookups == 0 ? "-" : String.format("%.0f%%", 100.0 * numHits / lookups)));
+    }
+
+    /**
+     * @return every counter and histogram, one per line
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        getCounts().forEach((name, count) -> report.append(String.format("%s = %d%n", name, count)));
+        new TreeMap<>(histograms).forEach((name, histogram) -> report.append(String.format(
+                "%s = count %d, mean %s, p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n", name, histogram.getCount(),
+                formatNanos((long) histogram.getMean()), formatNanos(histogram.getValueAtPercentile(50)),
+                formatNanos(histogram.getValueAtPercentile(90)), formatNanos(histogram.getValueAtPercentile(99)),
+                formatNanos(histogram.getValueAtPercentile(99.9)), formatNanos(histogram.getMax()))));
+        return report.toString();
+    }
+
+    /**
+     * Write the report to logs/metrics-<timestamp>.txt in the resources folder
+     */
+    public static void dumpToFile() {
+        if (!ENABLED) return;
+        try {
+            Path logDir = ResourceManagerService.getResourcePathResolved("logs");
+            Files.createDirectories(logDir);
+            Path metricsPath = logDir.resolve(String.format("metrics-%s.txt",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+            Files.writeString(metricsPath, getReport());
+            log.info("Metrics written to {}", metricsPath);
+        } catch (IOException e) {
+            log.error("Could not write metrics file", e);
+        }
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds
+     * @return the duration in the most readable unit
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000)
+            return String.format("%.1f ms", nanos / 1e6);
+        else if (nanos >= 1_000)
+            return String.format("%.1f μs", nanos / 1e3);
+        else
+            return String.format("%d ns", nanos);
+    }
+}
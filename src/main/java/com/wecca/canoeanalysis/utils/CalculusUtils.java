@@ -2,18 +2,23 @@ package com.wecca.canoeanalysis.utils;
 
 import Jama.Matrix;
 import com.wecca.canoeanalysis.aop.Traceable;
+import com.wecca.canoeanalysis.aop.jfr.IntegrationEvent;
+import com.wecca.canoeanalysis.models.data.NumericalSettings;
 import com.wecca.canoeanalysis.models.function.BoundedUnivariateFunction;
 import com.wecca.canoeanalysis.models.function.CubicBezierFunction;
 import com.wecca.canoeanalysis.models.load.PiecewiseContinuousLoadDistribution;
 import com.wecca.canoeanalysis.models.function.Section;
 import javafx.geometry.Point2D;
 import org.apache.commons.math3.analysis.BivariateFunction;
+import org.apache.commons.math3.analysis.UnivariateFunction;
 import org.apache.commons.math3.analysis.integration.SimpsonIntegrator;
 import org.apache.commons.math3.analysis.solvers.BrentSolver;
 import org.apache.commons.math3.analysis.solvers.UnivariateSolver;
 import org.apache.commons.math3.optim.MaxEval;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 public class CalculusUtils
 {
@@ -21,7 +26,102 @@ public class CalculusUtils
     // The settings on these numbers play a huge role in graphics rendering speed vs. integration accuracy
     // This has been tweaked here to give a fair balance
     // This is true for graphics where an animation requires many integrations at a high frequency
-    public static SimpsonIntegrator integrator = new SimpsonIntegrator(1e-4, 1e-8, 5, 16);
+    // Commons math integrators hold the state of the integral in progress, so each thread gets its own instance
+    // A thread rebuilds its integrator when it sees the settings have been replaced
+    // An analysis may bind its own settings to the thread running it, which then take precedence (see AnalysisContext)
+    private static volatile NumericalSettings numericalSettings = NumericalSettings.DEFAULT;
+    private static final ThreadLocal<NumericalSettings> boundSettings = new ThreadLocal<>();
+    private static final ThreadLocal<SimpsonIntegrator> integrator = new ThreadLocal<>();
+    private static final ThreadLocal<NumericalSettings> integratorSettings = new ThreadLocal<>();
+    // Hooks around each integration, set by the services layer so this class does not depend on it
+    private static volatile Runnable beforeIntegration = () -> {};
+    private static volatile IntConsumer afterIntegration = evaluations -> {};
+
+    /**
+     * @param hook called on the integrating thread before each integration, may throw to abort it (see ComputeScheduler)
+     */
+    public static void setBeforeIntegration(Runnable hook) {
+        beforeIntegration = hook;
+    }
+
+    /**
+     * @param hook called on the integrating thread after each integration with its number of evaluations (see MetricsService)
+     */
+    public static void setAfterIntegration(IntConsumer hook) {
+        afterIntegration = hook;
+    }
+
+    /**
+     * @return the numerical settings in use by the calling thread, the bound settings if any and otherwise the global settings
+     */
+    public static NumericalSettings getNumericalSettings() {
+        NumericalSettings settings = boundSettings.get();
+        return settings != null ? settings : numericalSettings;
+    }
+
+    /**
+     * Run a computation with settings bound to the calling thread, leaving the global settings and other threads untouched
+     * The previous binding is restored afterward, so these may nest
+     * @param settings the settings to compute with
+     * @param computation the computation
+     * @return the result of the computation
+     */
+    public static <T> T callWithNumericalSettings(NumericalSettings settings, Supplier<T> computation) {
+        if (settings == null)
+            throw new IllegalArgumentException("Numerical settings cannot be null");
+        NumericalSettings previous = boundSettings.get();
+        boundSettings.set(settings);
+        try {
+            return computation.get();
+        } finally {
+            if (previous == null) boundSettings.remove();
+            else boundSettings.set(previous);
+        }
+    }
+
+    /**
+     * Replace the numerical settings, computations already running may finish on the old ones
+     * @param settings the new settings
+     */
+    public static void setNumericalSettings(NumericalSettings settings) {
+        if (settings == null)
+            throw new IllegalArgumentException("Numerical settings cannot be null");
+        numericalSettings = settings;
+    }
+
+    /**
+     * @return the integrator for the calling thread
+     */
+    public static SimpsonIntegrator getIntegrator() {
+        NumericalSettings settings = getNumericalSettings();
+        if (integratorSettings.get() != settings) {
+            integrator.set(new SimpsonIntegrator(settings.getIntegratorRelativeAccuracy(), settings.getIntegratorAbsoluteAccuracy(),
+                    settings.getIntegratorMinIterations(), settings.getIntegratorMaxIterations()));
+            integratorSettings.set(settings);
+        }
+        return integrator.get();
+    }
+
+    /**
+     * Integrate with the integrator for the calling thread, emitting a JFR IntegrationEvent when it is enabled
+     * The integration hooks run around it, i.e. counting evaluations and stopping a superseded background job
+     * @param function the function to integrate
+     * @param a the lower bound
+     * @param b the upper bound
+     * @return the integral of the function on [a, b]
+     */
+    public static double integrate(UnivariateFunction function, double a, double b) {
+        beforeIntegration.run();
+        IntegrationEvent event = new IntegrationEvent();
+        event.begin();
+        SimpsonIntegrator simpson = getIntegrator();
+        double result = simpson.integrate(MaxEval.unlimited().getMaxEval(), function, a, b);
+        event.end();
+        afterIntegration.accept(simpson.getEvaluations());
+        if (event.shouldCommit())
+            event.commit(a, b, simpson.getEvaluations(), simpson.getIterations(), result, simpson.getAbsoluteAccuracy());
+        return result;
+    }
 
     /**
      * Returns the numerical derivative of a given function.
@@ -44,7 +144,7 @@ public class CalculusUtils
         {
             BoundedUnivariateFunction profileArcLengthElementFunction =
                     x -> Math.sqrt(1 + Math.pow(differentiate(function).value(x), 2));
-            return integrator.integrate(MaxEval.unlimited().getMaxEval(), profileArcLengthElementFunction, a, b);
+            return integrate(profileArcLengthElementFunction, a, b);
         }
     }
 
@@ -345,6 +445,62 @@ public class CalculusUtils
         return getSegmentForX(splineSegments, x).value(x);
     }
 
+    /**
+     * Cumulative integral of sampled y(x) with the trapezoidal rule, starting from 0 at x[0]
+     * Repeated x values (i.e. at a jump discontinuity) just contribute nothing
+     * @param x the sample positions, sorted ascending
+     * @param y the sampled values, same length as x
+     * @return F where F[i] is the integral of y from x[0] to x[i]
+     */
+    public static double[] cumulativeTrapezoid(double[] x, double[] y) {
+        if (x.length != y.length)
+            throw new IllegalArgumentException("x and y must have the same number of samples");
+        double[] integral = new double[x.length];
+        for (int i = 1; i < x.length; i++) {
+            integral[i] = integral[i - 1] + 0.5 * (y[i] + y[i - 1]) * (x[i] - x[i - 1]);
+        }
+        return integral;
+    }
+
+    /**
+     * Linearly interpolate sampled y(x) at a point, using binary search to find the bracketing samples
+     * Values outside the sampled range are clamped to the first/last sample
+     * @param x the sample positions, sorted ascending
+     * @param y the sampled values, same length as x
+     * @param xQuery the position to interpolate at
+     * @return the interpolated value y(xQuery)
+     */
+    public static double interpolate(double[] x, double[] y, double xQuery) {
+        if (xQuery <= x[0]) return y[0];
+        if (xQuery >= x[x.length - 1]) return y[y.length - 1];
+        int low = 0;
+        int high = x.length - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (x[mid] <= xQuery) low = mid;
+            else high = mid;
+        }
+        double dx = x[high] - x[low];
+        if (dx == 0) return y[high];
+        return y[low] + (y[high] - y[low]) * (xQuery - x[low]) / dx;
+    }
+
+    /**
+     * Unpack points (i.e. of a diagram) into sample arrays for interpolate()
+     * x is kept non-decreasing, guarding against rounding making consecutive points step backwards
+     * @param points the points, in order of x
+     * @return {x, y}
+     */
+    public static double[][] toSampleArrays(List<Point2D> points) {
+        double[] x = new double[points.size()];
+        double[] y = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            x[i] = i == 0 ? points.get(i).getX() : Math.max(points.get(i).getX(), x[i - 1]);
+            y[i] = points.get(i).getY();
+        }
+        return new double[][] {x, y};
+    }
+
     public static List<Point2D> getSplineKnots(List<CubicBezierFunction> splineSegments) {
         List<Point2D> knots = new ArrayList<>(splineSegments.size() + 1);
         for (CubicBezierFunction bezier : splineSegments) {
@@ -0,0 +1,122 @@
+package com.wecca.canoeanalysis.utils;
+
+import javafx.geometry.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Downsampling of point-wise diagram data for display
+ * Diagrams are generated on a 1mm grid, far more points than there are pixels to draw them on
+ */
+public class DecimationUtils {
+
+    /**
+     * Decimate a continuous run of points to about the target count using Largest-Triangle-Three-Buckets
+     * The first and last points, the max and min y points, both points of any jump discontinuity (same x)
+     * and any points in mustKeep are always kept, LTTB is applied to the runs between them
+     * @param points the points sorted by x
+     * @param targetCount the number of points to aim for
+     * @param mustKeep points to keep regardless (i.e. emphasized points)
+     * @return the decimated points, in the same order
+     */
+    public static List<Point2D> decimate(List<Point2D> points, int targetCount, Set<Point2D> mustKeep) {
+        int n = points.size();
+        if (n <= Math.max(targetCount, 2))
+            return new ArrayList<>(points);
+
+        // Find the points that have to be kept, LTTB is only free to choose points between these anchors
+        int maxIndex = 0;
+        int minIndex = 0;
+        for (int i = 1; i < n; i++) {
+            if (points.get(i).getY() > points.get(maxIndex).getY()) maxIndex = i;
+            if (points.get(i).getY() < points.get(minIndex).getY()) minIndex = i;
+        }
+        List<Integer> anchors = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            boolean isJump = (i > 0 && points.get(i - 1).getX() == points.get(i).getX())
+                    || (i < n - 1 && points.get(i + 1).getX() == points.get(i).getX());
+            if (i == 0 || i == n - 1 || i == maxIndex || i == minIndex || isJump || mustKeep.contains(points.get(i)))
+                anchors.add(i);
+        }
+
+        if (anchors.size() == n)
+            return new ArrayList<>(points);
+
+        // Split the remaining budget between the runs in proportion to the number of points in them
+        int budget = Math.max(targetCount - anchors.size(), 0);
+        List<Point2D> decimated = new ArrayList<>();
+        decimated.add(points.getFirst());
+        for (int a = 1; a < anchors.size(); a++) {
+            int start = anchors.get(a - 1);
+            int end = anchors.get(a);
+            int interior = end - start - 1;
+            int runBudget = (int) Math.round((double) budget * interior / (n - anchors.size()));
+            List<Point2D> run = largestTriangleThreeBuckets(points.subList(start, end + 1), runBudget + 2);
+            decimated.addAll(run.subList(1, run.size()));
+        }
+        return decimated;
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013)
+     * Points are split into buckets and the point in each bucket forming the largest triangle with
+     * the previously kept point and the average of the next bucket is kept, which preserves the visual shape
+     * @param points the points sorted by x
+     * @param threshold the number of points to keep, including both endpoints
+     * @return the kept points
+     */
+    public static List<Point2D> largestTriangleThreeBuckets(List<Point2D> points, int threshold) {
+        int n = points.size();
+        if (threshold >= n)
+            return new ArrayList<>(points);
+        if (threshold < 3)
+            return new ArrayList<>(List.of(points.getFirst(), points.getLast()));
+
+        List<Point2D> sampled = new ArrayList<>(threshold);
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        sampled.add(points.getFirst());
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket, the last point if this is the last bucket
+            int avgStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += points.get(j).getX();
+                avgY += points.get(j).getY();
+            }
+            int avgLength = avgEnd - avgStart;
+            if (avgLength > 0) {
+                avgX /= avgLength;
+                avgY /= avgLength;
+            }
+            else {
+                avgX = points.getLast().getX();
+                avgY = points.getLast().getY();
+            }
+
+            // Pick the point in the current bucket forming the largest triangle
+            int rangeStart = (int) Math.floor(i * bucketSize) + 1;
+            int rangeEnd = Math.min((int) Math.floor((i + 1) * bucketSize) + 1, n - 1);
+            double ax = points.get(a).getX();
+            double ay = points.get(a).getY();
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (points.get(j).getY() - ay) - (ax - points.get(j).getX()) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled.add(points.get(next));
+            a = next;
+        }
+
+        sampled.add(points.getLast());
+        return sampled;
+    }
+}
@@ -16,7 +16,6 @@ public class HullLibrary {
 
     public static final double SHARK_BAIT_LENGTH = 6.0;
     public static final double GIRRAFT_LENGTH = 5.71;
-    public static double scalingFactor = 1.0;
 
     /**
      * Generate the hull for 2025's GirRaft canoe scaled to the specified length (from GIRRAFT_LENGTH = 5.71m)
@@ -29,7 +28,7 @@ public class HullLibrary {
     public static Hull generateGirRaftHullScaled(double length) {
 
         // Scale compared to the actual length of Girraft
-        scalingFactor = length / GIRRAFT_LENGTH;
+        double scalingFactor = length / GIRRAFT_LENGTH;
 
         // Knot Points (points x values for which the top and side view must pass through x, f(x))
         // Note that these no longer need to match for the top and side view as of the most recent hull model (March 2025)
@@ -161,7 +160,9 @@ public class HullLibrary {
         }
 
         // Construct the hull using the new constructor.
-        return new Hull(concreteDensity, bulkheadDensity, sideViewSegments, processedTopViewSegments, thickness);
+        Hull hull = new Hull(concreteDensity, bulkheadDensity, sideViewSegments, processedTopViewSegments, thickness);
+        hull.setScalingFactor(scalingFactor);
+        return hull;
     }
 
     /**
@@ -175,7 +176,7 @@ public class HullLibrary {
     public static Hull generateSharkBaitHullScaled(double length) {
 
         // Scale compared to the actual length of Shark Bait
-        scalingFactor = length / SHARK_BAIT_LENGTH;
+        double scalingFactor = length / SHARK_BAIT_LENGTH;
 
         // Knot Points (points x values for which the top and side view must pass through x, f(x))
         double top = 0.00;
@@ -306,7 +307,9 @@ public class HullLibrary {
         }
 
         // Construct the hull using the new constructor.
-        return new Hull(concreteDensity, bulkheadDensity, sideViewSegments, processedTopViewSegments, thickness);
+        Hull hull = new Hull(concreteDensity, bulkheadDensity, sideViewSegments, processedTopViewSegments, thickness);
+        hull.setScalingFactor(scalingFactor);
+        return hull;
     }
 
     /**
@@ -317,9 +320,11 @@ public class HullLibrary {
      */
     public static Hull generateDefaultHull(double length) {
         // Scale compared to the actual length of Shark Bait
-        scalingFactor = length / SHARK_BAIT_LENGTH;
+        double scalingFactor = length / SHARK_BAIT_LENGTH;
         double thickness = 0.013 * scalingFactor;
-        return new Hull(length, 0.4 * scalingFactor, 0.7 * scalingFactor, thickness);
+        Hull hull = new Hull(length, 0.4 * scalingFactor, 0.7 * scalingFactor, thickness);
+        hull.setScalingFactor(scalingFactor);
+        return hull;
     }
 
     /**
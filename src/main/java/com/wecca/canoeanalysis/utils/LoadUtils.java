@@ -101,6 +101,22 @@ public class LoadUtils {
         return loadsList;
     }
 
+    /**
+     * Deep copy a load with its copy constructor
+     * Piecewise continuous distributions (i.e. hull, buoyancy) are defined by functions and are never mutated, so they are shared
+     * @param load the load to copy
+     * @return the copy
+     */
+    public static Load copyLoad(Load load) {
+        return switch (load) {
+            case PointLoad pLoad -> new PointLoad(pLoad);
+            case UniformLoadDistribution dLoad -> new UniformLoadDistribution(dLoad);
+            case DiscreteLoadDistribution discrete -> new DiscreteLoadDistribution(discrete);
+            case PiecewiseContinuousLoadDistribution piecewise -> piecewise;
+            default -> throw new IllegalArgumentException("Cannot copy load of type: " + load.getClass());
+        };
+    }
+
     /**
      * @param loads the list to operate on
      * @param bulkheadMap a map describing where bulkheads are for typing the sections with LoadType objects
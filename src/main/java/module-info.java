@@ -18,9 +18,11 @@ module com.wecca.canoeanalysis {
     requires javaGeom;
     requires jama;
     requires com.fasterxml.jackson.dataformat.smile;
+    requires jdk.jfr;
 
     exports com.wecca.canoeanalysis;
     opens com.wecca.canoeanalysis to javafx.fxml;
+    exports com.wecca.canoeanalysis.aop.jfr to jdk.jfr;
     exports com.wecca.canoeanalysis.components.diagrams;
     opens com.wecca.canoeanalysis.components.diagrams to javafx.fxml;
     exports com.wecca.canoeanalysis.components.controls;
@@ -33,6 +35,7 @@ module com.wecca.canoeanalysis {
     opens com.wecca.canoeanalysis.components.graphics to javafx.fxml;
     exports com.wecca.canoeanalysis.services.color;
     opens com.wecca.canoeanalysis.services.color to javafx.fxml;
+    exports com.wecca.canoeanalysis.services.metrics;
     exports com.wecca.canoeanalysis.models.function;
     opens com.wecca.canoeanalysis.models.function to javafx.fxml, com.fasterxml.jackson.databind;
     exports com.wecca.canoeanalysis.models.load;
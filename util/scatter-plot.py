@@ -19,6 +19,9 @@ log_data = """
 02:10:44.691 [INFO] x: 0.05, y: 0.5610989581179973
 """
 
+# Or set this to the path of a CSV dump from LoggerService::dumpPoints to plot it instead of log_data
+csv_path = None
+
 # ----- Settings -----
 
 # Regular expression pattern to extract x and y values
@@ -41,12 +44,17 @@ scaling_factor = new_length / sharkbait_length
 
 x_values = []
 y_values = []
-lines = log_data.strip().split('\n')
-for line in lines:
-    match = re.search(pattern, line)
-    if match:
-        x_values.append(float(match.group(1)))
-        y_values.append(float(match.group(2)))
+if csv_path:
+    data = np.loadtxt(csv_path, delimiter=',', skiprows=1, ndmin=2)
+    x_values = list(data[:, 0])
+    y_values = list(data[:, 1])
+else:
+    lines = log_data.strip().split('\n')
+    for line in lines:
+        match = re.search(pattern, line)
+        if match:
+            x_values.append(float(match.group(1)))
+            y_values.append(float(match.group(2)))
 
 if not x_values:
     print('No data extracted. Please check the format of your log data.')